@@ -0,0 +1,151 @@
+package com.project2.smartfactory.defect;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 기존 getChartData의 5회 스트림 순회(전체/주간/연간/월간/당일)와
+ * DetectionAggregationEngine 단일 패스를 같은 감지 로그 목록에 대해 비교합니다.
+ * 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DetectionAggregationBenchmark {
+
+    private static final String[] STATUSES = {"Normal", "Normal", "Normal", "Defective", "Substandard"};
+
+    @Param({"1000000", "10000000"})
+    private int rows;
+
+    private List<DetectionLog> logs;
+    private LocalDate today;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime now = LocalDateTime.now();
+        long spanMinutes = 5L * 365 * 24 * 60; // 최근 5년에 고르게 분포
+        logs = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            // 실제 테이블처럼 시간순으로 생성
+            LocalDateTime time = now.minusMinutes(spanMinutes - spanMinutes * i / rows);
+            String status = STATUSES[random.nextInt(STATUSES.length)];
+            Integer defects = "Normal".equals(status) ? 0 : 1 + random.nextInt(3);
+            DetectionLog log = new DetectionLog(status, defects, null, null);
+            log.setDetectionTime(time);
+            logs.add(log);
+        }
+        today = now.toLocalDate();
+    }
+
+    @Benchmark
+    public void legacyFivePass(Blackhole blackhole) {
+        DateTimeFormatter keyFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        DateTimeFormatter yearFormatter = DateTimeFormatter.ofPattern("yyyy");
+        DateTimeFormatter monthKeyFormatter = DateTimeFormatter.ofPattern("yyyy-MM");
+
+        Map<String, Long> overall = logs.stream()
+                .filter(log -> log.getStatus() != null)
+                .collect(Collectors.groupingBy(DetectionLog::getStatus, Collectors.counting()));
+
+        Map<String, Long> weekly = new TreeMap<>();
+        logs.stream()
+                .filter(log -> log.getDetectionTime() != null
+                        && !log.getDetectionTime().toLocalDate().isBefore(today.minusDays(6)) && isDefect(log))
+                .forEach(log -> weekly.compute(log.getDetectionTime().toLocalDate().format(keyFormatter),
+                        (k, v) -> (v == null ? 0L : v) + defects(log)));
+
+        Map<String, Long> yearlyDefects = new TreeMap<>();
+        Map<String, Long> yearlyTotals = new TreeMap<>();
+        LocalDate fiveYearsAgo = today.minusYears(4).withDayOfYear(1);
+        logs.stream()
+                .filter(log -> log.getDetectionTime() != null && !log.getDetectionTime().toLocalDate().isBefore(fiveYearsAgo))
+                .forEach(log -> {
+                    String key = log.getDetectionTime().toLocalDate().format(yearFormatter);
+                    if (isDefect(log)) {
+                        yearlyDefects.compute(key, (k, v) -> (v == null ? 0L : v) + defects(log));
+                    }
+                    yearlyTotals.compute(key, (k, v) -> (v == null ? 0L : v) + 1L);
+                });
+
+        Map<String, Long> monthlyDefects = new TreeMap<>();
+        Map<String, Long> monthlyTotals = new TreeMap<>();
+        LocalDate twelveMonthsAgo = today.minusMonths(11).withDayOfMonth(1);
+        logs.stream()
+                .filter(log -> log.getDetectionTime() != null && !log.getDetectionTime().toLocalDate().isBefore(twelveMonthsAgo))
+                .forEach(log -> {
+                    String key = log.getDetectionTime().toLocalDate().format(monthKeyFormatter);
+                    if (isDefect(log)) {
+                        monthlyDefects.compute(key, (k, v) -> (v == null ? 0L : v) + defects(log));
+                    }
+                    monthlyTotals.compute(key, (k, v) -> (v == null ? 0L : v) + 1L);
+                });
+
+        Map<String, Long> daily = logs.stream()
+                .filter(log -> log.getDetectionTime() != null && log.getDetectionTime().toLocalDate().isEqual(today))
+                .filter(log -> log.getStatus() != null)
+                .collect(Collectors.groupingBy(DetectionLog::getStatus, Collectors.counting()));
+
+        blackhole.consume(overall);
+        blackhole.consume(weekly);
+        blackhole.consume(yearlyDefects);
+        blackhole.consume(yearlyTotals);
+        blackhole.consume(monthlyDefects);
+        blackhole.consume(monthlyTotals);
+        blackhole.consume(daily);
+    }
+
+    @Benchmark
+    public void singlePassEngine(Blackhole blackhole) {
+        long[] overall = new long[BucketCounts.FIELDS];
+        BucketCounts daily = new BucketCounts(DetectionBucket.DAY); // 주간 + 당일
+        BucketCounts monthly = new BucketCounts(DetectionBucket.MONTH);
+        BucketCounts yearly = new BucketCounts(DetectionBucket.YEAR);
+        DetectionAggregator overallAggregator = (epochMinute, statusIndex, defects) -> {
+            if (statusIndex >= 0) {
+                overall[statusIndex]++;
+            }
+        };
+
+        new DetectionAggregationEngine(overallAggregator, daily, monthly, yearly).acceptAll(logs);
+
+        blackhole.consume(overall);
+        for (int i = 6; i >= 0; i--) {
+            blackhole.consume(daily.get(DetectionBucket.DAY.indexOf(today.minusDays(i))));
+        }
+        for (int i = 11; i >= 0; i--) {
+            blackhole.consume(monthly.get(DetectionBucket.MONTH.indexOf(today.minusMonths(i))));
+        }
+        for (int i = 4; i >= 0; i--) {
+            blackhole.consume(yearly.get(DetectionBucket.YEAR.indexOf(today.minusYears(i))));
+        }
+    }
+
+    private static boolean isDefect(DetectionLog log) {
+        return "Defective".equals(log.getStatus()) || "Substandard".equals(log.getStatus());
+    }
+
+    private static long defects(DetectionLog log) {
+        return log.getDefectCount() != null ? log.getDefectCount() : 0L;
+    }
+}
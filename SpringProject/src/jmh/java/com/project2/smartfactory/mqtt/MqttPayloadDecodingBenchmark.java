@@ -0,0 +1,88 @@
+package com.project2.smartfactory.mqtt;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.project2.smartfactory.defect.DefectDetectionDetailsDto;
+
+/**
+ * 현재 네 가지 토픽 페이로드에 대해 기존 방식(new String 복사 + readTree + 필드 추출, 상세 정보는 문자열에서 readValue)과
+ * 미리 만든 ObjectReader로 byte[]에서 바로 레코드로 역직렬화하는 방식을 비교합니다.
+ * 실행: ./gradlew jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MqttPayloadDecodingBenchmark {
+
+    @Param({"script_status", "system_status", "detect_result", "details"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private ObjectReader reader;
+    private byte[] payload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        String json;
+        Class<?> type;
+        switch (format) {
+            case "script_status" -> {
+                json = "{\"status\":\"Running\",\"message\":\"Detection loop is running\",\"timestamp\":\"2025-05-20T10:15:30\"}";
+                type = StatusPayload.class;
+            }
+            case "system_status" -> {
+                json = "{\"status\":\"running\",\"pid\":12345}";
+                type = StatusPayload.class;
+            }
+            case "detect_result" -> {
+                json = "{\"status\":\"Defective\",\"timestamp\":\"2025-05-20T10:15:30\",\"defectCount\":2}";
+                type = DetectResultPayload.class;
+            }
+            case "details" -> {
+                json = "{\"detectionTime\":\"2025-05-20T10:15:30\",\"status\":\"Defective\",\"defectCount\":2,"
+                        + "\"defectSummary\":\"scab(0.91), bruise(0.84)\"}";
+                type = DefectDetectionDetailsDto.class;
+            }
+            default -> throw new IllegalArgumentException(format);
+        }
+        payload = json.getBytes(StandardCharsets.UTF_8);
+        reader = objectMapper.readerFor(type);
+    }
+
+    @Benchmark
+    public void legacyStringTree(Blackhole blackhole) throws IOException {
+        String text = new String(payload, StandardCharsets.UTF_8);
+        if (format.equals("details")) { // 상세 정보 토픽은 기존에도 문자열에서 DTO로 바로 역직렬화
+            blackhole.consume(objectMapper.readValue(text, DefectDetectionDetailsDto.class));
+            return;
+        }
+        JsonNode node = objectMapper.readTree(text);
+        blackhole.consume(node.has("status") ? node.get("status").asText() : "UNKNOWN");
+        blackhole.consume(node.has("message") ? node.get("message").asText() : "");
+        blackhole.consume(node.has("timestamp") ? node.get("timestamp").asText() : "UNKNOWN");
+        blackhole.consume(node.has("defectCount") ? node.get("defectCount").asInt() : 0);
+    }
+
+    @Benchmark
+    public Object typedRecordReader() throws IOException {
+        return reader.readValue(payload);
+    }
+}
@@ -0,0 +1,48 @@
+package com.project2.smartfactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * (시각, ID) 기준 keyset 페이지네이션 커서.
+ * 클라이언트에는 "시각|ID"를 base64url로 인코딩한 불투명한 토큰으로 전달됩니다.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class KeysetCursor {
+
+    private final LocalDateTime time;
+    private final long id;
+
+    /**
+     * 페이지 마지막 행의 (시각, ID)를 커서 토큰으로 만듭니다.
+     */
+    public static String encode(LocalDateTime time, long id) {
+        String raw = time + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 커서 토큰을 해석합니다. 토큰이 비어 있으면 null(첫 페이지)을 반환합니다.
+     * @throws IllegalArgumentException 토큰 형식이 잘못된 경우
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new KeysetCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) { // Base64/날짜/숫자 형식 오류
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
@@ -1,16 +1,21 @@
 package com.project2.smartfactory.chart;
 
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.project2.smartfactory.defect.ChartDataCache;
 import com.project2.smartfactory.defect.DetectionLogService;
 
 import lombok.RequiredArgsConstructor;
 
+import java.time.LocalDate;
 import java.util.Map;
 
 @RestController
@@ -20,17 +25,49 @@ import java.util.Map;
 public class ChartDataController { 
 
     private final DetectionLogService detectionLogService;
+    private final ChartDataCache chartDataCache;
 
     /**
      * 모든 차트에 필요한 데이터를 JSON 형태로 반환합니다.
+     * 응답에는 데이터 버전 기반의 ETag가 붙으며, If-None-Match가 현재 ETag와 같으면
+     * 데이터를 계산하거나 직렬화하지 않고 304 Not Modified로 응답합니다.
      * @param totalTasks 당일 총 작업량 (프론트엔드에서 쿼리 파라미터로 전달받습니다)
-     * @return 각 차트 데이터가 포함된 Map (JSON 변환)
+     * @return 각 차트 데이터가 포함된 Map (JSON 변환), 변경이 없으면 304
      */
     @GetMapping("/data")
-    public ResponseEntity<Map<String, Object>> getAllChartData(@RequestParam(value = "totalTasks", defaultValue = "0") int totalTasks) {
+    public ResponseEntity<Map<String, Object>> getAllChartData(@RequestParam(value = "totalTasks", defaultValue = "0") int totalTasks,
+                                                               WebRequest webRequest) {
         // totalTasks는 프론트엔드에서 전달받으며, 기본값은 0으로 설정합니다.
-        Map<String, Object> chartData = detectionLogService.getChartData(totalTasks);
-        return ResponseEntity.ok(chartData);
+        if (webRequest.checkNotModified(chartDataCache.currentETag(totalTasks))) {
+            chartDataCache.recordNotModified();
+            return null; // 304 응답은 checkNotModified가 이미 설정함
+        }
+        ChartDataCache.Snapshot snapshot = chartDataCache.get(totalTasks);
+        return ResponseEntity.ok()
+                .eTag(snapshot.getEtag())
+                .cacheControl(CacheControl.noCache().cachePrivate()) // 브라우저가 매번 ETag로 재검증하도록
+                .body(snapshot.getData());
+    }
+
+    /**
+     * 특정 날짜의 시간별 감지 상태 건수를 반환합니다. (시간 단위 집계 테이블 사용)
+     * @param date 조회할 날짜 (yyyy-MM-dd, 생략 시 오늘)
+     * @return 시간별 Normal/Defective/Substandard 건수
+     */
+    @GetMapping("/hourly")
+    public ResponseEntity<Map<String, Object>> getHourlyChartData(
+            @RequestParam(value = "date", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return ResponseEntity.ok(detectionLogService.getHourlyChartData(date != null ? date : LocalDate.now()));
+    }
+
+    /**
+     * 오늘, 최근 1시간, 최근 N분의 상태별 감지 건수를 반환합니다. (메모리 카운터, DB 조회 없음)
+     * @param minutes 최근 N분 구간 (기본 10분)
+     * @return 구간별 건수
+     */
+    @GetMapping("/live")
+    public ResponseEntity<Map<String, Object>> getLiveCounts(@RequestParam(value = "minutes", defaultValue = "10") int minutes) {
+        return ResponseEntity.ok(detectionLogService.getLiveCounts(minutes));
     }
 
     // 필요에 따라 특정 차트 데이터만 가져오는 엔드포인트를 추가할 수 있습니다.
@@ -20,6 +20,7 @@ public class SecurityConfig {
         http
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers(new AntPathRequestMatcher("/api/defect", "POST")).permitAll()
+                .requestMatchers(new AntPathRequestMatcher("/api/defect/batch", "POST")).permitAll()
                 .requestMatchers(new AntPathRequestMatcher("/api/latest-defects", "GET")).permitAll()
                 // AntPathRequstMatcher 는 개별적으로만 사용이 가능함
                 .requestMatchers("/css/**", "/js/**", "/images/**").permitAll()
@@ -44,6 +45,7 @@ public class SecurityConfig {
             )
             .csrf(csrf -> csrf
                 .ignoringRequestMatchers(new AntPathRequestMatcher("/api/defect", "POST"))
+                .ignoringRequestMatchers(new AntPathRequestMatcher("/api/defect/batch", "POST"))
                 // /api/control/** (POST)에 대해 CSRF 보호 비활성화 추가
                 .ignoringRequestMatchers(new AntPathRequestMatcher("/api/control/**"))
                 .ignoringRequestMatchers(new AntPathRequestMatcher("/api/progress/set-total", "POST"))
@@ -7,13 +7,19 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "control_logs") // 매핑될 데이터베이스 테이블 이름
+@Table(name = "control_logs", indexes = { // 매핑될 데이터베이스 테이블 이름
+    // 제어 로그 목록의 keyset 페이지네이션 (control_time DESC, id DESC)
+    @Index(name = "idx_control_logs_time_id", columnList = "control_time, id"),
+    // 제어 유형 필터가 있는 페이지 조회
+    @Index(name = "idx_control_logs_type_time_id", columnList = "control_type, control_time, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
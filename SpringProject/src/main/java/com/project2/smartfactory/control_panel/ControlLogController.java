@@ -1,6 +1,6 @@
 package com.project2.smartfactory.control_panel;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -11,24 +11,48 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 @Controller
 @RequestMapping("/ctrl")
 public class ControlLogController {
-  private final ControlLogRepository controlLogRepository;
+  private final ControlLogWriter controlLogWriter;
+  private final ControlLogService controlLogService;
 
-  public ControlLogController(ControlLogRepository controlLogRepository){
-    this.controlLogRepository=controlLogRepository;
+  public ControlLogController(ControlLogWriter controlLogWriter, ControlLogService controlLogService){
+    this.controlLogWriter=controlLogWriter;
+    this.controlLogService=controlLogService;
   }
 
+  // /ctrl/logs와 같은 페이지 단위 조회 (전체 이력을 한 번에 반환하지 않음)
   @GetMapping
-  Iterable<ControlLog> getControlLogs(){
-    return controlLogRepository.findAll();
+  @ResponseBody
+  ResponseEntity<ControlLogPageDto> getControlLogs(ControlLogQuery query){
+    return getAllControlLogs(query);
   }
 
+  /**
+   * 제어 로그 한 건을 접수합니다. 저장은 ControlLogWriter가 순서대로 처리하므로 ID 없이 접수만 응답합니다.
+   * controlTime이 없으면 지금 시각으로 채웁니다. 클라이언트가 과거 시각을 보내면 그 로그는 더 큰 ID를 받고도
+   * (control_time, id) 순서상 앞에 놓이므로, sinceId 폴링이나 커서 페이지 조회에서 누락되거나 순서가 어긋날 수 있습니다.
+   * @return 202, NOT NULL 필드(controlType, controlData, controlResultStatus)가 없으면 400, 큐가 가득 차면 503
+   */
   @PostMapping
-  ControlLog postControlLog(@RequestBody ControlLog controlLog){
-    return controlLogRepository.save(controlLog);
+  ResponseEntity<Void> postControlLog(@RequestBody ControlLog controlLog){
+    if(controlLog.getControlType()==null || controlLog.getControlData()==null || controlLog.getControlResultStatus()==null){
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST); // writer 스레드에서 저장에 실패해 버려지지 않도록 미리 거절
+    }
+    controlLog.setId(null);
+    if(controlLog.getControlTime()==null){
+      controlLog.setControlTime(LocalDateTime.now());
+    }
+    if(controlLog.getControlMemo()==null){
+      controlLog.setControlMemo("");
+    }
+    if(!controlLogWriter.append(controlLog)){
+      return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    return new ResponseEntity<>(HttpStatus.ACCEPTED);
   }
 
   @GetMapping("/system/{action}/{status}/{result}")
@@ -80,21 +104,30 @@ public class ControlLogController {
   }
 
   public boolean createControlLog(ControlLog controlLog){
-    try{
-      controlLogRepository.save(controlLog);
-      return true;
-    }catch(Exception e){
-      return false;
-    }
+    return controlLogWriter.append(controlLog);
   }
 
+  /**
+   * 제어 로그를 페이지 단위로 조회합니다.
+   * 예: /ctrl/logs?limit=50&controlType=User%20Request&from=2025-05-01T00:00:00&cursor=...
+   * 폴링하는 화면은 첫 페이지의 latestId를 기억해 두었다가 /ctrl/logs?sinceId=... 로 새 로그만 받아갑니다.
+   * @param query 커서/sinceId, 페이지 크기, 제어 유형/조작 결과/기간 필터
+   * @return 제어 로그 페이지, 커서 형식이 잘못되면 400
+   */
   @GetMapping("/logs") // /ctrl/logs 경로로 GET 요청 처리
-  public ResponseEntity<List<ControlLog>> getAllControlLogs() {
-    System.out.println("--- API 요청 수신 (감지 로그 요청) ---");
-    List<ControlLog> logs = this.controlLogRepository.findAllByOrderByControlTimeDesc();
-    System.out.println("제어 로그 " + (logs != null ? logs.size() : 0) + "건 조회 완료.");
-    System.out.println("----------------------------------");
-    return new ResponseEntity<>(logs, HttpStatus.OK); // JSON 형태의 응답 본문과 상태 코드 200 OK 반환
+  public ResponseEntity<ControlLogPageDto> getAllControlLogs(ControlLogQuery query) {
+    try {
+      ControlLogPageDto page = controlLogService.getControlLogPage(query);
+      if (query.getSinceId() == null || !page.getItems().isEmpty()) { // 새 로그가 없는 폴링은 로그를 남기지 않음
+        System.out.println("--- API 요청 수신 (제어 로그 요청) ---");
+        System.out.println("제어 로그 " + page.getItems().size() + "건 조회 완료.");
+        System.out.println("----------------------------------");
+      }
+      return new ResponseEntity<>(page, HttpStatus.OK); // JSON 형태의 응답 본문과 상태 코드 200 OK 반환
+    } catch (IllegalArgumentException e) {
+      System.err.println("잘못된 제어 로그 조회 요청: " + e.getMessage());
+      return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+    }
   }
 
 }
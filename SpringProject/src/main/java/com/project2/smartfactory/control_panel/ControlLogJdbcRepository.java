@@ -0,0 +1,53 @@
+package com.project2.smartfactory.control_panel;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * control_logs 테이블에 대한 JDBC 배치 쓰기.
+ * ControlLog도 IDENTITY 키라 Hibernate가 insert를 묶지 못하므로 JdbcTemplate.batchUpdate로 한 번에 보냅니다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ControlLogJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO control_logs (control_time, control_type, control_data, control_result_status, control_memo) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 제어 로그 목록을 하나의 JDBC 배치로 저장합니다. 목록 순서대로 ID가 부여됩니다.
+     * @param logs 저장할 제어 로그 목록
+     * @return 각 행의 갱신 건수
+     */
+    public int[] batchInsert(List<ControlLog> logs) {
+        if (logs.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ControlLog log = logs.get(i);
+                ps.setTimestamp(1, Timestamp.valueOf(log.getControlTime()));
+                ps.setString(2, log.getControlType());
+                ps.setString(3, log.getControlData());
+                ps.setString(4, log.getControlResultStatus());
+                ps.setString(5, log.getControlMemo() == null ? "" : log.getControlMemo());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return logs.size();
+            }
+        });
+    }
+}
@@ -0,0 +1,23 @@
+package com.project2.smartfactory.control_panel;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 제어 로그 목록의 한 페이지.
+ * - 일반 조회: 최신순(control_time DESC, id DESC), 다음 페이지가 있으면 nextCursor 포함
+ * - 증분 조회(sinceId): 기록된 순서(id ASC), 남은 로그가 더 있으면 hasMore = true
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ControlLogPageDto {
+
+  private List<ControlLog> items; // 이번 페이지의 제어 로그
+  private String nextCursor; // 다음(과거) 페이지 조회용 커서 (마지막 페이지 또는 증분 조회면 null)
+  private Long latestId; // 지금까지 받은 로그 중 가장 큰 ID (다음 증분 조회의 sinceId)
+  private boolean hasMore; // 같은 조건으로 더 읽을 로그가 남아 있는지 여부
+}
@@ -0,0 +1,42 @@
+package com.project2.smartfactory.control_panel;
+
+import java.time.LocalDateTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 제어 로그 목록(/ctrl/logs) 조회 조건.
+ * 쿼리 파라미터가 같은 이름의 필드에 바인딩됩니다.
+ */
+@Data
+@NoArgsConstructor
+public class ControlLogQuery {
+
+  public static final int DEFAULT_LIMIT = 50;
+  public static final int MAX_LIMIT = 500;
+
+  private String cursor; // 이전 페이지 응답의 nextCursor (첫 페이지는 생략)
+  private Long sinceId; // 이 ID 이후에 기록된 로그만 조회 (증분 조회, cursor와 함께 쓰지 않음)
+  private Integer limit; // 페이지 크기 (기본 50, 최대 500)
+  private String controlType; // 제어 유형 필터 (예: "User Request", "System Check")
+  private String controlResultStatus; // 조작 결과 필터
+
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+  private LocalDateTime from; // 제어 시각 하한 (포함)
+
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+  private LocalDateTime to; // 제어 시각 상한 (미포함)
+
+  /**
+   * 허용 범위로 보정한 페이지 크기를 반환합니다.
+   */
+  public int resolvedLimit() {
+    if (limit == null || limit <= 0) {
+      return DEFAULT_LIMIT;
+    }
+    return Math.min(limit, MAX_LIMIT);
+  }
+}
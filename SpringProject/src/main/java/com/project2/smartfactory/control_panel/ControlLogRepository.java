@@ -1,12 +1,47 @@
 package com.project2.smartfactory.control_panel;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
-public interface ControlLogRepository extends JpaRepository<ControlLog, Long> {
+public interface ControlLogRepository extends JpaRepository<ControlLog, Long>, JpaSpecificationExecutor<ControlLog> {
 
     // 예: 모든 로그를 최신 순으로 정렬하여 조회
     List<ControlLog> findAllByOrderByControlTimeDesc();
 
+    // 제어 유형, 조작 결과, 기간 필터 (값이 없는 조건은 무시)
+    static Specification<ControlLog> matching(ControlLogQuery query) {
+        return (root, criteriaQuery, cb) -> {
+            var predicate = cb.conjunction();
+            if (query.getControlType() != null && !query.getControlType().isBlank()) {
+                predicate = cb.and(predicate, cb.equal(root.get("controlType"), query.getControlType()));
+            }
+            if (query.getControlResultStatus() != null && !query.getControlResultStatus().isBlank()) {
+                predicate = cb.and(predicate, cb.equal(root.get("controlResultStatus"), query.getControlResultStatus()));
+            }
+            if (query.getFrom() != null) {
+                predicate = cb.and(predicate, cb.greaterThanOrEqualTo(root.<LocalDateTime>get("controlTime"), query.getFrom()));
+            }
+            if (query.getTo() != null) {
+                predicate = cb.and(predicate, cb.lessThan(root.<LocalDateTime>get("controlTime"), query.getTo()));
+            }
+            return predicate;
+        };
+    }
+
+    // (control_time, id)가 커서보다 앞선(더 과거인) 로그
+    static Specification<ControlLog> before(LocalDateTime time, long id) {
+        return (root, criteriaQuery, cb) -> cb.and(
+                cb.lessThanOrEqualTo(root.<LocalDateTime>get("controlTime"), time),
+                cb.or(cb.lessThan(root.<LocalDateTime>get("controlTime"), time), cb.lessThan(root.<Long>get("id"), id)));
+    }
+
+    // 지정한 ID 이후에 기록된 로그
+    static Specification<ControlLog> afterId(long id) {
+        return (root, criteriaQuery, cb) -> cb.greaterThan(root.<Long>get("id"), id);
+    }
+
 }
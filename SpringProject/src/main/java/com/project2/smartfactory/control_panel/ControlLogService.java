@@ -0,0 +1,70 @@
+package com.project2.smartfactory.control_panel;
+
+import java.util.List;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project2.smartfactory.KeysetCursor;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 제어 로그 조회 서비스.
+ * 전체 이력을 한 번에 읽지 않고 (control_time, id) keyset 페이지 또는 "sinceId 이후" 증분으로만 조회합니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class ControlLogService {
+
+  private static final Sort NEWEST_FIRST = Sort.by(Sort.Order.desc("controlTime"), Sort.Order.desc("id"));
+  private static final Sort OLDEST_FIRST = Sort.by(Sort.Order.asc("id"));
+
+  private final ControlLogRepository controlLogRepository;
+
+  /**
+   * 조건에 맞는 제어 로그 한 페이지를 조회합니다.
+   * sinceId가 있으면 그 이후에 기록된 로그만 기록 순서대로, 없으면 커서 이후의 과거 로그를 최신순으로 반환합니다.
+   * @param query 커서/sinceId, 페이지 크기, 필터 조건
+   * @return 제어 로그 페이지
+   * @throws IllegalArgumentException 커서 형식이 잘못된 경우
+   */
+  @Transactional(readOnly = true)
+  public ControlLogPageDto getControlLogPage(ControlLogQuery query) {
+    int limit = query.resolvedLimit();
+    Specification<ControlLog> spec = ControlLogRepository.matching(query);
+
+    if (query.getSinceId() != null) {
+      List<ControlLog> logs = fetch(spec.and(ControlLogRepository.afterId(query.getSinceId())), OLDEST_FIRST, limit + 1);
+      boolean hasMore = logs.size() > limit;
+      if (hasMore) {
+        logs = logs.subList(0, limit);
+      }
+      Long latestId = logs.isEmpty() ? query.getSinceId() : logs.get(logs.size() - 1).getId();
+      return new ControlLogPageDto(logs, null, latestId, hasMore);
+    }
+
+    KeysetCursor after = KeysetCursor.decode(query.getCursor());
+    if (after != null) {
+      spec = spec.and(ControlLogRepository.before(after.getTime(), after.getId()));
+    }
+    // 한 건 더 읽어 다음 페이지 존재 여부를 판단
+    List<ControlLog> logs = fetch(spec, NEWEST_FIRST, limit + 1);
+    boolean hasMore = logs.size() > limit;
+    String nextCursor = null;
+    if (hasMore) {
+      logs = logs.subList(0, limit);
+      ControlLog last = logs.get(limit - 1);
+      nextCursor = KeysetCursor.encode(last.getControlTime(), last.getId());
+    }
+    Long latestId = logs.stream().map(ControlLog::getId).max(Long::compare).orElse(null);
+    return new ControlLogPageDto(logs, nextCursor, latestId, hasMore);
+  }
+
+  // 개수(count) 쿼리 없이 정렬 + LIMIT만 적용하여 조회
+  private List<ControlLog> fetch(Specification<ControlLog> spec, Sort sort, int limit) {
+    return controlLogRepository.findBy(spec, q -> q.sortBy(sort).limit(limit).all());
+  }
+}
@@ -0,0 +1,144 @@
+package com.project2.smartfactory.control_panel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 제어 로그 비동기 배치 저장.
+ * - MQTT 상태 처리기는 로그를 큐에 넣기만 하고, writer 스레드 하나가 최대 batch-size 건씩 묶어 저장합니다.
+ * - writer가 하나이므로 로그는 들어온 순서대로 ID를 받으며, /ctrl/logs?sinceId= 폴링 순서도 유지됩니다.
+ *   이 순서가 깨지지 않도록 제어 로그는 모두 이 클래스를 거쳐 저장합니다 (ControlLogRepository.save를 직접 쓰지 않음).
+ */
+@Service
+@RequiredArgsConstructor
+public class ControlLogWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ControlLogWriter.class);
+
+    private final ControlLogJdbcRepository controlLogJdbcRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${control.log.writer.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${control.log.writer.batch-size:100}")
+    private int batchSize;
+
+    @Value("${control.log.writer.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    private BlockingQueue<ControlLog> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private DistributionSummary batchSizeSummary;
+    private Counter rejectedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Gauge.builder("control.log.queue.depth", queue, BlockingQueue::size)
+                .description("저장 대기 중인 제어 로그 수")
+                .register(meterRegistry);
+        batchSizeSummary = DistributionSummary.builder("control.log.batch.size")
+                .description("flush 한 번에 저장된 제어 로그 수")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("control.log.rejected").description("큐가 가득 차 버려진 제어 로그 수").register(meterRegistry);
+        failedCounter = Counter.builder("control.log.failed").description("저장에 실패해 버려진 제어 로그 수").register(meterRegistry);
+
+        running = true;
+        writerThread = new Thread(this::drainLoop, "control-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * 제어 로그를 저장 큐에 넣습니다. 블로킹하지 않습니다.
+     * @return 큐에 들어갔으면 true, 큐가 가득 찼으면 false
+     */
+    public boolean append(ControlLog controlLog) {
+        if (queue.offer(controlLog)) {
+            return true;
+        }
+        rejectedCounter.increment();
+        logger.warn("Control log queue is full ({}). Log dropped: {}", queueCapacity, controlLog);
+        return false;
+    }
+
+    private void drainLoop() {
+        List<ControlLog> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ControlLog first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                persistBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("Unexpected error in control log writer: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // 종료 시 남아 있는 로그를 모두 저장
+        while (queue.drainTo(batch, batchSize) > 0) {
+            persistBatch(batch);
+            batch.clear();
+        }
+    }
+
+    // 배치 전체가 실패하면 문제 행만 걸러내기 위해 한 건씩 다시 저장
+    private void persistBatch(List<ControlLog> batch) {
+        try {
+            controlLogJdbcRepository.batchInsert(batch);
+        } catch (Exception e) {
+            logger.error("Batch write of {} control logs failed, retrying one by one: {}", batch.size(), e.getMessage());
+            for (ControlLog controlLog : batch) {
+                try {
+                    controlLogJdbcRepository.batchInsert(List.of(controlLog));
+                } catch (Exception ex) {
+                    failedCounter.increment();
+                    logger.error("Dropping control log after write failure: {}", controlLog, ex);
+                }
+            }
+        } finally {
+            batchSizeSummary.record(batch.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Control log writer stopped with {} logs still queued.", queue.size());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.project2.smartfactory.defect;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * NDJSON 일괄 적재(/api/defect/batch) 결과를 담는 DTO.
+ * 레코드별 접수/거절 건수와 거절 사유(앞쪽 일부)를 포함합니다.
+ */
+@Data
+@NoArgsConstructor
+public class BatchIngestResultDto {
+
+    private static final int MAX_ERRORS = 50; // 응답에 포함할 거절 사유 최대 개수
+
+    private int accepted; // 저장에 성공한 레코드 수
+    private int rejected; // 파싱/검증/저장에 실패한 레코드 수
+    private boolean truncated; // JSON 구문 오류로 스트림 처리가 중단되었는지 여부
+    private List<String> errors = new ArrayList<>(); // "레코드 번호: 사유" 목록
+
+    /**
+     * 한 레코드를 거절 처리하고 사유를 기록합니다.
+     * @param recordNo 1부터 시작하는 레코드 번호
+     * @param reason 거절 사유
+     */
+    public void reject(int recordNo, String reason) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(recordNo + ": " + reason);
+        }
+    }
+
+    /**
+     * 저장에 성공한 건수를 반영합니다. 저장에 실패한 레코드는 reject로 따로 기록합니다.
+     * @param saved 저장에 성공한 건수
+     */
+    public void addAccepted(int saved) {
+        accepted += saved;
+    }
+}
@@ -0,0 +1,75 @@
+package com.project2.smartfactory.defect;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 구간(DetectionBucket)별 상태 건수와 불량 개수 합계를 원시 long 배열로 누적하는 집계기.
+ * - 배열 인덱스는 LiveProductionCounter.NORMAL/DEFECTIVE/SUBSTANDARD/TOTAL과 DEFECT_SUM입니다.
+ * - 감지 로그는 대부분 시간순으로 들어오므로 현재 구간의 범위를 기억해 두고,
+ *   구간이 바뀔 때만 인덱스 계산과 맵 조회를 합니다.
+ */
+public class BucketCounts implements DetectionAggregator {
+
+    public static final int DEFECT_SUM = LiveProductionCounter.FIELDS;
+    public static final int FIELDS = DEFECT_SUM + 1;
+
+    /**
+     * forEach로 구간별 집계를 전달받는 콜백.
+     */
+    @FunctionalInterface
+    public interface BucketConsumer {
+        void accept(long index, long[] counts);
+    }
+
+    private final DetectionBucket bucket;
+    private final Map<Long, long[]> buckets = new TreeMap<>();
+
+    // 마지막으로 갱신한 구간 [currentFrom, currentTo) (epoch minute)
+    private long currentFrom = 1;
+    private long currentTo = 0;
+    private long[] current;
+
+    public BucketCounts(DetectionBucket bucket) {
+        this.bucket = bucket;
+    }
+
+    @Override
+    public void accept(long epochMinute, int statusIndex, long defects) {
+        if (epochMinute < currentFrom || epochMinute >= currentTo) {
+            long index = bucket.index(epochMinute);
+            currentFrom = bucket.startMinute(index);
+            currentTo = bucket.startMinute(index + 1);
+            current = buckets.computeIfAbsent(index, i -> new long[FIELDS]);
+        }
+        if (statusIndex >= 0) {
+            current[statusIndex]++;
+        }
+        current[LiveProductionCounter.TOTAL]++;
+        current[DEFECT_SUM] += defects;
+    }
+
+    public DetectionBucket getBucket() {
+        return bucket;
+    }
+
+    /**
+     * 구간의 집계 배열을 반환합니다. 해당 구간에 데이터가 없으면 null입니다.
+     */
+    public long[] get(long index) {
+        return buckets.get(index);
+    }
+
+    /**
+     * 데이터가 있는 구간을 인덱스 오름차순으로 전달합니다.
+     */
+    public void forEach(BucketConsumer consumer) {
+        for (Map.Entry<Long, long[]> entry : buckets.entrySet()) {
+            consumer.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+}
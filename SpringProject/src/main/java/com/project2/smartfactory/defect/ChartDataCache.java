@@ -0,0 +1,133 @@
+package com.project2.smartfactory.defect;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * DetectionLogService.getChartData 앞단의 버전 기반 캐시.
+ * - 차트 데이터는 새 감지 결과가 저장될 때만 바뀌므로, DefectService가 커밋 후 invalidate()로 데이터 버전을 올립니다.
+ * - 캐시 키는 (오늘 날짜, totalTasks)이며, 항목은 계산을 시작할 때의 데이터 버전을 함께 보관합니다.
+ * - ETag는 (기동 시각, 데이터 버전, 날짜, totalTasks)만으로 결정되므로 데이터를 계산하거나 직렬화하지 않고도
+ *   조건부 요청(If-None-Match)에 304로 응답할 수 있습니다. 데이터 버전은 기동할 때마다 1부터 다시 시작하므로
+ *   기동 시각을 함께 넣어, 재시작 전에 발급한 ETag가 재시작 후의 다른 데이터와 일치하지 않게 합니다.
+ * - 적중률과 재계산 시간을 Micrometer 메트릭으로 노출합니다.
+ */
+@Component
+public class ChartDataCache {
+
+    private static final int MAX_ENTRIES = 32; // totalTasks 값이 제각각일 때 무한히 늘지 않도록
+
+    private final DetectionLogService detectionLogService;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong dataVersion = new AtomicLong(1);
+    private final long bootId = System.currentTimeMillis(); // 프로세스마다 다른 ETag 접두사
+    private final Map<Integer, Snapshot> entries = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter notModifiedCounter;
+    private final Timer recomputeTimer;
+
+    /**
+     * 캐시된 차트 데이터 한 건. ETag는 계산 시작 시점의 데이터 버전 기준입니다.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Snapshot {
+        private final LocalDate day;
+        private final long version;
+        private final Map<String, Object> data;
+        private final String etag;
+    }
+
+    public ChartDataCache(DetectionLogService detectionLogService, MeterRegistry meterRegistry) {
+        this.detectionLogService = detectionLogService;
+        this.meterRegistry = meterRegistry;
+        this.hitCounter = Counter.builder("chart.cache.hits").register(meterRegistry);
+        this.missCounter = Counter.builder("chart.cache.misses").register(meterRegistry);
+        this.notModifiedCounter = Counter.builder("chart.cache.not_modified").description("304로 응답한 조건부 요청 수").register(meterRegistry);
+        this.recomputeTimer = Timer.builder("chart.cache.recompute").description("차트 데이터 재계산 시간").register(meterRegistry);
+    }
+
+    // 게이지는 this를 참조하므로 생성이 끝난 뒤 등록
+    @PostConstruct
+    public void registerGauges() {
+        Gauge.builder("chart.cache.hit.ratio", this, ChartDataCache::hitRatio).register(meterRegistry);
+        Gauge.builder("chart.cache.data.version", dataVersion, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * 감지 데이터가 바뀌었음을 알립니다. 이후 요청은 새 버전으로 다시 계산됩니다.
+     */
+    public void invalidate() {
+        dataVersion.incrementAndGet();
+    }
+
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    /**
+     * 현재 데이터 버전 기준의 ETag를 계산합니다. 차트 데이터는 계산하지 않습니다.
+     */
+    public String currentETag(int totalTasks) {
+        return etag(dataVersion.get(), LocalDate.now(), totalTasks);
+    }
+
+    /**
+     * 조건부 요청이 304로 처리되었음을 기록합니다.
+     */
+    public void recordNotModified() {
+        notModifiedCounter.increment();
+    }
+
+    /**
+     * 현재 버전의 차트 데이터를 반환합니다. 버전이나 날짜가 바뀌었으면 다시 계산합니다.
+     */
+    public Snapshot get(int totalTasks) {
+        LocalDate today = LocalDate.now();
+        long version = dataVersion.get();
+        Snapshot cached = entries.get(totalTasks);
+        if (cached != null && cached.getVersion() == version && cached.getDay().equals(today)) {
+            hitCounter.increment();
+            return cached;
+        }
+
+        missCounter.increment();
+        long start = System.nanoTime();
+        Map<String, Object> data = detectionLogService.getChartData(totalTasks);
+        recomputeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+        // 계산 도중 버전이 올라갔다면 이 항목은 다음 요청에서 다시 계산됩니다.
+        Snapshot snapshot = new Snapshot(today, version, data, etag(version, today, totalTasks));
+        if (entries.size() >= MAX_ENTRIES && !entries.containsKey(totalTasks)) {
+            entries.clear();
+        }
+        entries.put(totalTasks, snapshot);
+        return snapshot;
+    }
+
+    private double hitRatio() {
+        double hits = hitCounter.count() + notModifiedCounter.count();
+        double total = hits + missCounter.count();
+        return total == 0 ? 0.0 : hits / total;
+    }
+
+    private String etag(long version, LocalDate day, int totalTasks) {
+        return "\"charts-" + Long.toString(bootId, 36) + "-" + version + "-" + day + "-" + totalTasks + "\"";
+    }
+}
@@ -0,0 +1,100 @@
+package com.project2.smartfactory.defect;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 기존 defect_box_coordinates 테이블(@ElementCollection)에 저장된 바운딩 박스 좌표를
+ * defect_info의 box_x1~box_y2 컬럼으로 옮기는 1회성 마이그레이션.
+ * - 새 컬럼은 ddl-auto=update로 추가되며, 애플리케이션 기동 완료 후 이 작업이 실행됩니다.
+ * - 이전 @ElementCollection에는 @OrderColumn이 없었으므로 좌표 순서를 나타내는 컬럼이 없고, 삽입 순서대로 x1, y1, x2, y2로 해석합니다.
+ *   행은 defect_id 순으로 읽어 한 불량의 좌표가 연달아 오게 하며, 같은 defect_id 안의 순서는 InnoDB가 defect_id 외래 키 인덱스를
+ *   (defect_id, 내부 행 ID = 삽입 순) 순서로 읽는 것에 기대고 있습니다.
+ * - 옮긴 뒤 이전 테이블은 삭제하지 않고 defect_box_coordinates_migrated로 이름만 바꿉니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class DefectBoxMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefectBoxMigration.class);
+
+    private static final String LEGACY_TABLE = "defect_box_coordinates";
+    private static final String UPDATE_SQL =
+            "UPDATE defect_info SET box_x1 = ?, box_y1 = ?, box_x2 = ?, box_y2 = ? WHERE id = ? AND box_x1 IS NULL";
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${defect.box-migration.enabled:true}")
+    private boolean enabled;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyBoxCoordinates() {
+        if (!enabled || !legacyTableExists()) {
+            return;
+        }
+        logger.info("Migrating bounding boxes from {} into defect_info columns.", LEGACY_TABLE);
+
+        List<Object[]> updates = new ArrayList<>(BATCH_SIZE);
+        long[] currentId = {-1L};
+        double[] coords = new double[4];
+        int[] coordCount = {0};
+        int[] migrated = {0};
+
+        jdbcTemplate.query("SELECT defect_id, coordinate FROM " + LEGACY_TABLE + " ORDER BY defect_id", (RowCallbackHandler) rs -> {
+            long defectId = rs.getLong(1);
+            if (defectId != currentId[0]) {
+                addUpdate(updates, currentId[0], coords, coordCount[0]);
+                currentId[0] = defectId;
+                coordCount[0] = 0;
+            }
+            if (coordCount[0] < 4) {
+                coords[coordCount[0]] = rs.getDouble(2);
+            }
+            coordCount[0]++;
+            if (updates.size() >= BATCH_SIZE) {
+                migrated[0] += flush(updates);
+            }
+        });
+        addUpdate(updates, currentId[0], coords, coordCount[0]);
+        migrated[0] += flush(updates);
+
+        jdbcTemplate.execute("RENAME TABLE " + LEGACY_TABLE + " TO " + LEGACY_TABLE + "_migrated");
+        logger.info("Bounding box migration finished: {} defects updated, legacy table renamed to {}_migrated.", migrated[0], LEGACY_TABLE);
+    }
+
+    private boolean legacyTableExists() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = ?",
+                Integer.class, LEGACY_TABLE);
+        return count != null && count > 0;
+    }
+
+    private static void addUpdate(List<Object[]> updates, long defectId, double[] coords, int coordCount) {
+        if (defectId < 0 || coordCount < 4) {
+            return; // 좌표가 4개 미만인 행은 box 없음으로 둡니다.
+        }
+        updates.add(new Object[] {coords[0], coords[1], coords[2], coords[3], defectId});
+    }
+
+    private int flush(List<Object[]> updates) {
+        if (updates.isEmpty()) {
+            return 0;
+        }
+        int size = updates.size();
+        jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        updates.clear();
+        return size;
+    }
+}
@@ -1,5 +1,6 @@
 package com.project2.smartfactory.defect;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -24,13 +25,15 @@ import lombok.RequiredArgsConstructor;
 public class DefectController {
 
     private final DefectService defectService; // DefectService 주입
+    private final DetectionIngestService detectionIngestService; // 비동기 적재 파이프라인
 
     /**
      * 파이썬 스크립트로부터 불량 감지 결과를 수신하여 처리합니다.
-     * 수신된 정보는 DetectionResultDto 객체에 담겨 있으며, DefectService를 통해 데이터베이스에 저장됩니다.
+     * 수신된 정보는 DetectionResultDto 객체에 담겨 있으며, 적재 큐에 넣은 즉시 응답합니다.
+     * 실제 데이터베이스 저장은 DetectionIngestService의 writer 스레드가 배치로 수행합니다.
      * @param detectionResultDto 파이썬 스크립트로부터 수신된 감지 결과 (로그 정보 및 불량 목록 포함)
      * @param request HTTP 요청 정보
-     * @return 처리 결과에 대한 응답 (성공 또는 실패)
+     * @return 처리 결과에 대한 응답 (큐 등록 성공, 큐 포화 또는 실패)
      */
     @PostMapping("/defect") // /api/defect 경로로 POST 요청 처리
     public ResponseEntity<Map<String, String>> receiveDetectionResult(@RequestBody DetectionResultDto detectionResultDto, HttpServletRequest request) { // 인자 타입 변경
@@ -53,33 +56,46 @@ public class DefectController {
 
         System.out.println("수신된 감지 결과: " + detectionResultDto.toString()); // 수신된 DTO 로깅
 
-        try {
-            // DefectService를 통해 감지 결과를 데이터베이스에 저장 및 처리 (로그 및 상세 불량)
-            // DefectService의 processAndSaveDefects 메소드를 DetectionResultDto를 받도록 수정해야 합니다.
-            defectService.processAndSaveDetectionResult(detectionResultDto); // 메소드 이름 및 인자 변경 제안
-            System.out.println("감지 결과 DefectService로 전달 완료.");
-
-            System.out.println("요청 처리 성공. 응답 상태 코드: 200 OK"); // 성공 로그
+        // 적재 큐에 등록만 하고 바로 응답 (DB 커밋을 기다리지 않음)
+        if (!detectionIngestService.enqueue(detectionResultDto)) {
+            System.err.println("적재 큐가 가득 차 감지 결과를 받을 수 없습니다. 응답 상태 코드: 503 Service Unavailable");
             System.out.println("----------------------------------");
-            // 클라이언트에게 성공 JSON 응답을 보냅니다.
-            Map<String, String> responseBody = new HashMap<>();
-            responseBody.put("status", "success");
-            responseBody.put("message", "Detection result received and processed successfully");
+            Map<String, String> errorBody = new HashMap<>();
+            errorBody.put("status", "error");
+            errorBody.put("message", "Ingest queue is full, retry later");
+            return new ResponseEntity<>(errorBody, HttpStatus.SERVICE_UNAVAILABLE); // 상태 코드 503 반환 (재전송 유도)
+        }
 
-            return new ResponseEntity<>(responseBody, HttpStatus.OK); // JSON 형태의 응답 본문과 상태 코드 200 OK 반환
+        System.out.println("감지 결과 적재 큐 등록 완료. 응답 상태 코드: 200 OK"); // 성공 로그
+        System.out.println("----------------------------------");
+        // 클라이언트에게 성공 JSON 응답을 보냅니다.
+        Map<String, String> responseBody = new HashMap<>();
+        responseBody.put("status", "success");
+        responseBody.put("message", "Detection result queued for processing");
+        return new ResponseEntity<>(responseBody, HttpStatus.OK); // 파이썬 클라이언트는 200을 성공으로 판단
+    }
 
-        } catch (Exception e) {
-            // DefectService 처리 중 오류 발생 시
-            System.err.println("감지 결과 처리 중 오류 발생 (DefectService): " + e.getMessage());
-            e.printStackTrace(); // 오류 스택 트레이스 출력
+    /**
+     * 엣지 장비가 버퍼링해 둔 감지 결과를 한 번에 재전송할 때 사용하는 일괄 적재 엔드포인트.
+     * 요청 본문은 한 줄에 DetectionResultDto 하나씩 담긴 NDJSON이며, 스트리밍으로 읽어 배치 저장합니다.
+     * @param request HTTP 요청 정보 (본문 스트림)
+     * @return 레코드별 접수/거절 집계
+     */
+    @PostMapping("/defect/batch") // /api/defect/batch 경로로 POST 요청 처리
+    public ResponseEntity<BatchIngestResultDto> receiveDetectionResultBatch(HttpServletRequest request) {
+        System.out.println("\n--- API 요청 수신 (감지 결과 일괄 적재) ---");
+        System.out.println("요청 소스 IP: " + request.getRemoteAddr());
+        System.out.println("요청 헤더 Content-Type: " + request.getHeader("Content-Type"));
 
-            System.out.println("요청 처리 실패. 응답 상태 코드: 500 Internal Server Error"); // 실패 로그
+        try {
+            BatchIngestResultDto result = detectionIngestService.ingestNdjson(request.getInputStream());
+            System.out.println("일괄 적재 완료: 접수 " + result.getAccepted() + "건, 거절 " + result.getRejected() + "건");
             System.out.println("----------------------------------");
-            // 클라이언트에게 오류 JSON 응답을 보냅니다.
-            Map<String, String> errorBody = new HashMap<>();
-            errorBody.put("status", "error");
-            errorBody.put("message", "Failed to process detection result: " + e.getMessage());
-            return new ResponseEntity<>(errorBody, HttpStatus.INTERNAL_SERVER_ERROR); // 상태 코드 500 반환
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (IOException e) {
+            System.err.println("일괄 적재 요청 본문을 읽는 중 오류 발생: " + e.getMessage());
+            System.out.println("----------------------------------");
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
     }
 
@@ -102,18 +118,25 @@ public class DefectController {
     }
 
     /**
-     * 데이터베이스에 저장된 모든 감지 로그를 최신 순으로 JSON 형태로 제공합니다.
-     * defects.html의 감지 결과 로그 테이블에서 이 엔드포인트를 호출합니다.
-     * @return 감지 로그 리스트
+     * 저장된 감지 로그를 최신 순으로 한 페이지씩 JSON 형태로 제공합니다.
+     * defects.html의 감지 결과 로그 테이블에서 이 엔드포인트를 호출하며, 스크롤 시 nextCursor로 다음 페이지를 요청합니다.
+     * 예: /api/detection-logs?limit=50&status=Defective&from=2025-05-01T00:00:00&minDefects=2&cursor=...
+     * @param query 커서, 페이지 크기, 상태/기간/최소 불량 개수 필터
+     * @return 감지 로그 페이지 (items, nextCursor), 커서 형식이 잘못되면 400
      */
     @GetMapping("/detection-logs") // /api/detection-logs 경로로 GET 요청 처리
-    public ResponseEntity<List<DetectionLog>> getAllDetectionLogs() {
+    public ResponseEntity<DetectionLogPageDto> getDetectionLogs(DetectionLogQuery query) {
         System.out.println("--- API 요청 수신 (감지 로그 요청) ---");
-        // DefectService를 통해 모든 감지 로그를 가져와 반환합니다.
-        List<DetectionLog> logs = defectService.getAllDetectionLogs();
-        System.out.println("감지 로그 " + (logs != null ? logs.size() : 0) + "건 조회 완료.");
-        System.out.println("----------------------------------");
-        return new ResponseEntity<>(logs, HttpStatus.OK); // JSON 형태의 응답 본문과 상태 코드 200 OK 반환
+        try {
+            DetectionLogPageDto page = defectService.getDetectionLogPage(query);
+            System.out.println("감지 로그 " + page.getItems().size() + "건 조회 완료. 다음 페이지: " + (page.getNextCursor() != null));
+            System.out.println("----------------------------------");
+            return new ResponseEntity<>(page, HttpStatus.OK); // JSON 형태의 응답 본문과 상태 코드 200 OK 반환
+        } catch (IllegalArgumentException e) {
+            System.err.println("잘못된 감지 로그 조회 요청: " + e.getMessage());
+            System.out.println("----------------------------------");
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
     }
 
     // 필요에 따라 특정 기간의 불량 정보 조회 등 추가 API 엔드포인트를 구현할 수 있습니다.
@@ -1,24 +1,18 @@
 // src/main/java/com/project2/smartfactory/defect/DefectDetectionDetailsDto.java
 package com.project2.smartfactory.defect;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-import java.time.LocalDateTime; // detectionTime을 위해 추가
-import java.util.List;
+import java.time.LocalDateTime;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 /**
  * 'defect_detection/details' 토픽에서 수신되는 JSON 메시지의 전체 구조를 나타내는 DTO.
- * 이 메시지는 개별 불량 정보(DefectInfo) 리스트를 포함합니다.
+ * 페이로드 byte[]에서 바로 역직렬화되는 불변 레코드입니다.
+ * @param detectionTime 감지 시각 (ISO 8601 문자열 자동 파싱)
+ * @param status 판정 결과
+ * @param defectCount 감지된 불량 개수
+ * @param defectSummary 불량 요약
  */
-@Data // Lombok: Getter, Setter, toString, equals, hashCode 자동 생성
-@NoArgsConstructor // Lombok: 기본 생성자 자동 생성
-@AllArgsConstructor // Lombok: 모든 필드를 인자로 받는 생성자 자동 생성
-public class DefectDetectionDetailsDto {
-    private LocalDateTime detectionTime; // JSON의 detectionTime 필드 (ISO 8601 문자열 자동 파싱)
-    private String status;
-    private int defectCount;
-    private String defectSummary;
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record DefectDetectionDetailsDto(LocalDateTime detectionTime, String status, int defectCount, String defectSummary) {
 }
@@ -1,19 +1,18 @@
 package com.project2.smartfactory.defect;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonProperty.Access;
 
-import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
-import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -43,11 +42,24 @@ public class DefectInfo {
     @Column
     private String reason;  // 불량 판정 사유
 
-    // 바운딩 박스 좌표 리스트 매핑
-    @ElementCollection
-    @CollectionTable(name = "defect_box_coordinates", joinColumns = @JoinColumn(name = "defect_id"))
-    @Column(name = "coordinate")
-    private List<Double> box; // 바운딩 박스 좌표 [x1, y1, x2, y2]
+    // 바운딩 박스 좌표는 별도 테이블 없이 불량 행에 고정 컬럼 4개로 저장합니다.
+    // (불량 1건당 insert 1회, 조회 시 추가 select 없음)
+    // JSON에서는 기존과 동일하게 box: [x1, y1, x2, y2] 배열로 주고받습니다. (getBox/setBox)
+    @Column(name = "box_x1")
+    @JsonIgnore
+    private Double boxX1;
+
+    @Column(name = "box_y1")
+    @JsonIgnore
+    private Double boxY1;
+
+    @Column(name = "box_x2")
+    @JsonIgnore
+    private Double boxX2;
+
+    @Column(name = "box_y2")
+    @JsonIgnore
+    private Double boxY2;
 
     @Transient // 데이터베이스에 저장하지 않는 필드
     private String snapshotPath; // 스냅샷 이미지 파일 경로 (Python 스크립트 실행 머신의 로컬 경로)
@@ -76,6 +88,31 @@ public class DefectInfo {
     @Column(name = "detection_time") // 데이터베이스 컬럼 이름 지정
     private LocalDateTime detectionTime;
 
+    /**
+     * 바운딩 박스 좌표를 [x1, y1, x2, y2] 형태로 반환합니다.
+     * @return 좌표 리스트 (좌표가 없으면 null)
+     */
+    @JsonProperty("box")
+    public List<Double> getBox() {
+        if (boxX1 == null && boxY1 == null && boxX2 == null && boxY2 == null) {
+            return null;
+        }
+        return Arrays.asList(boxX1, boxY1, boxX2, boxY2);
+    }
+
+    /**
+     * [x1, y1, x2, y2] 형태의 바운딩 박스 좌표를 4개 컬럼에 나누어 설정합니다.
+     * @param box 좌표 리스트 (4개 미만이면 좌표 없음으로 처리)
+     */
+    @JsonProperty("box")
+    public void setBox(List<Double> box) {
+        boolean valid = box != null && box.size() >= 4;
+        this.boxX1 = valid ? box.get(0) : null;
+        this.boxY1 = valid ? box.get(1) : null;
+        this.boxX2 = valid ? box.get(2) : null;
+        this.boxY2 = valid ? box.get(3) : null;
+    }
+
     // Lombok @Data 어노테이션이 Getter, Setter, NoArgsConstructor 등을 포함합니다.
     // @AllArgsConstructor는 모든 필드를 포함하는 생성자를 자동으로 생성합니다.
 }
@@ -2,6 +2,10 @@ package com.project2.smartfactory.defect;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.project2.smartfactory.KeysetCursor;
 
 import lombok.RequiredArgsConstructor;
 
@@ -21,7 +25,10 @@ public class DefectService {
     private final List<DefectInfo> latestDefects = new CopyOnWriteArrayList<>();
 
     private final DefectRepository defectRepository; // DefectRepository 주입
-    private final DetectionLogRepository detectionLogRepository; // DetectionLogRepository 주입
+    private final DetectionLogJdbcRepository detectionLogJdbcRepository; // 감지 로그 배치 저장용
+    private final DetectionRollupRepository detectionRollupRepository; // 차트용 집계 테이블
+    private final LiveProductionCounter liveProductionCounter; // 당일 생산 현황 메모리 카운터
+    private final ChartDataCache chartDataCache; // 차트 데이터 캐시 (커밋 후 버전 증가)
 
 
     /**
@@ -38,79 +45,93 @@ public class DefectService {
             return; // null 데이터는 처리하지 않음
         }
 
-        try {
-            // 1. 감지 이벤트 로그 저장 (DetectionResultDto의 정보 사용)
-            // DetectionLog 엔티티 생성
-            DetectionLog logEntry = new DetectionLog(
-                detectionResultDto.getStatus(),
-                detectionResultDto.getDefectCount(),
-                detectionResultDto.getImageUrl(), // DTO의 전체 이미지 URL 사용
-                detectionResultDto.getDefectSummary()
-            );
-            // 감지 시간은 DTO에서 받아오거나, 여기서 새로 설정할 수 있습니다.
-            // 파이썬에서 시간을 보내준다면 DTO에서 받아오는 것이 좋습니다.
-            if (detectionResultDto.getDetectionTime() != null) {
-                logEntry.setDetectionTime(detectionResultDto.getDetectionTime());
-            } else {
-                 // DTO에 시간이 없다면 현재 시간 설정
-                logEntry.setDetectionTime(LocalDateTime.now());
-            }
-
-            detectionLogRepository.save(logEntry);
-            System.out.println("감지 로그 데이터베이스 저장 완료: " + logEntry.getStatus());
+        saveDetectionResults(List.of(detectionResultDto));
+    }
 
-            // 2. 불량 상세 정보 저장 (DetectionResultDto의 불량 목록 사용)
-            List<DefectInfo> defects = detectionResultDto.getDefects();
-            boolean defectDetected = defects != null && !defects.isEmpty();
+    /**
+     * 여러 건의 감지 결과를 하나의 트랜잭션(커밋 1회)으로 저장합니다.
+     * 감지 로그는 JDBC 배치로, 불량 상세 정보는 saveAll로 저장되며
+     * 최신 불량 정보 리스트는 배치의 마지막 결과 기준으로 갱신됩니다.
+     * @param results 저장할 감지 결과 목록 (수신 순서)
+     */
+    @Transactional
+    public void saveDetectionResults(List<DetectionResultDto> results) {
+        List<DetectionLog> logEntries = new ArrayList<>(results.size());
+        List<DefectInfo> defectsToSave = new ArrayList<>();
+        List<DefectInfo> lastDefects = List.of();
 
-            if (defectDetected) {
-                // 불량 정보에 로그 엔티티 연결 (필요시) 또는 DefectInfo 자체에 로그 ID 추가
-                // 현재 DefectInfo 엔티티는 DetectionLog와의 직접적인 연관 관계가 없습니다.
-                // 만약 불량 상세 정보와 로그를 연결하고 싶다면 DefectInfo 엔티티에
-                // DetectionLog에 대한 참조 필드를 추가하고 매핑해야 합니다.
-                // 여기서는 간단하게 불량 정보만 별도로 저장합니다.
+        try {
+            for (DetectionResultDto detectionResultDto : results) {
+                if (detectionResultDto == null) {
+                    continue; // null 데이터는 처리하지 않음
+                }
 
-                // DefectInfo 엔티티 저장 전에 imageUrl과 detectionTime 설정
-                LocalDateTime currentDetectionTime = logEntry.getDetectionTime(); // 저장된 로그의 시간 사용
-                String overallImageUrl = detectionResultDto.getImageUrl(); // DTO의 전체 이미지 URL
+                // 1. 감지 이벤트 로그 생성 (DetectionResultDto의 정보 사용)
+                DetectionLog logEntry = new DetectionLog(
+                    detectionResultDto.getStatus(),
+                    detectionResultDto.getDefectCount(),
+                    detectionResultDto.getImageUrl(), // DTO의 전체 이미지 URL 사용
+                    detectionResultDto.getDefectSummary()
+                );
+                // 파이썬에서 시간을 보내준다면 DTO의 시간을, 없다면 현재 시간(생성자 기본값)을 사용합니다.
+                if (detectionResultDto.getDetectionTime() != null) {
+                    logEntry.setDetectionTime(detectionResultDto.getDetectionTime());
+                }
+                logEntries.add(logEntry);
 
-                for (DefectInfo defect : defects) {
+                // 2. 불량 상세 정보 (DetectionResultDto의 불량 목록 사용)
+                List<DefectInfo> defects = detectionResultDto.getDefects();
+                if (defects != null && !defects.isEmpty()) {
                     // 각 DefectInfo 객체에 전체 감지 이미지 URL과 감지 시간 설정
-                    // 만약 개별 불량 이미지 URL이 필요하다면, Python에서 해당 데이터를
-                    // MQTT 페이로드의 각 불량 객체에 추가하고 DefectInfo 엔티티도 수정해야 합니다.
-                    defect.setImageUrl(overallImageUrl);
-                    defect.setDetectionTime(currentDetectionTime);
+                    for (DefectInfo defect : defects) {
+                        defect.setImageUrl(detectionResultDto.getImageUrl());
+                        defect.setDetectionTime(logEntry.getDetectionTime());
+                    }
+                    defectsToSave.addAll(defects);
+                    lastDefects = defects;
+                } else {
+                    // Normal 상태가 감지되면 최신 불량 정보 리스트를 비웁니다.
+                    lastDefects = List.of();
                 }
+            }
 
-
-                // DefectInfo 엔티티 저장
-                List<DefectInfo> savedDefects = defectRepository.saveAll(defects);
-                System.out.println(savedDefects.size() + " 건의 불량 정보 데이터베이스 저장 완료.");
-
-                // API 엔드포인트에서 최신 정보를 제공하기 위해 메모리 내 리스트 업데이트
-                latestDefects.clear();
-                latestDefects.addAll(savedDefects); // 저장된 객체를 리스트에 추가
-
-                // 저장된 불량 정보 확인 (디버깅용)
-                // latestDefects.forEach(defect -> System.out.println(defect.toString()));
-            } else {
-                 // 불량 감지되지 않았을 경우 (Normal 상태)
-                 // 불량 상세 정보는 저장하지 않습니다.
-                 // 최신 불량 정보 리스트는 이전 불량 정보를 유지하거나 비울 수 있습니다.
-                 // 여기서는 Normal 상태가 감지되면 최신 불량 정보 리스트를 비우도록 합니다.
-                latestDefects.clear();
-                System.out.println("불량 감지되지 않음. 불량 상세 정보 저장 스킵.");
+            detectionLogJdbcRepository.batchInsert(logEntries);
+            detectionRollupRepository.applyLogs(logEntries); // 차트용 시간/일 집계 증분 반영
+            afterCommit(() -> {
+                logEntries.forEach(log -> liveProductionCounter.record(log.getDetectionTime(), log.getStatus()));
+                chartDataCache.invalidate(); // 카운터 반영 후에 버전을 올려야 재계산 결과가 최신 상태를 포함
+            });
+            if (!defectsToSave.isEmpty()) {
+                defectRepository.saveAll(defectsToSave); // 새 엔티티는 persist되어 같은 인스턴스에 ID가 채워짐
             }
+            System.out.println("감지 로그 " + logEntries.size() + "건, 불량 정보 " + defectsToSave.size() + "건 데이터베이스 저장 완료.");
 
+            // API 엔드포인트에서 최신 정보를 제공하기 위해 메모리 내 리스트 업데이트
+            latestDefects.clear();
+            latestDefects.addAll(lastDefects);
 
         } catch (Exception e) {
             System.err.println("데이터베이스 저장 중 오류 발생: " + e.getMessage());
             e.printStackTrace();
-            // 데이터베이스 저장 실패 시 예외를 다시 던져 트랜잭션 롤백을 유도할 수 있습니다.
+            // 데이터베이스 저장 실패 시 예외를 다시 던져 트랜잭션 롤백을 유도합니다.
             throw new RuntimeException("Failed to save detection result to database", e);
         }
     }
 
+    // 현재 트랜잭션이 커밋된 뒤에 실행 (롤백 시 메모리 상태가 DB와 어긋나지 않도록)
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     /**
      * 저장된 최신 불량 정보를 가져옵니다.
      * 이 정보는 API 엔드포인트에서 웹 페이지에 표시하기 위해 사용됩니다.
@@ -122,15 +143,27 @@ public class DefectService {
     }
 
     /**
-     * 데이터베이스에 저장된 모든 감지 로그를 최신 순으로 가져옵니다.
-     * @return 감지 로그 리스트
+     * 감지 로그를 최신 순으로 한 페이지씩 가져옵니다.
+     * 페이지 경계는 (detection_time, id) 커서로 표현되어 페이지 깊이와 관계없이 비용이 일정합니다.
+     * @param query 커서, 페이지 크기, 필터 조건
+     * @return 감지 로그 페이지 (다음 페이지가 있으면 nextCursor 포함)
+     * @throws IllegalArgumentException 커서 형식이 잘못된 경우
      */
-    public List<DetectionLog> getAllDetectionLogs() {
-        System.out.println("데이터베이스에서 모든 감지 로그 조회 중...");
-        // DetectionLogRepository를 사용하여 모든 로그를 최신 순으로 조회
-        List<DetectionLog> logs = detectionLogRepository.findAllByOrderByDetectionTimeDesc();
-        System.out.println(logs.size() + " 건의 감지 로그 조회 완료.");
-        return logs; // 조회된 로그 리스트 반환
+    public DetectionLogPageDto getDetectionLogPage(DetectionLogQuery query) {
+        KeysetCursor after = KeysetCursor.decode(query.getCursor());
+        LocalDateTime afterTime = after != null ? after.getTime() : null;
+        Long afterId = after != null ? after.getId() : null;
+
+        int limit = query.resolvedLimit();
+        // 한 건 더 읽어 다음 페이지 존재 여부를 판단
+        List<DetectionLog> logs = detectionLogJdbcRepository.findPage(query, afterTime, afterId, limit + 1);
+        String nextCursor = null;
+        if (logs.size() > limit) {
+            logs = logs.subList(0, limit);
+            DetectionLog last = logs.get(limit - 1);
+            nextCursor = KeysetCursor.encode(last.getDetectionTime(), last.getId());
+        }
+        return new DetectionLogPageDto(logs, nextCursor);
     }
 
 
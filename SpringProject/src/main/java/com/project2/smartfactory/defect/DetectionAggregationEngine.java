@@ -0,0 +1,59 @@
+package com.project2.smartfactory.defect;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 감지 로그를 한 번만 순회하면서 등록된 모든 집계기를 함께 갱신하는 단일 패스 집계 엔진.
+ * - 행마다 시각을 epoch minute으로, 상태를 인덱스로 한 번만 변환합니다 (문자열 포맷/박싱 없음).
+ * - detectionTime이 없는 행은 모든 집계에서 한 번에 제외됩니다.
+ * - 스레드 안전하지 않으므로 순회 한 번마다 새로 만들어 사용합니다.
+ */
+public class DetectionAggregationEngine {
+
+    private final DetectionAggregator[] aggregators;
+
+    public DetectionAggregationEngine(DetectionAggregator... aggregators) {
+        this.aggregators = aggregators.clone();
+    }
+
+    /**
+     * 감지 로그 한 건을 모든 집계기에 반영합니다.
+     */
+    public void accept(LocalDateTime detectionTime, String status, Integer defectCount) {
+        if (detectionTime == null) {
+            return;
+        }
+        long epochMinute = Math.floorDiv(detectionTime.toEpochSecond(ZoneOffset.UTC), 60);
+        int statusIndex = statusIndex(status);
+        long defects = statusIndex == LiveProductionCounter.DEFECTIVE || statusIndex == LiveProductionCounter.SUBSTANDARD
+                ? (defectCount != null ? defectCount : 0) : 0;
+        for (DetectionAggregator aggregator : aggregators) {
+            aggregator.accept(epochMinute, statusIndex, defects);
+        }
+    }
+
+    /**
+     * 감지 로그 목록을 한 번 순회하여 모든 집계기에 반영합니다.
+     */
+    public void acceptAll(Iterable<DetectionLog> logs) {
+        for (DetectionLog log : logs) {
+            accept(log.getDetectionTime(), log.getStatus(), log.getDefectCount());
+        }
+    }
+
+    /**
+     * 상태 문자열을 LiveProductionCounter의 인덱스로 변환합니다. 알 수 없는 상태는 -1입니다.
+     */
+    public static int statusIndex(String status) {
+        if (status == null) {
+            return -1;
+        }
+        return switch (status) {
+            case "Normal" -> LiveProductionCounter.NORMAL;
+            case "Defective" -> LiveProductionCounter.DEFECTIVE;
+            case "Substandard" -> LiveProductionCounter.SUBSTANDARD;
+            default -> -1;
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package com.project2.smartfactory.defect;
+
+/**
+ * DetectionAggregationEngine에 등록되어 감지 로그 한 행씩을 전달받는 집계기.
+ * 엔진이 시각과 상태를 원시 값으로 한 번만 변환해 넘겨주므로,
+ * 새 차트는 집계기를 하나 더 등록하는 것만으로 추가 스캔 없이 같은 순회에 참여할 수 있습니다.
+ */
+@FunctionalInterface
+public interface DetectionAggregator {
+
+    /**
+     * @param epochMinute 감지 시각 (LocalDateTime을 UTC로 간주한 epoch minute)
+     * @param statusIndex LiveProductionCounter.NORMAL/DEFECTIVE/SUBSTANDARD, 그 외 상태는 -1
+     * @param defects 불량 개수 (Defective/Substandard일 때만, 그 외 0)
+     */
+    void accept(long epochMinute, int statusIndex, long defects);
+}
@@ -0,0 +1,97 @@
+package com.project2.smartfactory.defect;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 집계 구간 단위. epoch minute을 구간 인덱스(원시 long)로 변환합니다.
+ * - MINUTE/HOUR/DAY 인덱스는 각각 epoch minute/hour/day, MONTH는 (연도 * 12 + 월 - 1), YEAR는 연도입니다.
+ * - 모든 시각은 LocalDateTime을 UTC로 간주한 값으로, DB에 저장되는 현지 시각과 같은 기준입니다.
+ */
+public enum DetectionBucket {
+
+    MINUTE {
+        @Override
+        public long index(long epochMinute) {
+            return epochMinute;
+        }
+
+        @Override
+        public long startMinute(long index) {
+            return index;
+        }
+    },
+    HOUR {
+        @Override
+        public long index(long epochMinute) {
+            return Math.floorDiv(epochMinute, 60);
+        }
+
+        @Override
+        public long startMinute(long index) {
+            return index * 60;
+        }
+    },
+    DAY {
+        @Override
+        public long index(long epochMinute) {
+            return Math.floorDiv(epochMinute, MINUTES_PER_DAY);
+        }
+
+        @Override
+        public long startMinute(long index) {
+            return index * MINUTES_PER_DAY;
+        }
+    },
+    MONTH {
+        @Override
+        public long index(long epochMinute) {
+            LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(epochMinute, MINUTES_PER_DAY));
+            return date.getYear() * 12L + date.getMonthValue() - 1;
+        }
+
+        @Override
+        public long startMinute(long index) {
+            LocalDate first = LocalDate.of((int) Math.floorDiv(index, 12), Math.floorMod(index, 12) + 1, 1);
+            return first.toEpochDay() * MINUTES_PER_DAY;
+        }
+    },
+    YEAR {
+        @Override
+        public long index(long epochMinute) {
+            return LocalDate.ofEpochDay(Math.floorDiv(epochMinute, MINUTES_PER_DAY)).getYear();
+        }
+
+        @Override
+        public long startMinute(long index) {
+            return LocalDate.of((int) index, 1, 1).toEpochDay() * MINUTES_PER_DAY;
+        }
+    };
+
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
+    /**
+     * epoch minute이 속한 구간의 인덱스를 반환합니다.
+     */
+    public abstract long index(long epochMinute);
+
+    /**
+     * 구간 인덱스의 시작 시각(epoch minute)을 반환합니다.
+     */
+    public abstract long startMinute(long index);
+
+    /**
+     * 구간 인덱스의 시작 시각을 반환합니다.
+     */
+    public LocalDateTime start(long index) {
+        return LocalDateTime.ofEpochSecond(startMinute(index) * 60, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * 날짜가 속한 구간의 인덱스를 반환합니다.
+     */
+    public long indexOf(LocalDate date) {
+        return index(date.toEpochDay() * MINUTES_PER_DAY);
+    }
+}
@@ -0,0 +1,44 @@
+package com.project2.smartfactory.defect;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * 시간(정시) 단위 감지 결과 집계 테이블.
+ * 감지 로그가 저장될 때 DetectionRollupRepository가 같은 트랜잭션 안에서 증분 갱신합니다.
+ */
+@Entity
+@Table(name = "detection_rollup_hourly")
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class DetectionHourlyRollup {
+
+    @Id
+    @Column(name = "bucket_hour") // 집계 구간 시작 시각 (분/초 0)
+    private LocalDateTime bucketHour;
+
+    @Column(name = "normal_count", nullable = false)
+    private long normalCount; // "Normal" 건수
+
+    @Column(name = "defective_count", nullable = false)
+    private long defectiveCount; // "Defective" 건수
+
+    @Column(name = "substandard_count", nullable = false)
+    private long substandardCount; // "Substandard" 건수
+
+    @Column(name = "total_count", nullable = false)
+    private long totalCount; // 전체 감지 건수 (모든 상태 포함)
+
+    @Column(name = "defect_sum", nullable = false)
+    private long defectSum; // Defective/Substandard 로그의 불량 개수 합계
+}
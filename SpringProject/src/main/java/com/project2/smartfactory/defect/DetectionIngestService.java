@@ -0,0 +1,251 @@
+package com.project2.smartfactory.defect;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 감지 결과 비동기 적재 파이프라인.
+ * - POST /api/defect 요청 스레드는 결과를 큐에 넣은 즉시 응답합니다.
+ * - 백그라운드 writer 스레드 하나가 큐를 비우며 최대 batch-size 건씩 묶어
+ *   DefectService.saveDetectionResults로 저장합니다 (배치당 커밋 1회).
+ * - 큐 깊이, flush 지연, 배치 크기를 Micrometer 메트릭으로 노출합니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class DetectionIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DetectionIngestService.class);
+
+    private final DefectService defectService;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Value("${detection.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${detection.ingest.batch-size:200}")
+    private int batchSize;
+
+    @Value("${detection.ingest.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    private ObjectReader detectionResultReader;
+    private BlockingQueue<DetectionResultDto> queue;
+    private Thread writerThread;
+    private volatile boolean running;
+
+    private Timer flushTimer;
+    private DistributionSummary batchSizeSummary;
+    private Counter acceptedCounter;
+    private Counter rejectedCounter;
+    private Counter failedCounter;
+
+    /**
+     * 큐와 메트릭을 생성하고 writer 스레드를 시작합니다.
+     */
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        detectionResultReader = objectMapper.readerFor(DetectionResultDto.class);
+
+        Gauge.builder("detection.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("적재 대기 중인 감지 결과 수")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("detection.ingest.flush")
+                .description("배치 한 번을 저장(커밋)하는 데 걸린 시간")
+                .register(meterRegistry);
+        batchSizeSummary = DistributionSummary.builder("detection.ingest.batch.size")
+                .description("flush 한 번에 저장된 감지 결과 수")
+                .register(meterRegistry);
+        acceptedCounter = Counter.builder("detection.ingest.accepted").register(meterRegistry);
+        rejectedCounter = Counter.builder("detection.ingest.rejected").description("큐가 가득 차 거절된 건수").register(meterRegistry);
+        failedCounter = Counter.builder("detection.ingest.failed").description("저장에 실패해 버려진 건수").register(meterRegistry);
+
+        running = true;
+        writerThread = new Thread(this::drainLoop, "detection-ingest-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        logger.info("Detection ingest pipeline started: capacity={}, batchSize={}, flushIntervalMs={}", queueCapacity, batchSize, flushIntervalMs);
+    }
+
+    /**
+     * 감지 결과를 적재 큐에 넣습니다. 블로킹하지 않습니다.
+     * @param detectionResultDto 수신된 감지 결과
+     * @return 큐에 들어갔으면 true, 큐가 가득 찼으면 false
+     */
+    public boolean enqueue(DetectionResultDto detectionResultDto) {
+        boolean queued = queue.offer(detectionResultDto);
+        if (queued) {
+            acceptedCounter.increment();
+        } else {
+            rejectedCounter.increment();
+            logger.warn("Detection ingest queue is full ({}). Result rejected.", queueCapacity);
+        }
+        return queued;
+    }
+
+    /**
+     * 현재 적재 대기 중인 감지 결과 수를 반환합니다.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    private void drainLoop() {
+        List<DetectionResultDto> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                DetectionResultDto first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                persistBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("Unexpected error in detection ingest writer: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // 종료 시 남아 있는 결과를 모두 저장
+        while (queue.drainTo(batch, batchSize) > 0) {
+            persistBatch(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * 줄바꿈으로 구분된 JSON(NDJSON) 스트림을 한 레코드씩 읽어 batch-size 단위로 저장합니다.
+     * 전체 목록을 메모리에 바인딩하지 않고 Jackson MappingIterator로 점진적으로 파싱하며,
+     * 매핑 오류가 난 레코드는 건너뛰고 다음 레코드부터 계속 처리합니다.
+     * JSON 구문 오류가 나면 스트림 위치를 신뢰할 수 없으므로 그 지점에서 중단합니다.
+     * @param inputStream 요청 본문 스트림
+     * @return 레코드별 접수/거절 집계
+     */
+    public BatchIngestResultDto ingestNdjson(InputStream inputStream) throws IOException {
+        BatchIngestResultDto result = new BatchIngestResultDto();
+        List<DetectionResultDto> chunk = new ArrayList<>(batchSize);
+        List<Integer> chunkRecordNos = new ArrayList<>(batchSize); // chunk의 각 항목의 레코드 번호
+        int recordNo = 0;
+
+        try (MappingIterator<DetectionResultDto> iterator = detectionResultReader.readValues(inputStream)) {
+            while (true) {
+                try {
+                    recordNo++; // hasNextValue()가 다음 레코드의 첫 토큰에서 구문 오류를 낼 수 있으므로 먼저 증가
+                    if (!iterator.hasNextValue()) {
+                        recordNo--; // 정상적인 입력 끝
+                        break;
+                    }
+                    DetectionResultDto detectionResultDto = iterator.nextValue();
+                    if (detectionResultDto == null || detectionResultDto.getStatus() == null) {
+                        result.reject(recordNo, "status is required");
+                        continue;
+                    }
+                    chunk.add(detectionResultDto);
+                    chunkRecordNos.add(recordNo);
+                    if (chunk.size() >= batchSize) {
+                        persistChunk(chunk, chunkRecordNos, result);
+                    }
+                } catch (JsonParseException e) {
+                    result.reject(recordNo, "malformed JSON: " + e.getOriginalMessage());
+                    result.setTruncated(true);
+                    break;
+                } catch (JsonMappingException e) {
+                    result.reject(recordNo, "invalid record: " + e.getOriginalMessage());
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            persistChunk(chunk, chunkRecordNos, result);
+        }
+        logger.info("NDJSON batch ingested: records={}, accepted={}, rejected={}", recordNo, result.getAccepted(), result.getRejected());
+        return result;
+    }
+
+    // NDJSON 청크를 저장하고, 저장에 실패한 레코드는 레코드 번호와 함께 거절로 기록한 뒤 청크를 비움
+    private void persistChunk(List<DetectionResultDto> chunk, List<Integer> chunkRecordNos, BatchIngestResultDto result) {
+        List<Integer> failed = persistBatch(chunk);
+        result.addAccepted(chunk.size() - failed.size());
+        for (int index : failed) {
+            result.reject(chunkRecordNos.get(index), "database error");
+        }
+        chunk.clear();
+        chunkRecordNos.clear();
+    }
+
+    /**
+     * 한 배치를 하나의 트랜잭션으로 저장합니다.
+     * 배치 전체가 실패하면 문제 건만 걸러내기 위해 한 건씩 다시 저장합니다.
+     * @return 저장에 실패한 항목의 배치 내 위치 (모두 저장되었으면 빈 목록)
+     */
+    private List<Integer> persistBatch(List<DetectionResultDto> batch) {
+        long start = System.nanoTime();
+        List<Integer> failed = new ArrayList<>();
+        try {
+            defectService.saveDetectionResults(batch);
+        } catch (Exception e) {
+            logger.error("Batch write of {} detection results failed, retrying one by one: {}", batch.size(), e.getMessage());
+            for (int i = 0; i < batch.size(); i++) {
+                DetectionResultDto detectionResultDto = batch.get(i);
+                try {
+                    defectService.saveDetectionResults(List.of(detectionResultDto));
+                } catch (Exception ex) {
+                    failed.add(i);
+                    failedCounter.increment();
+                    logger.error("Dropping detection result after write failure: {}", detectionResultDto, ex);
+                }
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            batchSizeSummary.record(batch.size());
+        }
+        return failed;
+    }
+
+    /**
+     * 애플리케이션 종료 시 writer 스레드를 멈추고 남은 결과를 저장합니다.
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Detection ingest pipeline stopped with {} results still queued.", queue.size());
+        }
+        logger.info("Detection ingest pipeline has been shut down.");
+    }
+}
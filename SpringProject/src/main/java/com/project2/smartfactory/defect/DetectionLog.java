@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
@@ -15,7 +16,12 @@ import java.time.LocalDateTime; // 감지 시간 기록을 위해 임포트
 
 // 감지 로그 정보를 저장하는 JPA Entity
 @Entity
-@Table(name = "detection_log") // 매핑될 데이터베이스 테이블 이름
+@Table(name = "detection_log", indexes = { // 매핑될 데이터베이스 테이블 이름
+        // 감지 로그 목록의 keyset 페이지네이션 (detection_time DESC, id DESC)
+        @Index(name = "idx_detection_log_time_id", columnList = "detection_time, id"),
+        // 상태 필터가 있는 페이지 조회
+        @Index(name = "idx_detection_log_status_time_id", columnList = "status, detection_time, id")
+})
 @Getter // Lombok: 모든 필드에 대한 Getter 자동 생성
 @Setter // Lombok: 모든 필드에 대한 Setter 자동 생성
 @NoArgsConstructor // Lombok: 인자 없는 기본 생성자 자동 생성 (JPA 필수)
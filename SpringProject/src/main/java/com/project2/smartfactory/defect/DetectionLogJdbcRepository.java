@@ -0,0 +1,112 @@
+package com.project2.smartfactory.defect;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * detection_log 테이블에 대한 JDBC 리포지토리 (배치 쓰기, keyset 페이지 조회).
+ * IDENTITY 키를 쓰는 JPA 엔티티는 Hibernate가 insert를 배치로 묶지 못하므로,
+ * 적재 경로에서는 JdbcTemplate.batchUpdate로 여러 행을 한 번에 보냅니다.
+ * (rewriteBatchedStatements=true 설정 시 MySQL 드라이버가 multi-row INSERT로 재작성)
+ */
+@Repository
+@RequiredArgsConstructor
+public class DetectionLogJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO detection_log (detection_time, status, defect_count, image_url, defect_summary) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SELECT_COLUMNS =
+            "SELECT id, detection_time, status, defect_count, image_url, defect_summary FROM detection_log";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 감지 로그 목록을 하나의 JDBC 배치로 저장합니다.
+     * 호출하는 쪽의 트랜잭션에 참여하므로 커밋 시점은 호출자가 결정합니다.
+     * @param logs 저장할 감지 로그 목록
+     * @return 각 행의 갱신 건수
+     */
+    public int[] batchInsert(List<DetectionLog> logs) {
+        if (logs.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                DetectionLog log = logs.get(i);
+                ps.setTimestamp(1, Timestamp.valueOf(log.getDetectionTime()));
+                ps.setString(2, log.getStatus());
+                ps.setObject(3, log.getDefectCount(), Types.INTEGER);
+                ps.setString(4, log.getImageUrl());
+                ps.setString(5, log.getDefectSummary());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return logs.size();
+            }
+        });
+    }
+
+    /**
+     * 조건에 맞는 감지 로그를 (detection_time DESC, id DESC) 순으로 최대 limit건 조회합니다.
+     * 커서가 있으면 그 행 바로 다음부터 읽으므로(keyset), 깊은 페이지도 OFFSET 없이 인덱스 범위 스캔으로 처리됩니다.
+     * @param query 상태/기간/최소 불량 개수 필터
+     * @param afterTime 이전 페이지 마지막 행의 감지 시각 (첫 페이지는 null)
+     * @param afterId 이전 페이지 마지막 행의 ID (첫 페이지는 null)
+     * @param limit 최대 조회 건수
+     */
+    public List<DetectionLog> findPage(DetectionLogQuery query, LocalDateTime afterTime, Long afterId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_COLUMNS).append(" WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (query.getStatus() != null && !query.getStatus().isBlank()) {
+            sql.append(" AND status = ?");
+            args.add(query.getStatus());
+        }
+        if (query.getFrom() != null) {
+            sql.append(" AND detection_time >= ?");
+            args.add(Timestamp.valueOf(query.getFrom()));
+        }
+        if (query.getTo() != null) {
+            sql.append(" AND detection_time < ?");
+            args.add(Timestamp.valueOf(query.getTo()));
+        }
+        if (query.getMinDefects() != null) {
+            sql.append(" AND defect_count >= ?");
+            args.add(query.getMinDefects());
+        }
+        if (afterTime != null && afterId != null) {
+            // (detection_time, id) < (?, ?) 를 인덱스 범위로 쓰기 쉬운 형태로 전개
+            Timestamp after = Timestamp.valueOf(afterTime);
+            sql.append(" AND detection_time <= ? AND (detection_time < ? OR id < ?)");
+            args.add(after);
+            args.add(after);
+            args.add(afterId);
+        }
+        sql.append(" ORDER BY detection_time DESC, id DESC LIMIT ?");
+        args.add(limit);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> {
+            DetectionLog log = new DetectionLog();
+            log.setId(rs.getLong("id"));
+            log.setDetectionTime(rs.getTimestamp("detection_time").toLocalDateTime());
+            log.setStatus(rs.getString("status"));
+            log.setDefectCount(rs.getObject("defect_count", Integer.class));
+            log.setImageUrl(rs.getString("image_url"));
+            log.setDefectSummary(rs.getString("defect_summary"));
+            return log;
+        }, args.toArray());
+    }
+}
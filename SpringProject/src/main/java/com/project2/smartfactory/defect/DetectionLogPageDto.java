@@ -0,0 +1,19 @@
+package com.project2.smartfactory.defect;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 감지 로그 목록의 한 페이지. 최신순(detection_time DESC, id DESC)으로 정렬됩니다.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DetectionLogPageDto {
+
+    private List<DetectionLog> items; // 이번 페이지의 감지 로그
+    private String nextCursor; // 다음 페이지 조회용 커서 (마지막 페이지면 null)
+}
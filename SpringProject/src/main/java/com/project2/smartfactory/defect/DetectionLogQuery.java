@@ -0,0 +1,42 @@
+package com.project2.smartfactory.defect;
+
+import java.time.LocalDateTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 감지 로그 목록(/api/detection-logs) 조회 조건.
+ * 쿼리 파라미터가 같은 이름의 필드에 바인딩됩니다.
+ */
+@Data
+@NoArgsConstructor
+public class DetectionLogQuery {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private String cursor; // 이전 페이지 응답의 nextCursor (첫 페이지는 생략)
+    private Integer limit; // 페이지 크기 (기본 50, 최대 500)
+    private String status; // "Normal", "Defective", "Substandard" 등 상태 필터
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from; // 감지 시각 하한 (포함)
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to; // 감지 시각 상한 (미포함)
+
+    private Integer minDefects; // 최소 불량 개수
+
+    /**
+     * 허용 범위로 보정한 페이지 크기를 반환합니다.
+     */
+    public int resolvedLimit() {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
@@ -1,13 +1,10 @@
 package com.project2.smartfactory.defect;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,247 +18,88 @@ public class DetectionLogService {
 
     private static final Logger logger = LoggerFactory.getLogger(DetectionLogService.class);
 
-    private final DetectionLogRepository detectionLogRepository;
-
-    public List<DetectionLog> getAllDetectionLogs() {
-        logger.info("Fetching all detection logs from repository.");
-        try {
-            List<DetectionLog> logs = detectionLogRepository.findAll();
-            logger.info("Successfully fetched {} detection logs.", logs.size());
-            return logs;
-        } catch (Exception e) {
-            logger.error("Error fetching detection logs from repository", e);
-            return List.of();
-        }
-    }
+    private final DetectionRollupRepository detectionRollupRepository;
+    private final LiveProductionCounter liveProductionCounter;
 
+    /**
+     * 대시보드 차트 데이터를 생성합니다.
+     * detection_log 전체를 읽지 않고, 적재 시 증분 갱신되는 일 단위 집계 테이블만 조회합니다.
+     * (주간 7행, 월간 12행, 연간 5행 수준으로 테이블 크기와 무관하게 일정한 비용)
+     * @param totalTasks 당일 총 작업량
+     * @return 차트별 데이터 Map
+     */
     public Map<String, Object> getChartData(int totalTasks) {
         logger.info("Generating chart data with totalTasks: {}", totalTasks);
-        List<DetectionLog> logs = getAllDetectionLogs();
-
-        if (logs.isEmpty()) {
-            logger.warn("No detection logs found. Returning empty chart data.");
-            return Map.of(
-                 "overallStatus", Map.of("labels", List.of("Normal", "Defective","Substandard"), "data", List.of(0L, 0L, 0L)),
-                 "weeklyDefectTrend", Map.of("labels", List.of(), "data", List.of()),
-                 "yearlyDefectTrend", Map.of("labels", List.of(), "data", List.of()),
-                 "monthlyDefectTrend", Map.of("labels", List.of(), "data", List.of()), // 월간 데이터 추가
-                 "dailyStatus", Map.of("labels", List.of("Normal", "Defective","Substandard"), "data", List.of(0L, 0L, 0L)),
-                 "dailyTaskCompletion", Map.of(
-                     "labels", List.of("오늘 작업"),
-                     "datasets", List.of(
-                         Map.of("label", "완료", "data", List.of(0L)),
-                         Map.of("label", "미완료", "data", List.of((long) totalTasks))
-                     )
-                 )
-             );
-        }
-
         Map<String, Object> chartData = new java.util.HashMap<>();
+        LocalDate today = LocalDate.now();
 
         // 1. 전체 감지 상태 비율 (파이 차트)
-        logger.debug("Calculating overall status counts.");
-        Map<String, Long> overallStatusCounts = logs.stream()
-                .filter(log -> log.getStatus() != null)
-                .collect(Collectors.groupingBy(DetectionLog::getStatus, Collectors.counting()));
-
-        long normalCount = overallStatusCounts.getOrDefault("Normal", 0L);
-        long defectCount = overallStatusCounts.getOrDefault("Defective", 0L);
-        long substdCount = overallStatusCounts.getOrDefault("Substandard", 0L);
+        DetectionDailyRollup overall = detectionRollupRepository.sumAll();
         chartData.put("overallStatus", Map.of(
-                "labels", List.of("Normal", "Defective","Substandard"),
-                "data", List.of(normalCount, defectCount, substdCount)
+                "labels", List.of("Normal", "Defective", "Substandard"),
+                "data", List.of(overall.getNormalCount(), overall.getDefectiveCount(), overall.getSubstandardCount())
         ));
-        logger.debug("Overall status: Normal={}, Defective={}, Substandard={}", normalCount, defectCount, substdCount);
+        logger.debug("Overall status: Normal={}, Defective={}, Substandard={}",
+                overall.getNormalCount(), overall.getDefectiveCount(), overall.getSubstandardCount());
 
 
         // 2. 주간 불량 감지 추이 (막대 차트 - 최근 7일 불량 개수)
-        logger.debug("Calculating weekly defect trend.");
-        LocalDate today = LocalDate.now();
-        Map<String, Long> weeklyDefectCounts = new TreeMap<>();
+        Map<LocalDate, DetectionDailyRollup> weeklyRollups = detectionRollupRepository.findDaily(today.minusDays(6), today);
         DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MM-dd");
-        DateTimeFormatter keyFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
+        List<String> weeklyLabels = new ArrayList<>(7);
+        List<Long> weeklyData = new ArrayList<>(7);
         for (int i = 6; i >= 0; i--) {
             LocalDate date = today.minusDays(i);
-            weeklyDefectCounts.put(date.format(keyFormatter), 0L);
+            DetectionDailyRollup rollup = weeklyRollups.get(date);
+            weeklyLabels.add(date.format(dateFormatter));
+            weeklyData.add(rollup != null ? rollup.getDefectSum() : 0L);
         }
-
-        logs.stream()
-                .filter(log -> {
-                    if (log.getDetectionTime() == null) {
-                        logger.warn("Detection log with null detectionTime skipped for weekly trend.");
-                        return false;
-                    }
-                    LocalDate logDate = log.getDetectionTime().toLocalDate();
-                    return !logDate.isBefore(today.minusDays(6)) && ("Defective".equals(log.getStatus()) || "Substandard".equals(log.getStatus()));
-                })
-                .forEach(log -> {
-                    LocalDate logDate = log.getDetectionTime().toLocalDate();
-                    String dateKey = logDate.format(keyFormatter);
-                    weeklyDefectCounts.compute(dateKey, (k, v) -> (v == null ? 0L : v) + (log.getDefectCount() != null ? log.getDefectCount() : 0L));
-                });
-
-        chartData.put("weeklyDefectTrend", Map.of(
-                "labels", weeklyDefectCounts.keySet().stream().map(dateStr -> LocalDate.parse(dateStr, keyFormatter).format(dateFormatter)).collect(Collectors.toList()),
-                "data", weeklyDefectCounts.values()
-        ));
-        logger.debug("Weekly defect trend: {}", weeklyDefectCounts);
+        chartData.put("weeklyDefectTrend", Map.of("labels", weeklyLabels, "data", weeklyData));
+        logger.debug("Weekly defect trend: {}", weeklyData);
 
 
         // 3. 연간 불량 감지 추이 (선형 차트 - 최근 5년 불량률)
-        logger.debug("Calculating yearly defect trend (percentage).");
-        Map<String, Long> yearlyDefectCounts = new TreeMap<>(); // 연도별 불량 개수
-        Map<String, Long> yearlyTotalCounts = new TreeMap<>(); // 연도별 총 수량
-        DateTimeFormatter yearFormatter = DateTimeFormatter.ofPattern("yyyy");
-        LocalDate fiveYearsAgo = today.minusYears(4).withDayOfYear(1); // 오늘 포함 최근 5년의 시작 연도
-
-        // 최근 5년 초기화 (현재 연도 포함)
+        Map<LocalDate, DetectionDailyRollup> yearlyRollups = detectionRollupRepository.sumByYear(today.minusYears(4).withDayOfYear(1));
+        List<String> yearlyLabels = new ArrayList<>(5);
+        List<Double> yearlyData = new ArrayList<>(5);
         for (int i = 4; i >= 0; i--) {
-            LocalDate date = today.minusYears(i).withDayOfYear(1);
-            String yearKey = date.format(yearFormatter);
-            yearlyDefectCounts.put(yearKey, 0L);
-            yearlyTotalCounts.put(yearKey, 0L);
+            LocalDate yearStart = today.minusYears(i).withDayOfYear(1);
+            yearlyLabels.add(String.valueOf(yearStart.getYear()));
+            yearlyData.add(defectRate(yearlyRollups.get(yearStart)));
         }
+        chartData.put("yearlyDefectTrend", Map.of("labels", yearlyLabels, "data", yearlyData));
+        logger.debug("Yearly defect trend (rates): {}", yearlyData);
 
-        logs.stream()
-                .filter(log -> {
-                    if (log.getDetectionTime() == null) {
-                        logger.warn("Detection log with null detectionTime skipped for yearly trend.");
-                        return false;
-                    }
-                    LocalDate logDate = log.getDetectionTime().toLocalDate();
-                    return !logDate.isBefore(fiveYearsAgo);
-                })
-                .forEach(log -> {
-                    LocalDate logDate = log.getDetectionTime().toLocalDate();
-                    String yearKey = logDate.format(yearFormatter);
-
-                    if ("Defective".equals(log.getStatus()) || "Substandard".equals(log.getStatus())) {
-                         yearlyDefectCounts.compute(yearKey, (k, v) -> (v == null ? 0L : v) + (log.getDefectCount() != null ? log.getDefectCount() : 0L));
-                    }
-                    yearlyTotalCounts.compute(yearKey, (k, v) -> (v == null ? 0L : v) + 1L); // 각 로그를 1개로 간주, 실제 총 수량 로직 필요
-                });
 
-        Map<String, Double> yearlyDefectRates = new TreeMap<>();
-        yearlyDefectCounts.forEach((yearKey, defectCountValue) -> {
-            long totalItemsValue = yearlyTotalCounts.getOrDefault(yearKey, 0L);
-            if (totalItemsValue > 0) {
-                double defectRate = (double) defectCountValue * 100.0 / totalItemsValue;
-                yearlyDefectRates.put(yearKey, Math.round(defectRate * 10.0) / 10.0); // 소수점 첫째 자리까지 반올림
-            } else {
-                yearlyDefectRates.put(yearKey, 0.0);
-            }
-        });
-
-        chartData.put("yearlyDefectTrend", Map.of(
-                "labels", yearlyDefectRates.keySet(),
-                "data", yearlyDefectRates.values()
-        ));
-        logger.debug("Yearly defect trend (rates): {}", yearlyDefectRates);
-
-
-        // 4. 월간 불량 감지 추이 (막대 차트 - 최근 12개월 불량률) - 수정됨
-        logger.debug("Calculating monthly defect trend (percentage).");
-        Map<String, Long> monthlyDefectCounts = new TreeMap<>(); // 월별 불량 개수
-        Map<String, Long> monthlyTotalCounts = new TreeMap<>(); // 월별 총 감지 개수
-        DateTimeFormatter monthKeyFormatter = DateTimeFormatter.ofPattern("yyyy-MM");
+        // 4. 월간 불량 감지 추이 (막대 차트 - 최근 12개월 불량률)
+        Map<LocalDate, DetectionDailyRollup> monthlyRollups = detectionRollupRepository.sumByMonth(today.minusMonths(11).withDayOfMonth(1));
         DateTimeFormatter monthLabelFormatter = DateTimeFormatter.ofPattern("yy.MM");
-        // 새로운 포맷터 추가: yyyy-MM-dd 형식의 문자열을 파싱하기 위함
-        DateTimeFormatter fullMonthDateFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-        LocalDate twelveMonthsAgo = today.minusMonths(11).withDayOfMonth(1);
-
-        // 최근 12개월 초기화
+        List<String> monthlyLabels = new ArrayList<>(12);
+        List<Double> monthlyData = new ArrayList<>(12);
         for (int i = 11; i >= 0; i--) {
-            LocalDate date = today.minusMonths(i).withDayOfMonth(1);
-            String monthKey = date.format(monthKeyFormatter);
-            monthlyDefectCounts.put(monthKey, 0L);
-            monthlyTotalCounts.put(monthKey, 0L);
+            LocalDate monthStart = today.minusMonths(i).withDayOfMonth(1);
+            monthlyLabels.add(monthStart.format(monthLabelFormatter));
+            monthlyData.add(defectRate(monthlyRollups.get(monthStart)));
         }
+        chartData.put("monthlyDefectTrend", Map.of("labels", monthlyLabels, "data", monthlyData));
+        logger.debug("Monthly defect trend (rates): {}", monthlyData);
 
-        logs.stream()
-                .filter(log -> {
-                    if (log.getDetectionTime() == null) {
-                        logger.warn("Detection log with null detectionTime skipped for monthly trend.");
-                        return false;
-                    }
-                    LocalDate logDate = log.getDetectionTime().toLocalDate();
-                    return !logDate.isBefore(twelveMonthsAgo); // 최근 12개월 데이터만 필터링
-                })
-                .forEach(log -> {
-                    LocalDate logDate = log.getDetectionTime().toLocalDate();
-                    String monthKey = logDate.format(monthKeyFormatter);
-
-                    // 불량 항목만 카운트
-                    if ("Defective".equals(log.getStatus()) || "Substandard".equals(log.getStatus())) {
-                        monthlyDefectCounts.compute(monthKey, (k, v) -> (v == null ? 0L : v) + (log.getDefectCount() != null ? log.getDefectCount() : 0L));
-                    }
-                    // 총 감지 항목 수 카운트 (정상, 불량, 미흡 모두 포함)
-                    monthlyTotalCounts.compute(monthKey, (k, v) -> (v == null ? 0L : v) + 1L);
-                });
-
-        Map<String, Double> monthlyDefectRates = new TreeMap<>();
-        monthlyDefectCounts.forEach((monthKey, defectCountValue) -> {
-            long totalItemsValue = monthlyTotalCounts.getOrDefault(monthKey, 0L);
-            if (totalItemsValue > 0) {
-                double defectRate = (double) defectCountValue * 100.0 / totalItemsValue;
-                monthlyDefectRates.put(monthKey, Math.round(defectRate * 10.0) / 10.0); // 소수점 첫째 자리까지 반올림
-            } else {
-                monthlyDefectRates.put(monthKey, 0.0);
-            }
-        });
-
-        chartData.put("monthlyDefectTrend", Map.of(
-                "labels", monthlyDefectRates.keySet().stream()
-                        // monthStr + "-01"을 파싱할 때 fullMonthDateFormatter를 사용
-                        .map(monthStr -> LocalDate.parse(monthStr + "-01", fullMonthDateFormatter).format(monthLabelFormatter))
-                        .collect(Collectors.toList()),
-                "data", monthlyDefectRates.values()
-        ));
-        logger.debug("Monthly defect trend (rates): {}", monthlyDefectRates);
-
-
-        // 5. 당일 감지 상태 비율 (파이 차트)
-        logger.debug("Calculating daily status counts.");
-        LocalDate todayOnly = LocalDate.now();
-        Map<String, Long> dailyStatusCounts = logs.stream()
-                .filter(log -> {
-                    if (log.getDetectionTime() == null) {
-                         logger.warn("Detection log with null detectionTime skipped for daily status.");
-                        return false;
-                    }
-                    LocalDate logDate = log.getDetectionTime().toLocalDate();
-                    return logDate.isEqual(todayOnly);
-                })
-                .collect(Collectors.groupingBy(DetectionLog::getStatus, Collectors.counting()));
 
-        long todayNormalCount = dailyStatusCounts.getOrDefault("Normal", 0L);
-        long todayDefectCount = dailyStatusCounts.getOrDefault("Defective", 0L);
-        long todaySubstdCount = dailyStatusCounts.getOrDefault("Substandard", 0L);
+        // 5. 당일 감지 상태 비율 (파이 차트) - DB 대신 메모리 카운터 사용
+        long[] todayCounts = new long[LiveProductionCounter.FIELDS];
+        liveProductionCounter.todayCounts(todayCounts);
         chartData.put("dailyStatus", Map.of(
                 "labels", List.of("Normal", "Defective", "Substandard"),
-                "data", List.of(todayNormalCount, todayDefectCount, todaySubstdCount)
+                "data", List.of(todayCounts[LiveProductionCounter.NORMAL], todayCounts[LiveProductionCounter.DEFECTIVE],
+                        todayCounts[LiveProductionCounter.SUBSTANDARD])
         ));
-        logger.debug("Daily status: Normal={}, Defective={}, Substandard={}", todayNormalCount, todayDefectCount, todaySubstdCount);
+        logger.debug("Daily status: Normal={}, Defective={}, Substandard={}", todayCounts[LiveProductionCounter.NORMAL],
+                todayCounts[LiveProductionCounter.DEFECTIVE], todayCounts[LiveProductionCounter.SUBSTANDARD]);
 
 
         // 6. 당일 작업 완료/미완료 (스택 막대 차트)
-        logger.debug("Calculating daily task completion.");
-        long todaysTotalLogs = logs.stream()
-                .filter(log -> {
-                    if (log.getDetectionTime() == null) {
-                          logger.warn("Detection log with null detectionTime skipped for daily task completion.");
-                        return false;
-                    }
-                    LocalDate logDate = log.getDetectionTime().toLocalDate();
-                    return logDate.isEqual(todayOnly);
-                })
-                .count();
-
-        long completedTasks = todaysTotalLogs;
+        long completedTasks = todayCounts[LiveProductionCounter.TOTAL];
         long incompleteTasks = Math.max(0, totalTasks - completedTasks);
-
         chartData.put("dailyTaskCompletion", Map.of(
                 "labels", List.of("오늘 작업"),
                 "datasets", List.of(
@@ -274,4 +112,66 @@ public class DetectionLogService {
         logger.info("Chart data generation complete.");
         return chartData;
     }
-}
\ No newline at end of file
+
+    /**
+     * 특정 날짜의 시간별 감지 상태 건수를 반환합니다. (0시~23시, 집계가 없는 시간은 0)
+     * @param date 조회할 날짜
+     * @return labels(시), normal/defective/substandard 데이터가 포함된 Map
+     */
+    public Map<String, Object> getHourlyChartData(LocalDate date) {
+        long[] normal = new long[24];
+        long[] defective = new long[24];
+        long[] substandard = new long[24];
+        for (DetectionHourlyRollup rollup : detectionRollupRepository.findHourly(date)) {
+            int hour = rollup.getBucketHour().getHour();
+            normal[hour] = rollup.getNormalCount();
+            defective[hour] = rollup.getDefectiveCount();
+            substandard[hour] = rollup.getSubstandardCount();
+        }
+        List<String> labels = new ArrayList<>(24);
+        for (int hour = 0; hour < 24; hour++) {
+            labels.add(String.format("%02d", hour));
+        }
+        return Map.of(
+                "date", date.toString(),
+                "labels", labels,
+                "normal", normal,
+                "defective", defective,
+                "substandard", substandard
+        );
+    }
+
+    /**
+     * 메모리 카운터로부터 오늘/최근 1시간/최근 N분의 상태별 건수를 반환합니다. (DB 조회 없음)
+     * @param minutes 최근 N분 구간
+     * @return today, lastHour, lastMinutes 구간별 normal/defective/substandard/total 건수
+     */
+    public Map<String, Object> getLiveCounts(int minutes) {
+        long[] counts = new long[LiveProductionCounter.FIELDS];
+        liveProductionCounter.todayCounts(counts);
+        Map<String, Long> today = toCountMap(counts);
+        liveProductionCounter.lastHourCounts(counts);
+        Map<String, Long> lastHour = toCountMap(counts);
+        liveProductionCounter.lastMinutesCounts(minutes, counts);
+        Map<String, Long> lastMinutes = toCountMap(counts);
+        return Map.of("today", today, "lastHour", lastHour, "lastMinutes", lastMinutes, "minutes", minutes);
+    }
+
+    private static Map<String, Long> toCountMap(long[] counts) {
+        return Map.of(
+                "normal", counts[LiveProductionCounter.NORMAL],
+                "defective", counts[LiveProductionCounter.DEFECTIVE],
+                "substandard", counts[LiveProductionCounter.SUBSTANDARD],
+                "total", counts[LiveProductionCounter.TOTAL]
+        );
+    }
+
+    // 불량률(%) = 불량 개수 합계 / 총 감지 수, 소수점 첫째 자리까지 반올림
+    private static double defectRate(DetectionDailyRollup rollup) {
+        if (rollup == null || rollup.getTotalCount() == 0) {
+            return 0.0;
+        }
+        double defectRate = (double) rollup.getDefectSum() * 100.0 / rollup.getTotalCount();
+        return Math.round(defectRate * 10.0) / 10.0;
+    }
+}
@@ -0,0 +1,182 @@
+package com.project2.smartfactory.defect;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 시간/일 단위 집계 테이블(detection_rollup_hourly, detection_rollup_daily)에 대한 JDBC 리포지토리.
+ * - 적재 경로에서 감지 로그 배치를 구간별로 합산한 뒤 INSERT ... ON DUPLICATE KEY UPDATE로 증분 반영합니다.
+ * - 차트 조회는 detection_log 대신 이 테이블의 수백 행 이내만 읽습니다.
+ * - 집계 테이블이 비어 있으면 기동 시 detection_log 전체로부터 한 번 재구성합니다.
+ */
+@Repository
+@RequiredArgsConstructor
+@DependsOn("entityManagerFactory") // ddl-auto로 집계 테이블이 만들어진 뒤에 초기화
+public class DetectionRollupRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(DetectionRollupRepository.class);
+
+    private static final String UPSERT_HOURLY_SQL =
+            "INSERT INTO detection_rollup_hourly (bucket_hour, normal_count, defective_count, substandard_count, total_count, defect_sum) "
+            + "VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE normal_count = normal_count + VALUES(normal_count), "
+            + "defective_count = defective_count + VALUES(defective_count), "
+            + "substandard_count = substandard_count + VALUES(substandard_count), "
+            + "total_count = total_count + VALUES(total_count), "
+            + "defect_sum = defect_sum + VALUES(defect_sum)";
+
+    private static final String UPSERT_DAILY_SQL = UPSERT_HOURLY_SQL
+            .replace("detection_rollup_hourly", "detection_rollup_daily")
+            .replace("bucket_hour", "bucket_date");
+
+    private static final String SUM_COLUMNS =
+            "SUM(normal_count), SUM(defective_count), SUM(substandard_count), SUM(total_count), SUM(defect_sum)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 집계 테이블이 비어 있고 감지 로그가 있으면 detection_log로부터 집계를 재구성합니다.
+     */
+    @PostConstruct
+    public void backfillIfEmpty() {
+        Boolean rollupExists = jdbcTemplate.queryForObject("SELECT EXISTS(SELECT 1 FROM detection_rollup_hourly)", Boolean.class);
+        Boolean logExists = jdbcTemplate.queryForObject("SELECT EXISTS(SELECT 1 FROM detection_log)", Boolean.class);
+        if (Boolean.TRUE.equals(rollupExists) || !Boolean.TRUE.equals(logExists)) {
+            return;
+        }
+        logger.info("Rollup tables are empty. Rebuilding from detection_log...");
+        long start = System.currentTimeMillis();
+        int hourly = jdbcTemplate.update(
+                "INSERT INTO detection_rollup_hourly (bucket_hour, normal_count, defective_count, substandard_count, total_count, defect_sum) "
+                + "SELECT DATE_FORMAT(detection_time, '%Y-%m-%d %H:00:00'), "
+                + "SUM(status = 'Normal'), SUM(status = 'Defective'), SUM(status = 'Substandard'), COUNT(*), "
+                + "SUM(CASE WHEN status IN ('Defective', 'Substandard') THEN COALESCE(defect_count, 0) ELSE 0 END) "
+                + "FROM detection_log GROUP BY 1");
+        int daily = jdbcTemplate.update(
+                "INSERT INTO detection_rollup_daily (bucket_date, normal_count, defective_count, substandard_count, total_count, defect_sum) "
+                + "SELECT DATE(bucket_hour), " + SUM_COLUMNS + " FROM detection_rollup_hourly GROUP BY 1");
+        logger.info("Rollup backfill finished in {} ms: {} hourly rows, {} daily rows.", System.currentTimeMillis() - start, hourly, daily);
+    }
+
+    /**
+     * 저장된 감지 로그 배치를 시간/일 구간별로 합산하여 집계 테이블에 반영합니다.
+     * 두 구간 모두 DetectionAggregationEngine으로 배치를 한 번만 순회하여 계산합니다.
+     * 호출하는 쪽의 트랜잭션에 참여하므로 로그 insert와 함께 커밋/롤백됩니다.
+     * @param logs 이번 배치에서 저장된 감지 로그
+     */
+    public void applyLogs(List<DetectionLog> logs) {
+        BucketCounts hourly = new BucketCounts(DetectionBucket.HOUR);
+        BucketCounts daily = new BucketCounts(DetectionBucket.DAY);
+        new DetectionAggregationEngine(hourly, daily).acceptAll(logs);
+
+        if (hourly.size() > 0) {
+            jdbcTemplate.batchUpdate(UPSERT_HOURLY_SQL, toUpsertArgs(hourly, index -> Timestamp.valueOf(DetectionBucket.HOUR.start(index))));
+            jdbcTemplate.batchUpdate(UPSERT_DAILY_SQL, toUpsertArgs(daily, index -> Date.valueOf(LocalDate.ofEpochDay(index))));
+        }
+    }
+
+    private static List<Object[]> toUpsertArgs(BucketCounts counts, LongFunction<Object> bucketKey) {
+        List<Object[]> args = new ArrayList<>(counts.size());
+        counts.forEach((index, c) -> args.add(new Object[] {bucketKey.apply(index), c[LiveProductionCounter.NORMAL],
+                c[LiveProductionCounter.DEFECTIVE], c[LiveProductionCounter.SUBSTANDARD], c[LiveProductionCounter.TOTAL],
+                c[BucketCounts.DEFECT_SUM]}));
+        return args;
+    }
+
+    /**
+     * 전체 기간의 합계를 반환합니다.
+     */
+    public DetectionDailyRollup sumAll() {
+        return jdbcTemplate.queryForObject("SELECT NULL, " + SUM_COLUMNS + " FROM detection_rollup_daily",
+                (rs, rowNum) -> mapDaily(rs));
+    }
+
+    /**
+     * 기간 내 일별 집계를 날짜순으로 반환합니다. 집계가 없는 날은 포함되지 않습니다.
+     * @param from 시작 날짜 (포함)
+     * @param to 종료 날짜 (포함)
+     */
+    public Map<LocalDate, DetectionDailyRollup> findDaily(LocalDate from, LocalDate to) {
+        return toMap(jdbcTemplate.query(
+                "SELECT bucket_date, normal_count, defective_count, substandard_count, total_count, defect_sum "
+                + "FROM detection_rollup_daily WHERE bucket_date BETWEEN ? AND ?",
+                (rs, rowNum) -> mapDaily(rs), Date.valueOf(from), Date.valueOf(to)));
+    }
+
+    /**
+     * 시작 날짜 이후의 집계를 월별로 합산하여 반환합니다. 키는 각 월의 1일입니다.
+     */
+    public Map<LocalDate, DetectionDailyRollup> sumByMonth(LocalDate from) {
+        return toMap(jdbcTemplate.query(
+                "SELECT CAST(DATE_FORMAT(bucket_date, '%Y-%m-01') AS DATE), " + SUM_COLUMNS
+                + " FROM detection_rollup_daily WHERE bucket_date >= ? GROUP BY 1",
+                (rs, rowNum) -> mapDaily(rs), Date.valueOf(from)));
+    }
+
+    /**
+     * 시작 날짜 이후의 집계를 연도별로 합산하여 반환합니다. 키는 각 연도의 1월 1일입니다.
+     */
+    public Map<LocalDate, DetectionDailyRollup> sumByYear(LocalDate from) {
+        return toMap(jdbcTemplate.query(
+                "SELECT CAST(DATE_FORMAT(bucket_date, '%Y-01-01') AS DATE), " + SUM_COLUMNS
+                + " FROM detection_rollup_daily WHERE bucket_date >= ? GROUP BY 1",
+                (rs, rowNum) -> mapDaily(rs), Date.valueOf(from)));
+    }
+
+    /**
+     * 특정 날짜의 시간별 집계를 시간순으로 반환합니다. 집계가 없는 시간은 포함되지 않습니다.
+     */
+    public List<DetectionHourlyRollup> findHourly(LocalDate date) {
+        return jdbcTemplate.query(
+                "SELECT bucket_hour, normal_count, defective_count, substandard_count, total_count, defect_sum "
+                + "FROM detection_rollup_hourly WHERE bucket_hour >= ? AND bucket_hour < ? ORDER BY bucket_hour",
+                (rs, rowNum) -> {
+                    DetectionHourlyRollup r = new DetectionHourlyRollup();
+                    r.setBucketHour(rs.getTimestamp(1).toLocalDateTime());
+                    r.setNormalCount(rs.getLong(2));
+                    r.setDefectiveCount(rs.getLong(3));
+                    r.setSubstandardCount(rs.getLong(4));
+                    r.setTotalCount(rs.getLong(5));
+                    r.setDefectSum(rs.getLong(6));
+                    return r;
+                },
+                Timestamp.valueOf(date.atStartOfDay()), Timestamp.valueOf(date.plusDays(1).atStartOfDay()));
+    }
+
+    private static DetectionDailyRollup mapDaily(ResultSet rs) throws SQLException {
+        DetectionDailyRollup r = new DetectionDailyRollup();
+        Date bucket = rs.getDate(1);
+        r.setBucketDate(bucket != null ? bucket.toLocalDate() : null);
+        r.setNormalCount(rs.getLong(2)); // SUM 결과가 NULL이면 0
+        r.setDefectiveCount(rs.getLong(3));
+        r.setSubstandardCount(rs.getLong(4));
+        r.setTotalCount(rs.getLong(5));
+        r.setDefectSum(rs.getLong(6));
+        return r;
+    }
+
+    private static Map<LocalDate, DetectionDailyRollup> toMap(List<DetectionDailyRollup> rows) {
+        Map<LocalDate, DetectionDailyRollup> map = new TreeMap<>();
+        for (DetectionDailyRollup row : rows) {
+            map.put(row.getBucketDate(), row);
+        }
+        return map;
+    }
+}
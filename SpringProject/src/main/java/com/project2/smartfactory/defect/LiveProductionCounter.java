@@ -0,0 +1,171 @@
+package com.project2.smartfactory.defect;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 당일 생산 현황을 DB 조회 없이 제공하기 위한 메모리 내 분 단위 카운터.
+ * - 최근 48시간을 1분 단위 슬롯의 링 버퍼(원시 long 배열)로 유지합니다.
+ * - 쓰기는 스레드별 stripe로 분산하여(LongAdder 방식) 경합을 줄이고, 읽기는 stripe를 합산합니다.
+ * - "오늘", "최근 1시간", "최근 N분" 조회는 슬롯 수에 비례하는 O(buckets)이며 호출당 객체를 만들지 않습니다.
+ * - 기동 시 detection_log의 최근 48시간 데이터로 채워지고, 이후 DefectService가 커밋 후에 갱신합니다.
+ *
+ * 분 값은 LocalDateTime을 UTC로 간주한 epoch minute으로, DB에 저장되는 현지 시각과 같은 기준입니다.
+ */
+@Component
+@RequiredArgsConstructor
+@DependsOn("entityManagerFactory") // ddl-auto로 detection_log가 준비된 뒤에 초기화
+public class LiveProductionCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveProductionCounter.class);
+
+    // 결과 배열 인덱스
+    public static final int NORMAL = 0;
+    public static final int DEFECTIVE = 1;
+    public static final int SUBSTANDARD = 2;
+    public static final int TOTAL = 3;
+    public static final int FIELDS = 4;
+
+    private static final int SLOTS = 48 * 60; // 48시간치 분 단위 슬롯
+    private static final int STRIPES = 4; // 2의 거듭제곱
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // 슬롯이 현재 어떤 분(epoch minute)의 값을 담고 있는지
+    private final AtomicLongArray slotMinutes = new AtomicLongArray(SLOTS);
+    // [stripe][slot][field] 를 1차원으로 펼친 카운터
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * SLOTS * FIELDS);
+
+    /**
+     * detection_log의 최근 48시간 데이터를 분 단위로 집계하여 카운터를 채웁니다.
+     */
+    @PostConstruct
+    public void seed() {
+        LocalDateTime from = LocalDateTime.now().minusMinutes(SLOTS - 1).withSecond(0).withNano(0);
+        long start = System.currentTimeMillis();
+        jdbcTemplate.query(
+                "SELECT CAST(DATE_FORMAT(detection_time, '%Y-%m-%d %H:%i:00') AS DATETIME), "
+                + "SUM(status = 'Normal'), SUM(status = 'Defective'), SUM(status = 'Substandard'), COUNT(*) "
+                + "FROM detection_log WHERE detection_time >= ? GROUP BY 1",
+                (RowCallbackHandler) rs -> {
+                    long minute = epochMinute(rs.getObject(1, LocalDateTime.class));
+                    add(minute, NORMAL, rs.getLong(2));
+                    add(minute, DEFECTIVE, rs.getLong(3));
+                    add(minute, SUBSTANDARD, rs.getLong(4));
+                    add(minute, TOTAL, rs.getLong(5));
+                },
+                from);
+        logger.info("Live production counter seeded from detection_log in {} ms.", System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 감지 결과 한 건을 카운터에 반영합니다.
+     * 48시간보다 오래된 결과(재전송 등)는 무시합니다.
+     * @param detectionTime 감지 시각
+     * @param status 감지 상태 ("Normal", "Defective", "Substandard" 외에는 TOTAL만 증가)
+     */
+    public void record(LocalDateTime detectionTime, String status) {
+        long minute = epochMinute(detectionTime);
+        int statusIndex = DetectionAggregationEngine.statusIndex(status);
+        if (statusIndex >= 0) {
+            add(minute, statusIndex, 1);
+        }
+        add(minute, TOTAL, 1);
+    }
+
+    /**
+     * 오늘 0시부터 지금까지의 건수를 out 배열(NORMAL, DEFECTIVE, SUBSTANDARD, TOTAL)에 채웁니다.
+     */
+    public void todayCounts(long[] out) {
+        long dayStart = epochMinute(LocalDate.now().atStartOfDay());
+        sumRange(dayStart, dayStart + 24 * 60 - 1, out);
+    }
+
+    /**
+     * 최근 1시간의 건수를 out 배열에 채웁니다.
+     */
+    public void lastHourCounts(long[] out) {
+        lastMinutesCounts(60, out);
+    }
+
+    /**
+     * 최근 minutes분(현재 분 포함)의 건수를 out 배열에 채웁니다. 최대 48시간까지 조회할 수 있습니다.
+     */
+    public void lastMinutesCounts(int minutes, long[] out) {
+        long now = epochMinute(LocalDateTime.now());
+        int span = Math.max(1, Math.min(minutes, SLOTS));
+        sumRange(now - span + 1, now, out);
+    }
+
+    private void add(long minute, int field, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        int slot = (int) Math.floorMod(minute, (long) SLOTS);
+        if (!claimSlot(slot, minute)) {
+            return; // 슬롯이 이미 더 최근 분을 담고 있음 (48시간보다 오래된 결과)
+        }
+        int stripe = (int) Thread.currentThread().threadId() & (STRIPES - 1);
+        counts.addAndGet(index(stripe, slot, field), delta);
+    }
+
+    private boolean claimSlot(int slot, long minute) {
+        long stamp = slotMinutes.get(slot);
+        if (stamp == minute) {
+            return true;
+        }
+        if (stamp > minute) {
+            return false;
+        }
+        // 분이 바뀌어 슬롯을 재사용할 때만 잠금 (슬롯당 48시간에 한 번)
+        synchronized (this) {
+            stamp = slotMinutes.get(slot);
+            if (stamp < minute) {
+                for (int stripe = 0; stripe < STRIPES; stripe++) {
+                    for (int field = 0; field < FIELDS; field++) {
+                        counts.set(index(stripe, slot, field), 0);
+                    }
+                }
+                slotMinutes.set(slot, minute);
+            }
+            return slotMinutes.get(slot) == minute;
+        }
+    }
+
+    private void sumRange(long fromMinute, long toMinute, long[] out) {
+        Arrays.fill(out, 0, FIELDS, 0L);
+        for (long minute = fromMinute; minute <= toMinute; minute++) {
+            int slot = (int) Math.floorMod(minute, (long) SLOTS);
+            if (slotMinutes.get(slot) != minute) {
+                continue;
+            }
+            for (int stripe = 0; stripe < STRIPES; stripe++) {
+                int base = index(stripe, slot, 0);
+                for (int field = 0; field < FIELDS; field++) {
+                    out[field] += counts.get(base + field);
+                }
+            }
+        }
+    }
+
+    private static int index(int stripe, int slot, int field) {
+        return (stripe * SLOTS + slot) * FIELDS + field;
+    }
+
+    private static long epochMinute(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+}
@@ -0,0 +1,67 @@
+package com.project2.smartfactory.mqtt;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.project2.smartfactory.defect.DefectDetectionDetailsDto;
+import com.project2.smartfactory.notification.Notification;
+import com.project2.smartfactory.notification.NotificationService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 불량 감지 상세 정보 토픽(defect_detection/details) 처리기.
+ * 정상이 아닌 판정이면 불량 개수와 요약으로 알림을 생성합니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class DefectDetailsHandler implements MqttTopicHandler<DefectDetectionDetailsDto> {
+
+    private static final Logger logger = LoggerFactory.getLogger(DefectDetailsHandler.class);
+
+    // 알림 메시지가 너무 길어지지 않도록 길이 제한
+    private static final int MAX_MESSAGE_LENGTH = 500;
+
+    private final NotificationService notificationService;
+
+    @Value("${mqtt.topic.details}") // 불량 감지 상세 정보 토픽
+    private String defectDetailsTopic;
+
+    @Override
+    public String topicFilter() {
+        return defectDetailsTopic;
+    }
+
+    @Override
+    public Class<DefectDetectionDetailsDto> payloadType() {
+        return DefectDetectionDetailsDto.class;
+    }
+
+    @Override
+    public void handle(String topic, DefectDetectionDetailsDto detailsDto) {
+        logger.info("Defect detail message arrived (DTO parsing): Status={}, DefectCount={}, DefectSummary={}",
+                    detailsDto.status(), detailsDto.defectCount(), detailsDto.defectSummary());
+
+        if ("Normal".equalsIgnoreCase(detailsDto.status())) {
+            return;
+        }
+        // 페이로드에 defects 리스트가 없으므로 defectSummary와 defectCount를 활용한 알림 생성
+        String notificationMessage = String.format(
+            "상태: %s, 감지 불량 개수: %d개, 요약: %s",
+            detailsDto.status(),
+            detailsDto.defectCount(),
+            detailsDto.defectSummary() != null && !detailsDto.defectSummary().isEmpty() ? detailsDto.defectSummary() : "상세 불량 정보 없음"
+        );
+        if (notificationMessage.length() > MAX_MESSAGE_LENGTH) {
+            notificationMessage = notificationMessage.substring(0, MAX_MESSAGE_LENGTH - 3) + "...";
+        }
+        notificationService.saveNotification(Notification.NotificationType.DEFECT_DETECTED, "불량 상세 정보", notificationMessage);
+    }
+
+    @Override
+    public void onError(String topic, Exception e) {
+        notificationService.saveNotification(Notification.NotificationType.ERROR, "JSON 파싱 오류", "불량 상세 정보 JSON 파싱 중 오류 발생: " + e.getMessage());
+    }
+}
@@ -0,0 +1,63 @@
+package com.project2.smartfactory.mqtt;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.project2.smartfactory.notification.Notification;
+import com.project2.smartfactory.notification.NotificationService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 불량 감지 결과 토픽(factory/detect_result) 처리기.
+ * 불량/비상품 판정이 오면 알림을 생성합니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class DetectResultHandler implements MqttTopicHandler<DetectResultPayload> {
+
+    private static final Logger logger = LoggerFactory.getLogger(DetectResultHandler.class);
+
+    private final NotificationService notificationService;
+
+    @Value("${mqtt.topic.detect.result}") // factory/detect_result 토픽
+    private String detectResultTopic;
+
+    @Override
+    public String topicFilter() {
+        return detectResultTopic;
+    }
+
+    @Override
+    public Class<DetectResultPayload> payloadType() {
+        return DetectResultPayload.class;
+    }
+
+    @Override
+    public void handle(String topic, DetectResultPayload payload) {
+        String status = payload.status();
+        logger.info("Defect Detection Message Arrived: Status={}, DefectCount={}, Timestamp={}", status, payload.defectCount(), payload.timestamp());
+
+        if ("Defective".equalsIgnoreCase(status)) {
+            String notificationMessage = String.format(
+                "불량 제품이 감지되었습니다. 불량 개수: %d개, 감지 시간: %s",
+                payload.defectCount(),
+                payload.timestamp()
+            );
+            notificationService.saveNotification(Notification.NotificationType.DEFECT_DETECTED, "불량 감지 결과", notificationMessage);
+        } else if ("Substandard".equalsIgnoreCase(status)) {
+            String notificationMessage = String.format("비상품 제품이 감지되었습니다. 감지 시간: %s", payload.timestamp());
+            notificationService.saveNotification(Notification.NotificationType.SUCCESS, "정상 감지 결과", notificationMessage);
+        } else if (!"Normal".equalsIgnoreCase(status)) {
+            logger.warn("Unknown defect detection status: {}", status);
+            notificationService.saveNotification(Notification.NotificationType.WARNING, "알 수 없는 감지 결과", "알 수 없는 감지 결과 상태: " + status);
+        }
+    }
+
+    @Override
+    public void onError(String topic, Exception e) {
+        notificationService.saveNotification(Notification.NotificationType.ERROR, "JSON 파싱 오류", "불량 감지 결과 JSON 파싱 중 오류 발생: " + e.getMessage());
+    }
+}
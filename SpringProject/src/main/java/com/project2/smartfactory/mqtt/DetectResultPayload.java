@@ -0,0 +1,19 @@
+package com.project2.smartfactory.mqtt;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * 불량 감지 결과(factory/detect_result) 토픽의 JSON 페이로드.
+ * 페이로드 byte[]에서 바로 역직렬화되며, 없거나 null인 필드는 기본값으로 채워집니다.
+ * @param status 판정 결과 (없으면 "UNKNOWN")
+ * @param timestamp 감지 시각 문자열 (없으면 "UNKNOWN")
+ * @param defectCount 불량 개수 (없으면 0)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record DetectResultPayload(String status, String timestamp, int defectCount) {
+
+    public DetectResultPayload {
+        status = status != null ? status : "UNKNOWN";
+        timestamp = timestamp != null ? timestamp : "UNKNOWN";
+    }
+}
@@ -0,0 +1,196 @@
+package com.project2.smartfactory.mqtt;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.project2.smartfactory.mqtt.DeviceStatusService.Device;
+import com.project2.smartfactory.uptime.DeviceUptimeService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 제어 대상 장비(스크립트, 컨베이어 벨트)별 상태 머신.
+ * - 장비 상태는 불변 객체(State)이며 AtomicReference의 CAS로만 교체되므로,
+ *   HTTP 요청 스레드(명령 발행)와 MQTT 작업 스레드(상태 수신)가 동시에 접근해도 잠금 없이 일관됩니다.
+ * - 사용자 명령은 발행 대기열에 넣기 전에 명령 ID와 함께 대기 상태로 기록되고, 발행 대기열이 브로커 전달을 알린 뒤
+ *   처음 도착한 상태 응답이 그 명령의 결과로 매칭됩니다. 장비는 명령 ID를 돌려보내지 않으므로(페이로드는 "START"/"STOP" 그대로),
+ *   전달 전에 도착한 주기 보고나 이전 상태 조회의 응답은 명령과 무관한 상태 변화로 처리합니다.
+ *   전달(전달 전이면 발행) 후 device.command.ack-timeout-ms 안에 응답이 없으면 미응답으로 버립니다.
+ * - 명령 발행부터 첫 상태 응답까지의 시간을 히스토그램(device.command.ack.latency)으로 기록합니다.
+ * - 상태가 실제로 바뀐 경우에만 StatusHistory와 DeviceUptimeService(가동/정지 구간)에 전이를 알립니다 (같은 상태의 주기적 보고는 무시).
+ */
+@Component
+@RequiredArgsConstructor
+public class DeviceStateMachine {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeviceStateMachine.class);
+
+    private final MeterRegistry meterRegistry;
+    private final StatusHistory statusHistory;
+    private final DeviceUptimeService deviceUptimeService;
+
+    @Value("${device.command.ack-timeout-ms:30000}")
+    private long ackTimeoutMs;
+
+    /**
+     * 응답을 기다리는 사용자 명령.
+     * @param commandId 명령 ID (commandIssued에서 부여)
+     * @param action "on" 또는 "off"
+     * @param issuedAt 명령 발행 시각 (System.nanoTime())
+     * @param deliveredAt 브로커 전달 시각 (System.nanoTime(), 0이면 아직 전달되지 않음)
+     */
+    public record PendingCommand(long commandId, String action, long issuedAt, long deliveredAt) {
+    }
+
+    /**
+     * 장비의 불변 상태.
+     * @param status 마지막으로 받은 장비 상태
+     * @param pending 응답을 기다리는 사용자 명령 (없으면 null)
+     */
+    public record State(String status, PendingCommand pending) {
+    }
+
+    /**
+     * 상태 응답 한 건으로 일어난 전이.
+     * @param previousStatus 전이 전 상태
+     * @param status 새 상태
+     * @param command 이 응답으로 확인된 사용자 명령 (사용자 명령과 무관한 상태 변화면 null)
+     */
+    public record Transition(String previousStatus, String status, PendingCommand command) {
+    }
+
+    private final class Machine {
+        private final AtomicReference<State> state = new AtomicReference<>(new State("Default", null));
+        private final Map<String, Timer> ackTimers = new HashMap<>();
+        private final Counter supersededCounter;
+        private final Counter unacknowledgedCounter;
+
+        private Machine(Device device) {
+            String tag = device.name().toLowerCase();
+            for (String action : new String[] {"on", "off"}) {
+                ackTimers.put(action, Timer.builder("device.command.ack.latency")
+                        .description("사용자 명령 발행부터 장비의 첫 상태 응답까지 걸린 시간")
+                        .tag("device", tag)
+                        .tag("action", action)
+                        .publishPercentileHistogram()
+                        .register(meterRegistry));
+            }
+            supersededCounter = Counter.builder("device.command.unmatched")
+                    .description("상태 응답과 매칭되지 못한 사용자 명령 수")
+                    .tag("device", tag)
+                    .tag("reason", "superseded")
+                    .register(meterRegistry);
+            unacknowledgedCounter = Counter.builder("device.command.unmatched")
+                    .description("상태 응답과 매칭되지 못한 사용자 명령 수")
+                    .tag("device", tag)
+                    .tag("reason", "timeout")
+                    .register(meterRegistry);
+        }
+    }
+
+    private final Map<Device, Machine> machines = new EnumMap<>(Device.class);
+    private final AtomicLong commandSequence = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        for (Device device : Device.values()) {
+            machines.put(device, new Machine(device));
+        }
+    }
+
+    /**
+     * 사용자 명령이 발행되었음을 기록합니다. 발행 대기열에 넣기 전에 호출해야 하며, 아직 응답을 받지 못한 이전 명령은 새 명령으로 대체됩니다.
+     * @param action "on" 또는 "off"
+     * @return 명령 ID (브로커에 전달되면 commandDelivered에 넘김)
+     */
+    public long commandIssued(Device device, String action) {
+        if (!action.equals("on") && !action.equals("off")) {
+            throw new IllegalArgumentException("Unknown device command: " + action);
+        }
+        Machine machine = machines.get(device);
+        PendingCommand command = new PendingCommand(commandSequence.incrementAndGet(), action, System.nanoTime(), 0);
+        State previous = machine.state.getAndUpdate(current -> new State(current.status(), command));
+        if (previous.pending() != null) {
+            machine.supersededCounter.increment();
+            logger.debug("{} command #{} superseded by #{} before any status reply", device, previous.pending().commandId(), command.commandId());
+        }
+        return command.commandId();
+    }
+
+    /**
+     * 발행 대기열이 명령을 브로커에 전달했음을 기록합니다. 이후 도착하는 첫 상태 응답이 이 명령의 결과로 매칭됩니다.
+     * 그 사이 새 명령으로 대체되었으면 아무것도 하지 않습니다.
+     * @param commandId commandIssued가 반환한 명령 ID
+     */
+    public void commandDelivered(Device device, long commandId) {
+        long now = System.nanoTime();
+        machines.get(device).state.updateAndGet(current -> {
+            PendingCommand pending = current.pending();
+            if (pending == null || pending.commandId() != commandId || pending.deliveredAt() != 0) {
+                return current;
+            }
+            return new State(current.status(), new PendingCommand(commandId, pending.action(), pending.issuedAt(), now));
+        });
+    }
+
+    /**
+     * 장비의 상태 응답을 반영하고, 브로커에 전달된 사용자 명령이 있으면 그 명령의 결과로 매칭합니다.
+     * @return 일어난 전이
+     */
+    public Transition onStatus(Device device, String status) {
+        Machine machine = machines.get(device);
+        while (true) {
+            State current = machine.state.get();
+            long now = System.nanoTime();
+            PendingCommand pending = current.pending();
+            PendingCommand matched = null;
+            PendingCommand remaining = pending;
+            if (pending != null) {
+                long since = pending.deliveredAt() != 0 ? pending.deliveredAt() : pending.issuedAt();
+                if (now - since > TimeUnit.MILLISECONDS.toNanos(ackTimeoutMs)) {
+                    remaining = null; // 응답 없이 너무 오래된 명령은 이 상태 변화와 무관한 것으로 봄
+                } else if (pending.deliveredAt() != 0) {
+                    matched = pending;
+                    remaining = null;
+                } // 아직 브로커 전달 전이면 장비가 명령을 받기 전에 보낸 상태이므로 명령은 그대로 대기
+            }
+            if (!machine.state.compareAndSet(current, new State(status, remaining))) {
+                continue; // 그 사이 새 명령이 발행되었거나 전달됨
+            }
+            if (!status.equals(current.status())) {
+                statusHistory.record(device, status); // 실제 상태 변화만 이력에 남김
+                deviceUptimeService.onStatusChange(device, status);
+            }
+            if (matched != null) {
+                long latency = now - matched.issuedAt();
+                machine.ackTimers.get(matched.action()).record(latency, TimeUnit.NANOSECONDS);
+                logger.debug("{} command #{} ({}) acknowledged with status {} after {} ms",
+                        device, matched.commandId(), matched.action(), status, TimeUnit.NANOSECONDS.toMillis(latency));
+            } else if (pending != null && remaining == null) {
+                machine.unacknowledgedCounter.increment();
+                logger.warn("{} command #{} ({}) got no status reply within {} ms", device, pending.commandId(), pending.action(), ackTimeoutMs);
+            }
+            return new Transition(current.status(), status, matched);
+        }
+    }
+
+    /**
+     * 장비의 현재 상태를 반환합니다.
+     */
+    public State getState(Device device) {
+        return machines.get(device).state.get();
+    }
+}
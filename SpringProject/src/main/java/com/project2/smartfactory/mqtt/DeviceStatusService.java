@@ -0,0 +1,168 @@
+package com.project2.smartfactory.mqtt;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 장비(불량 감지 스크립트, 컨베이어 벨트 시스템) 상태의 요청/응답 캐시.
+ * - 마지막으로 받은 상태를 mqtt.status.cache-ttl-ms 동안 캐시하고, 그 안의 조회는 MQTT 요청 없이 캐시로 응답합니다.
+ * - 캐시가 오래되면 상태 요청을 한 번만 발행하며(single-flight), 응답을 기다리는 동안 들어온 조회는 같은 요청을 공유합니다.
+ * - 장비는 요청을 구분하는 ID 없이 상태만 보내므로, 요청 이후 처음 도착한 상태(주기 보고 포함)를 응답으로 간주합니다.
+ *   캐시를 새로 채우는 것이 목적이므로 요청 이후에 발행된 상태라면 어느 것이든 충분히 최신입니다.
+ * - 호출자는 최대 대기 시간을 주어 새 응답을 기다릴 수 있으며, 시간 안에 오지 않으면 캐시된 상태를 받습니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class DeviceStatusService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeviceStatusService.class);
+
+    /**
+     * 상태를 조회할 장비.
+     */
+    public enum Device {
+        SCRIPT, // 불량 감지(Python) 스크립트
+        SYSTEM  // 컨베이어 벨트 동작 시스템
+    }
+
+    private final MqttPublisherService mqttPublisherService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${mqtt.topic.script.command}")
+    private String scriptCommandTopic;
+
+    @Value("${mqtt.topic.system.command}")
+    private String systemCommandTopic;
+
+    @Value("${mqtt.status.cache-ttl-ms:4000}")
+    private long cacheTtlMs;
+
+    @Value("${mqtt.status.request-timeout-ms:5000}")
+    private long requestTimeoutMs;
+
+    // 응답을 기다리는 상태 요청
+    private record PendingRequest(long sentAt, CompletableFuture<String> reply) {
+    }
+
+    private final class DeviceState {
+        private final String commandTopic;
+        private final String requestPayload;
+        private final int qos;
+        private volatile String status = "Default";
+        private volatile long receivedAt; // System.nanoTime(), 0이면 아직 받은 적 없음
+        private final AtomicReference<PendingRequest> inflight = new AtomicReference<>();
+        private final Counter cacheHitCounter;
+        private final Counter coalescedCounter;
+        private final Counter sentCounter;
+
+        private DeviceState(Device device, String commandTopic, String requestPayload, int qos) {
+            this.commandTopic = commandTopic;
+            this.requestPayload = requestPayload;
+            this.qos = qos;
+            String tag = device.name().toLowerCase();
+            cacheHitCounter = Counter.builder("mqtt.status.lookups").description("장비 상태 조회 수")
+                    .tag("device", tag).tag("result", "cache_hit").register(meterRegistry);
+            coalescedCounter = Counter.builder("mqtt.status.lookups").description("장비 상태 조회 수")
+                    .tag("device", tag).tag("result", "coalesced").register(meterRegistry);
+            sentCounter = Counter.builder("mqtt.status.lookups").description("장비 상태 조회 수")
+                    .tag("device", tag).tag("result", "request_sent").register(meterRegistry);
+        }
+    }
+
+    private final Map<Device, DeviceState> states = new EnumMap<>(Device.class);
+
+    @PostConstruct
+    public void init() {
+        // 장비별로 기존에 사용하던 요청 메시지와 QoS 유지
+        states.put(Device.SCRIPT, new DeviceState(Device.SCRIPT, scriptCommandTopic, "STATUS_REQUEST", 2));
+        states.put(Device.SYSTEM, new DeviceState(Device.SYSTEM, systemCommandTopic, "status_request", 1));
+    }
+
+    /**
+     * 장비 상태를 반환합니다. 캐시가 오래되었으면 상태 요청을 보내고(이미 요청 중이면 공유),
+     * waitMs가 0보다 크면 그 시간(최대 request-timeout-ms)까지 새 응답을 기다립니다.
+     * @param device 조회할 장비
+     * @param waitMs 새 응답을 기다릴 최대 시간 (0이면 기다리지 않고 캐시된 상태 반환)
+     * @return 장비 상태 문자열
+     */
+    public String getStatus(Device device, long waitMs) {
+        DeviceState state = states.get(device);
+        if (isFresh(state)) {
+            state.cacheHitCounter.increment();
+            return state.status;
+        }
+        PendingRequest request = requestIfNeeded(state);
+        if (waitMs <= 0) {
+            return state.status;
+        }
+        try {
+            return request.reply().get(Math.min(waitMs, requestTimeoutMs), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return state.status;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return state.status;
+        }
+    }
+
+    /**
+     * 상태 토픽 처리기가 장비 상태 메시지를 받을 때마다 호출합니다.
+     */
+    public void onStatus(Device device, String status) {
+        DeviceState state = states.get(device);
+        state.status = status;
+        state.receivedAt = System.nanoTime();
+        PendingRequest request = state.inflight.get();
+        if (request != null) {
+            request.reply().complete(status);
+        }
+    }
+
+    private boolean isFresh(DeviceState state) {
+        long receivedAt = state.receivedAt;
+        return receivedAt != 0 && System.nanoTime() - receivedAt < TimeUnit.MILLISECONDS.toNanos(cacheTtlMs);
+    }
+
+    // 응답을 기다리는 요청이 있으면 공유하고, 없거나 시간이 지났으면 새 요청을 하나만 발행
+    private PendingRequest requestIfNeeded(DeviceState state) {
+        while (true) {
+            PendingRequest current = state.inflight.get();
+            long now = System.nanoTime();
+            if (current != null && !current.reply().isDone() && now - current.sentAt() < TimeUnit.MILLISECONDS.toNanos(requestTimeoutMs)) {
+                state.coalescedCounter.increment();
+                return current;
+            }
+            PendingRequest next = new PendingRequest(now, new CompletableFuture<>());
+            if (!state.inflight.compareAndSet(current, next)) {
+                continue; // 다른 스레드가 먼저 요청함
+            }
+            if (current != null) {
+                current.reply().complete(state.status); // 응답 없이 시간이 지난 요청의 대기자는 캐시 값으로 깨움
+            }
+            state.sentCounter.increment();
+            logger.debug("Status request sent to {}", state.commandTopic);
+            mqttPublisherService.publishMessage(state.commandTopic, state.requestPayload, state.qos, false)
+                    .whenComplete((ignored, ex) -> {
+                        if (ex != null) { // 발행 실패: 기다리는 호출자는 캐시 값을 받고, 다음 조회에서 다시 요청
+                            next.reply().completeExceptionally(ex);
+                        }
+                    });
+            return next;
+        }
+    }
+}
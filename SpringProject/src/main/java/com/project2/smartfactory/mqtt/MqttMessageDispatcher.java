@@ -0,0 +1,284 @@
+package com.project2.smartfactory.mqtt;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * MQTT 수신 메시지를 Paho 콜백 스레드에서 떼어내 작업 스레드(lane)에서 처리하는 디스패처.
+ * - 키(기본: 토픽)의 해시로 lane을 고르므로 같은 키의 메시지는 항상 같은 스레드에서 도착 순서대로 처리됩니다.
+ * - lane마다 크기가 제한된 큐를 두며, 가득 찼을 때의 동작은 mqtt.dispatch.overflow-policy로 정합니다.
+ * - 토픽별 대기 건수, 큐 대기 시간, 처리 시간, 버려진 건수를 Micrometer 메트릭으로 노출합니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MqttMessageDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(MqttMessageDispatcher.class);
+
+    // 토픽별 메트릭을 만드는 최대 토픽 수. 와일드카드 구독은 토픽 수가 정해져 있지 않으므로 넘는 토픽은 "other"로 묶음
+    private static final int MAX_METERED_TOPICS = 1024;
+
+    /**
+     * lane 큐가 가득 찼을 때의 동작.
+     */
+    public enum OverflowPolicy {
+        DROP_OLDEST, // 같은 키(토픽)의 가장 오래된 대기 메시지를 버리고 새 메시지를 넣음. 없으면 가장 많이 쌓인 키의 가장 오래된 메시지를 버림
+        DROP_NEWEST, // 새 메시지를 버림
+        BLOCK        // block-timeout-ms 동안 콜백 스레드를 멈추고 기다린 뒤, 그래도 가득 차 있으면 새 메시지를 버림
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${mqtt.dispatch.workers:4}")
+    private int workerCount;
+
+    @Value("${mqtt.dispatch.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${mqtt.dispatch.overflow-policy:DROP_OLDEST}")
+    private OverflowPolicy overflowPolicy;
+
+    @Value("${mqtt.dispatch.block-timeout-ms:100}")
+    private long blockTimeoutMs;
+
+    private Lane[] lanes;
+    private volatile boolean running;
+
+    // 토픽별 메트릭 (최대 MAX_METERED_TOPICS개, 그 뒤에 처음 보는 토픽은 otherTopicMeters에 합산)
+    private final Map<String, TopicMeters> topicMeters = new ConcurrentHashMap<>();
+    private TopicMeters otherTopicMeters;
+
+    // 디스패치된 메시지 한 건
+    private record Task(String key, String topic, MqttMessage message, MqttMessageHandler handler, TopicMeters meters, long enqueuedAt) {
+    }
+
+    private final class Lane implements Runnable {
+        private final BlockingQueue<Task> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final Thread thread;
+
+        private Lane(int index) {
+            this.thread = new Thread(this, "mqtt-dispatch-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (running || !queue.isEmpty()) {
+                try {
+                    Task task = queue.poll(200, TimeUnit.MILLISECONDS);
+                    if (task != null) {
+                        execute(task);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+    }
+
+    private final class TopicMeters {
+        private final AtomicInteger pending = new AtomicInteger();
+        private final Timer handlerTimer;
+        private final Timer waitTimer;
+        private final Counter droppedCounter;
+        private final Counter failedCounter;
+
+        private TopicMeters(String topic) {
+            Gauge.builder("mqtt.dispatch.queue.depth", pending, AtomicInteger::get)
+                    .description("토픽별 처리 대기 중인 메시지 수")
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+            handlerTimer = Timer.builder("mqtt.dispatch.handler.latency")
+                    .description("메시지 처리기 실행 시간")
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+            waitTimer = Timer.builder("mqtt.dispatch.queue.wait")
+                    .description("수신부터 처리 시작까지 큐에서 기다린 시간")
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+            droppedCounter = Counter.builder("mqtt.dispatch.dropped")
+                    .description("큐가 가득 차 버려진 메시지 수")
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+            failedCounter = Counter.builder("mqtt.dispatch.failed")
+                    .description("처리기에서 예외가 발생한 메시지 수")
+                    .tag("topic", topic)
+                    .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        otherTopicMeters = new TopicMeters("other");
+        running = true;
+        lanes = new Lane[Math.max(1, workerCount)];
+        for (int i = 0; i < lanes.length; i++) {
+            Lane lane = new Lane(i);
+            lanes[i] = lane;
+            Gauge.builder("mqtt.dispatch.lane.depth", lane.queue, BlockingQueue::size)
+                    .description("작업 스레드별 큐 길이")
+                    .tag("lane", String.valueOf(i))
+                    .register(meterRegistry);
+            lane.thread.start();
+        }
+        logger.info("MQTT dispatcher started: workers={}, queueCapacity={}, overflowPolicy={}", lanes.length, queueCapacity, overflowPolicy);
+    }
+
+    /**
+     * 토픽을 순서 키로 사용하여 메시지를 작업 스레드에 넘깁니다.
+     */
+    public boolean dispatch(String topic, MqttMessage message, MqttMessageHandler handler) {
+        return dispatch(topic, topic, message, handler);
+    }
+
+    /**
+     * 메시지를 작업 스레드에 넘깁니다. 같은 key의 메시지는 넘긴 순서대로 처리됩니다.
+     * 콜백 스레드는 큐에 넣기까지만 수행하며, BLOCK 정책이 아니면 기다리지 않습니다.
+     * @return 큐에 들어갔으면 true, 정책에 따라 버려졌으면 false
+     */
+    public boolean dispatch(String key, String topic, MqttMessage message, MqttMessageHandler handler) {
+        TopicMeters meters = metersFor(topic);
+        Lane lane = lanes[Math.floorMod(key.hashCode(), lanes.length)];
+        Task task = new Task(key, topic, message, handler, meters, System.nanoTime());
+
+        meters.pending.incrementAndGet();
+        if (lane.queue.offer(task) || offerOnOverflow(lane, task)) {
+            return true;
+        }
+        meters.pending.decrementAndGet();
+        meters.droppedCounter.increment();
+        logger.warn("MQTT dispatch queue is full ({}). Dropped message on topic {}.", queueCapacity, topic);
+        return false;
+    }
+
+    private TopicMeters metersFor(String topic) {
+        TopicMeters meters = topicMeters.get(topic);
+        if (meters != null) {
+            return meters;
+        }
+        if (topicMeters.size() >= MAX_METERED_TOPICS) {
+            return otherTopicMeters;
+        }
+        return topicMeters.computeIfAbsent(topic, TopicMeters::new);
+    }
+
+    private boolean offerOnOverflow(Lane lane, Task task) {
+        switch (overflowPolicy) {
+            case DROP_OLDEST -> {
+                // lane은 여러 토픽이 나눠 쓰므로 "최신 값이 중요"는 같은 키 안에서만 성립함.
+                // 같은 키의 메시지를 먼저 버리고, 없으면 lane을 채운 키(폭주 중인 토픽)의 메시지를 버려서
+                // 검출 결과 폭주가 같은 lane의 드문 상태 전이 메시지를 밀어내지 않게 함
+                // 콜백 스레드 하나만 넣으므로, 하나를 비우면 대부분 바로 들어감
+                for (int attempt = 0; attempt < 3; attempt++) {
+                    Task dropped = victim(lane, task.key());
+                    if (dropped == null) {
+                        continue; // 그 사이 작업 스레드가 큐를 비움
+                    }
+                    if (lane.queue.remove(dropped)) {
+                        dropped.meters().pending.decrementAndGet();
+                        dropped.meters().droppedCounter.increment();
+                        logger.warn("MQTT dispatch queue is full ({}). Dropped oldest message on topic {}.", queueCapacity, dropped.topic());
+                    }
+                    if (lane.queue.offer(task)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            case BLOCK -> {
+                try {
+                    return lane.queue.offer(task, blockTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            default -> {
+                return false;
+            }
+        }
+    }
+
+    // 버릴 메시지: key와 같은 키의 가장 오래된 메시지, 없으면 가장 많이 대기 중인 키의 가장 오래된 메시지
+    private static Task victim(Lane lane, String key) {
+        Map<String, Integer> counts = new HashMap<>();
+        Map<String, Task> oldest = new HashMap<>();
+        for (Task queued : lane.queue) { // 머리(가장 오래된 것)부터 순회
+            if (queued.key().equals(key)) {
+                return queued;
+            }
+            counts.merge(queued.key(), 1, Integer::sum);
+            oldest.putIfAbsent(queued.key(), queued);
+        }
+        String busiest = null;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (busiest == null || entry.getValue() > counts.get(busiest)) {
+                busiest = entry.getKey();
+            }
+        }
+        return busiest == null ? null : oldest.get(busiest);
+    }
+
+    private void execute(Task task) {
+        TopicMeters meters = task.meters();
+        long start = System.nanoTime();
+        meters.waitTimer.record(start - task.enqueuedAt(), TimeUnit.NANOSECONDS);
+        try {
+            task.handler().handle(task.topic(), task.message());
+        } catch (Exception e) {
+            meters.failedCounter.increment();
+            logger.error("Error while handling MQTT message on topic {}: {}", task.topic(), e.getMessage(), e);
+        } finally {
+            meters.handlerTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            meters.pending.decrementAndGet();
+        }
+    }
+
+    /**
+     * 토픽의 처리 대기 중인 메시지 수를 반환합니다. 토픽별 메트릭 한도를 넘어 "other"로 묶인 토픽은 0입니다.
+     */
+    public int getPending(String topic) {
+        TopicMeters meters = topicMeters.get(topic);
+        return meters != null ? meters.pending.get() : 0;
+    }
+
+    /**
+     * 새 메시지 수신을 멈추고, 대기 중인 메시지를 처리한 뒤 작업 스레드를 종료합니다.
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        for (Lane lane : lanes) {
+            try {
+                lane.thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (!lane.queue.isEmpty()) {
+                logger.warn("MQTT dispatcher lane {} stopped with {} messages still queued.", lane.thread.getName(), lane.queue.size());
+            }
+        }
+        logger.info("MQTT dispatcher has been shut down.");
+    }
+}
@@ -0,0 +1,17 @@
+package com.project2.smartfactory.mqtt;
+
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+
+/**
+ * MqttMessageDispatcher의 작업 스레드에서 실행되는 MQTT 메시지 처리기.
+ */
+@FunctionalInterface
+public interface MqttMessageHandler {
+
+    /**
+     * @param topic 메시지가 발행된 토픽
+     * @param message 수신된 MQTT 메시지
+     * @throws Exception 처리 중 발생한 예외 (디스패처가 로그로 남기고 다음 메시지를 계속 처리)
+     */
+    void handle(String topic, MqttMessage message) throws Exception;
+}
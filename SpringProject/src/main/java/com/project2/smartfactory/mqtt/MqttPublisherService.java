@@ -1,18 +1,52 @@
 package com.project2.smartfactory.mqtt;
 
-import org.eclipse.paho.client.mqttv3.MqttClient;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.eclipse.paho.client.mqttv3.IMqttActionListener;
+import org.eclipse.paho.client.mqttv3.IMqttDeliveryToken;
+import org.eclipse.paho.client.mqttv3.IMqttToken;
+import org.eclipse.paho.client.mqttv3.MqttAsyncClient;
+import org.eclipse.paho.client.mqttv3.MqttCallbackExtended;
 import org.eclipse.paho.client.mqttv3.MqttConnectOptions;
 import org.eclipse.paho.client.mqttv3.MqttException;
 import org.eclipse.paho.client.mqttv3.MqttMessage;
 import org.eclipse.paho.client.mqttv3.persist.MemoryPersistence;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
 
+/**
+ * MqttAsyncClient 기반 MQTT 발행 서비스.
+ * - 발행은 브로커 응답(QoS 1/2 핸드셰이크)을 기다리지 않고 바로 반환하며, 전달 결과는 CompletableFuture로 알려줍니다.
+ * - 동시에 전달 중인 메시지 수는 mqtt.publisher.max-inflight로 제한하며, 창이 가득 차면 기다리지 않고 즉시 실패합니다.
+ * - 연결과 재연결은 전용 스레드 하나(재연결 감독자)만 수행하며, 실패 시 지수 백오프로 다시 시도합니다.
+ */
 @Service
-public class MqttPublisherService {
+@RequiredArgsConstructor
+public class MqttPublisherService implements MqttCallbackExtended {
+
+    private static final Logger logger = LoggerFactory.getLogger(MqttPublisherService.class);
+
+    private static final long CONNECT_TIMEOUT_MS = 10_000;
+
+    private final MeterRegistry meterRegistry;
 
     // application.properties 또는 application.yml에서 MQTT 브로커 주소 주입
     @Value("${mqtt.broker.url}")
@@ -22,104 +56,237 @@ public class MqttPublisherService {
     @Value("${mqtt.client.id.publisher}")
     private String clientId;
 
-    private MqttClient mqttClient;
-
     @Value("${mqtt.topic.system.command}")
     private String systemCommandTopic;
     @Value("${mqtt.topic.script.command}")
     private String scriptCommandTopic;
 
+    @Value("${mqtt.publisher.max-inflight:100}")
+    private int maxInflight;
+
+    @Value("${mqtt.publisher.reconnect-initial-delay-ms:1000}")
+    private long reconnectInitialDelayMs;
 
-    // 서비스 초기화 시 MQTT 클라이언트 연결
+    @Value("${mqtt.publisher.reconnect-max-delay-ms:30000}")
+    private long reconnectMaxDelayMs;
+
+    private MqttAsyncClient mqttClient;
+    private MqttConnectOptions connectOptions;
+    private Semaphore inflightPermits;
+    private ScheduledExecutorService reconnectSupervisor;
+    private final AtomicBoolean reconnectScheduled = new AtomicBoolean();
+    private volatile boolean shuttingDown;
+    private long nextReconnectDelayMs; // 재연결 감독자 스레드에서만 접근
+    private final List<Runnable> connectListeners = new CopyOnWriteArrayList<>();
+
+    private Timer publishTimer;
+    private Counter failedCounter;
+    private Counter disconnectedCounter;
+    private Counter inflightFullCounter;
+
+    // 서비스 초기화 시 MQTT 클라이언트를 만들고 재연결 감독자에게 첫 연결을 맡김
     @PostConstruct
     public void init() {
+        inflightPermits = new Semaphore(Math.max(1, maxInflight));
+        nextReconnectDelayMs = reconnectInitialDelayMs;
+
+        Gauge.builder("mqtt.publish.inflight", inflightPermits, permits -> Math.max(1, maxInflight) - permits.availablePermits())
+                .description("브로커 응답을 기다리는 발행 메시지 수")
+                .register(meterRegistry);
+        publishTimer = Timer.builder("mqtt.publish.latency")
+                .description("발행부터 브로커 전달 완료까지 걸린 시간")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("mqtt.publish.failed")
+                .description("브로커 전달에 실패한 발행 수")
+                .register(meterRegistry);
+        disconnectedCounter = Counter.builder("mqtt.publish.rejected")
+                .description("발행 전에 거절된 메시지 수")
+                .tag("reason", "disconnected")
+                .register(meterRegistry);
+        inflightFullCounter = Counter.builder("mqtt.publish.rejected")
+                .description("발행 전에 거절된 메시지 수")
+                .tag("reason", "inflight_full")
+                .register(meterRegistry);
+
+        reconnectSupervisor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mqtt-publisher-reconnect");
+            thread.setDaemon(true);
+            return thread;
+        });
+
         try {
             // 메모리 기반의 Persistence 사용 (메시지 저장 방식)
-            MemoryPersistence persistence = new MemoryPersistence();
-
-            // MQTT 클라이언트 생성
-            mqttClient = new MqttClient(brokerUrl, clientId, persistence);
+            mqttClient = new MqttAsyncClient(brokerUrl, clientId, new MemoryPersistence());
+            mqttClient.setCallback(this);
 
             // 연결 옵션 설정
-            MqttConnectOptions connOpts = new MqttConnectOptions();
-            connOpts.setCleanSession(false); // 클린 세션 사용 (클라이언트 연결 종료 시 구독 정보 및 메시지 삭제)
-            connOpts.setAutomaticReconnect(true);
-            connOpts.setMaxReconnectDelay(5000); // 최대 재연결 지연 시간 5초
-            connOpts.setKeepAliveInterval(300);    // Keep Alive 간격 300초
+            connectOptions = new MqttConnectOptions();
+            connectOptions.setCleanSession(false);
+            connectOptions.setAutomaticReconnect(false); // 재연결은 재연결 감독자가 담당
+            connectOptions.setKeepAliveInterval(300);    // Keep Alive 간격 300초
+            connectOptions.setMaxInflight(Math.max(1, maxInflight));
             // 필요에 따라 사용자 이름, 비밀번호, Last Will and Testament(LWT) 등 추가 설정 가능
-            // connOpts.setUserName("username");
-            // connOpts.setPassword("password".toCharArray());
-            // connOpts.setWill("lwt/topic", "disconnected".getBytes(), 1, true); // LWT 설정
-
-            System.out.println("MQTT 브로커 연결 시도: " + brokerUrl);
-            mqttClient.connect(connOpts);
-            System.out.println("MQTT 브로커 연결 성공");
-            this.publishMessage(systemCommandTopic, "status_request", 2, false);
-            this.publishMessage(scriptCommandTopic, "status_request", 2, false);
+            // connectOptions.setUserName("username");
+            // connectOptions.setPassword("password".toCharArray());
+            // connectOptions.setWill("lwt/topic", "disconnected".getBytes(), 1, true); // LWT 설정
 
+            scheduleReconnect(0);
         } catch (MqttException me) {
-            System.err.println("MQTT 연결 오류: " + me.getMessage());
-            System.err.println("reason " + me.getReasonCode());
-            System.err.println("msg " + me.getMessage());
-            System.err.println("loc " + me.getLocalizedMessage());
-            System.err.println("cause " + me.getCause());
-            System.err.println("excep " + me);
-            // 오류 발생 시 클라이언트 객체를 null로 설정하거나 상태를 표시하여 발행 시 오류 처리
-            mqttClient = null; // 연결 실패 시 클라이언트를 null로 설정
-        } catch (Exception e) {
-            System.err.println("MQTT 클라이언트 초기화 중 예상치 못한 오류 발생: " + e.getMessage());
+            logger.error("MQTT publisher initialization error: {} (reason {})", me.getMessage(), me.getReasonCode(), me);
             mqttClient = null;
         }
     }
 
-    // 서비스 종료 시 MQTT 클라이언트 연결 해제
+    // 서비스 종료 시 재연결 감독자를 멈추고 MQTT 클라이언트 연결 해제
     @PreDestroy
     public void disconnect() {
-        if (mqttClient != null && mqttClient.isConnected()) {
-            try {
-                mqttClient.disconnect();
-                System.out.println("MQTT 브로커 연결 해제");
-            } catch (MqttException me) {
-                System.err.println("MQTT 연결 해제 오류: " + me.getMessage());
+        shuttingDown = true;
+        reconnectSupervisor.shutdownNow();
+        if (mqttClient == null) {
+            return;
+        }
+        try {
+            if (mqttClient.isConnected()) {
+                mqttClient.disconnect(5000).waitForCompletion(CONNECT_TIMEOUT_MS);
+                logger.info("MQTT Disconnected (Publisher)");
             }
+            mqttClient.close();
+        } catch (MqttException me) {
+            logger.error("MQTT Error while disconnecting publisher: {}", me.getMessage(), me);
         }
     }
 
     /**
-     * 지정된 토픽으로 MQTT 메시지를 발행합니다.
+     * 브로커와 연결되어 있는지 여부.
+     */
+    public boolean isConnected() {
+        return mqttClient != null && mqttClient.isConnected();
+    }
+
+    /**
+     * 연결(재연결 포함)이 완료될 때마다 실행할 작업을 등록합니다. Paho 콜백 스레드에서 실행되므로 가볍게 유지해야 합니다.
+     */
+    public void addConnectListener(Runnable listener) {
+        connectListeners.add(listener);
+    }
+
+    /**
+     * 지정된 토픽으로 MQTT 메시지를 발행합니다. 브로커 응답을 기다리지 않고 바로 반환합니다.
+     * 반환된 Future는 Paho 콜백 스레드에서 완료되므로, 무거운 후속 작업은 *Async 메서드로 연결해야 합니다.
      * @param topic 발행할 토픽
      * @param payload 발행할 메시지 내용 (문자열)
      * @param qos QoS 레벨 (0, 1, 2)
      * @param retained 메시지 유지 여부
+     * @return 브로커 전달이 끝나면 완료되는 Future. 연결이 끊겼거나 전달 중인 메시지가 너무 많으면 즉시 실패한 상태로 반환
      */
-    public void publishMessage(String topic, String payload, int qos, boolean retained) {
+    public CompletableFuture<Void> publishMessage(String topic, String payload, int qos, boolean retained) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
         if (mqttClient == null || !mqttClient.isConnected()) {
-            System.err.println("MQTT 클라이언트가 연결되지 않았습니다. 메시지를 발행할 수 없습니다.");
-            // 필요에 따라 예외를 던지거나 다른 방식으로 오류 처리
-            this.init();
+            disconnectedCounter.increment();
+            scheduleReconnect(0); // 백오프 대기 중이 아니라면 바로 재연결 시도
+            result.completeExceptionally(new MqttException(MqttException.REASON_CODE_CLIENT_NOT_CONNECTED));
+            logger.warn("MQTT publisher is not connected. Message to topic '{}' was not published.", topic);
+            return result;
+        }
+        if (!inflightPermits.tryAcquire()) {
+            inflightFullCounter.increment();
+            result.completeExceptionally(new MqttException(MqttException.REASON_CODE_MAX_INFLIGHT));
+            logger.warn("MQTT inflight window is full ({}). Message to topic '{}' was not published.", maxInflight, topic);
+            return result;
         }
 
+        long start = System.nanoTime();
         try {
-            // 메시지 생성
-            MqttMessage message = new MqttMessage(payload.getBytes());
+            MqttMessage message = new MqttMessage(payload.getBytes(StandardCharsets.UTF_8));
             message.setRetained(retained);
             message.setQos(qos);
 
-            // 메시지 발행
-            mqttClient.publish(topic, message);
-            System.out.println(String.format("MQTT 메시지 발행 성공: 토픽='%s', 메시지='%s'", topic, payload));
+            mqttClient.publish(topic, message, null, new IMqttActionListener() {
+                @Override
+                public void onSuccess(IMqttToken token) {
+                    inflightPermits.release();
+                    publishTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    logger.debug("MQTT message published: topic='{}', message='{}'", topic, payload);
+                    result.complete(null);
+                }
+
+                @Override
+                public void onFailure(IMqttToken token, Throwable exception) {
+                    inflightPermits.release();
+                    failedCounter.increment();
+                    logger.error("MQTT publish error on topic '{}': {}", topic, exception.getMessage());
+                    result.completeExceptionally(exception);
+                }
+            });
+        } catch (MqttException me) {
+            inflightPermits.release();
+            failedCounter.increment();
+            logger.error("MQTT publish error on topic '{}': {} (reason {})", topic, me.getMessage(), me.getReasonCode());
+            result.completeExceptionally(me);
+        }
+        return result;
+    }
+
+    /**
+     * 재연결 감독자에게 연결 시도를 예약합니다. 이미 예약되어 있거나 종료 중이면 아무것도 하지 않습니다.
+     */
+    private void scheduleReconnect(long delayMs) {
+        if (shuttingDown || mqttClient == null || !reconnectScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            reconnectSupervisor.schedule(this::reconnect, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) { // 종료 중 RejectedExecutionException
+            reconnectScheduled.set(false);
+        }
+    }
 
+    // 재연결 감독자 스레드에서만 실행
+    private void reconnect() {
+        if (shuttingDown || mqttClient.isConnected()) {
+            reconnectScheduled.set(false);
+            return;
+        }
+        try {
+            logger.info("Trying to Connect MQTT Broker (Publisher): {}", brokerUrl);
+            mqttClient.connect(connectOptions).waitForCompletion(CONNECT_TIMEOUT_MS);
+            nextReconnectDelayMs = reconnectInitialDelayMs;
+            reconnectScheduled.set(false);
         } catch (MqttException me) {
-            System.err.println("MQTT 메시지 발행 오류: " + me.getMessage());
-            System.err.println("reason " + me.getReasonCode());
-            System.err.println("msg " + me.getMessage());
-            System.err.println("loc " + me.getLocalizedMessage());
-            System.err.println("cause " + me.getCause());
-            System.err.println("excep " + me);
-        } catch (Exception e) {
-        System.err.println("MQTT 메시지 발행 중 예상치 못한 오류 발생: " + e.getMessage());
+            long delay = nextReconnectDelayMs;
+            nextReconnectDelayMs = Math.min(nextReconnectDelayMs * 2, reconnectMaxDelayMs);
+            logger.warn("MQTT publisher connection failed: {} (reason {}). Retrying in {} ms.", me.getMessage(), me.getReasonCode(), delay);
+            reconnectScheduled.set(false);
+            scheduleReconnect(delay);
         }
     }
 
+    // --- MqttCallbackExtended 인터페이스 메소드 구현 ---
+
+    /**
+     * 연결(재연결 포함)이 완료되면 장비들에게 현재 상태를 다시 보고하도록 요청합니다.
+     */
+    @Override
+    public void connectComplete(boolean reconnect, String serverURI) {
+        logger.info("MQTT Broker Connected (Publisher). Client ID: {}, reconnect={}", clientId, reconnect);
+        publishMessage(systemCommandTopic, "status_request", 2, false);
+        publishMessage(scriptCommandTopic, "status_request", 2, false);
+        connectListeners.forEach(Runnable::run);
+    }
+
+    @Override
+    public void connectionLost(Throwable cause) {
+        logger.error("MQTT publisher connection lost: {}", cause != null ? cause.getMessage() : "unknown");
+        scheduleReconnect(reconnectInitialDelayMs);
+    }
+
+    @Override
+    public void messageArrived(String topic, MqttMessage message) {
+        // 발행 전용 클라이언트이므로 구독 메시지는 없음
+    }
 
+    @Override
+    public void deliveryComplete(IMqttDeliveryToken token) {
+        // 전달 결과는 publish 시 등록한 IMqttActionListener에서 처리
+    }
 }
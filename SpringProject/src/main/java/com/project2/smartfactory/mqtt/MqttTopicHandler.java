@@ -0,0 +1,48 @@
+package com.project2.smartfactory.mqtt;
+
+/**
+ * 하나의 토픽 필터에 바인딩되는 MQTT 메시지 처리기.
+ * 이 인터페이스를 구현한 Spring 빈은 MqttTopicRouter에 자동으로 등록되고, 토픽 필터는 자동으로 구독됩니다.
+ * 새 생산 라인이나 토픽은 처리기 빈을 추가하는 것만으로 연결할 수 있습니다.
+ * @param <T> 페이로드 타입 (JSON 역직렬화 대상, String이면 UTF-8 원문 그대로 전달)
+ */
+public interface MqttTopicHandler<T> {
+
+    /**
+     * 구독할 토픽 필터. MQTT 와일드카드('+': 한 단계, '#': 하위 전체)를 사용할 수 있습니다.
+     */
+    String topicFilter();
+
+    /**
+     * 페이로드를 역직렬화할 타입. 라우터가 이 타입으로 ObjectReader를 미리 만들어 둡니다.
+     */
+    Class<T> payloadType();
+
+    /**
+     * 역직렬화된 페이로드를 처리합니다. 같은 토픽의 메시지는 도착 순서대로 호출됩니다.
+     * @param topic 메시지가 실제로 발행된 토픽 (와일드카드 필터라면 구체적인 토픽)
+     * @param payload 역직렬화된 페이로드
+     * @throws Exception 처리 중 발생한 예외 (라우터가 오류 카운터를 올리고 onError를 호출)
+     */
+    void handle(String topic, T payload) throws Exception;
+
+    /**
+     * 페이로드 파싱 또는 처리 중 예외가 발생했을 때 호출됩니다. 기본 구현은 아무것도 하지 않습니다.
+     */
+    default void onError(String topic, Exception e) {
+    }
+
+    /**
+     * 구독 QoS. 기본값은 1입니다.
+     */
+    default int qos() {
+        return 1;
+    }
+
+    /**
+     * 메트릭 태그 등에 쓰이는 처리기 이름. 기본값은 클래스 이름입니다.
+     */
+    default String name() {
+        return getClass().getSimpleName();
+    }
+}
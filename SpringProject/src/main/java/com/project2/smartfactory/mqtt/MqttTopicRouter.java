@@ -0,0 +1,164 @@
+package com.project2.smartfactory.mqtt;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.paho.client.mqttv3.MqttMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * MqttTopicHandler 빈들을 토픽 필터로 색인하여 수신 메시지를 알맞은 처리기로 보내는 라우터.
+ * - 와일드카드가 없는 필터는 HashMap으로, 와일드카드 필터는 TopicFilterTrie로 찾습니다.
+ * - 한 번 찾은 토픽의 처리기 목록은 캐시하므로 이후 조회는 HashMap 한 번입니다.
+ * - 처리기마다 페이로드 타입용 ObjectReader(스레드 안전, 재사용)를 미리 만들어 두고,
+ *   페이로드 byte[]에서 String 복사나 JsonNode 트리 없이 바로 레코드로 역직렬화합니다.
+ * - 처리기별 처리 건수와 오류 건수를 메트릭으로 노출합니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class MqttTopicRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(MqttTopicRouter.class);
+
+    // 와일드카드 필터로 인해 토픽 종류가 많아져도 캐시가 끝없이 커지지 않도록 제한
+    private static final int MAX_CACHED_TOPICS = 1024;
+
+    private final List<MqttTopicHandler<?>> handlers;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, List<Route>> exactRoutes = new HashMap<>();
+    private final TopicFilterTrie<Route> wildcardRoutes = new TopicFilterTrie<>();
+    private final Map<String, List<Route>> resolvedRoutes = new ConcurrentHashMap<>();
+    private final Map<String, Integer> subscriptions = new LinkedHashMap<>();
+
+    // 처리기 하나와 그 처리기의 역직렬화기, 메트릭
+    private static final class Route {
+        private final MqttTopicHandler<Object> handler;
+        private final ObjectReader reader; // payloadType이 String이면 null
+        private final Counter messageCounter;
+        private final Counter parseErrorCounter;
+        private final Counter handleErrorCounter;
+
+        private Route(MqttTopicHandler<Object> handler, ObjectReader reader, MeterRegistry meterRegistry) {
+            this.handler = handler;
+            this.reader = reader;
+            this.messageCounter = Counter.builder("mqtt.handler.messages")
+                    .description("처리기가 처리한 메시지 수")
+                    .tag("handler", handler.name())
+                    .register(meterRegistry);
+            this.parseErrorCounter = Counter.builder("mqtt.handler.errors")
+                    .description("처리기별 페이로드 파싱/처리 오류 수")
+                    .tag("handler", handler.name())
+                    .tag("stage", "parse")
+                    .register(meterRegistry);
+            this.handleErrorCounter = Counter.builder("mqtt.handler.errors")
+                    .description("처리기별 페이로드 파싱/처리 오류 수")
+                    .tag("handler", handler.name())
+                    .tag("stage", "handle")
+                    .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    @SuppressWarnings("unchecked")
+    public void init() {
+        for (MqttTopicHandler<?> h : handlers) {
+            MqttTopicHandler<Object> handler = (MqttTopicHandler<Object>) h;
+            String filter = handler.topicFilter();
+            ObjectReader reader = String.class.equals(handler.payloadType()) ? null : objectMapper.readerFor(handler.payloadType());
+            Route route = new Route(handler, reader, meterRegistry);
+
+            if (filter.contains("+") || filter.contains("#")) {
+                wildcardRoutes.add(filter, route);
+            } else {
+                exactRoutes.computeIfAbsent(filter, key -> new ArrayList<>(1)).add(route);
+            }
+            subscriptions.merge(filter, handler.qos(), Math::max);
+            logger.info("MQTT topic handler registered: {} -> {} ({})", filter, handler.name(), handler.payloadType().getSimpleName());
+        }
+    }
+
+    /**
+     * 구독할 토픽 필터와 QoS. 같은 필터에 처리기가 여럿이면 가장 높은 QoS를 사용합니다.
+     */
+    public Map<String, Integer> getSubscriptions() {
+        return Collections.unmodifiableMap(subscriptions);
+    }
+
+    /**
+     * 토픽에 일치하는 모든 처리기로 메시지를 보냅니다.
+     * 한 처리기의 오류는 해당 처리기의 onError로 전달되며 다른 처리기의 실행을 막지 않습니다.
+     * @return 일치하는 처리기가 하나라도 있으면 true
+     */
+    public boolean route(String topic, MqttMessage message) {
+        List<Route> routes = resolve(topic);
+        if (routes.isEmpty()) {
+            return false;
+        }
+        byte[] payload = message.getPayload();
+        for (Route route : routes) {
+            deliver(route, topic, payload);
+        }
+        return true;
+    }
+
+    private void deliver(Route route, String topic, byte[] payload) {
+        route.messageCounter.increment();
+        Object value;
+        try {
+            value = route.reader == null ? new String(payload, StandardCharsets.UTF_8) : route.reader.readValue(payload);
+        } catch (Exception e) {
+            route.parseErrorCounter.increment();
+            logger.error("Error parsing MQTT payload for {} on topic {}: {}", route.handler.name(), topic, e.getMessage(), e);
+            if (logger.isDebugEnabled()) { // 원문 문자열은 디버그 로그가 켜져 있을 때만 만듦
+                logger.debug("Unparsable MQTT payload on topic {}: {}", topic, new String(payload, StandardCharsets.UTF_8));
+            }
+            route.handler.onError(topic, e);
+            return;
+        }
+        try {
+            route.handler.handle(topic, value);
+        } catch (Exception e) {
+            route.handleErrorCounter.increment();
+            logger.error("Error in MQTT handler {} on topic {}: {}", route.handler.name(), topic, e.getMessage(), e);
+            route.handler.onError(topic, e);
+        }
+    }
+
+    private List<Route> resolve(String topic) {
+        List<Route> cached = resolvedRoutes.get(topic);
+        if (cached != null) {
+            return cached;
+        }
+        List<Route> exact = exactRoutes.getOrDefault(topic, List.of());
+        List<Route> routes;
+        if (wildcardRoutes.isEmpty()) {
+            routes = exact;
+        } else {
+            routes = new ArrayList<>(exact);
+            routes.addAll(wildcardRoutes.match(topic));
+            routes = List.copyOf(routes);
+        }
+        if (resolvedRoutes.size() < MAX_CACHED_TOPICS) {
+            resolvedRoutes.put(topic, routes);
+        }
+        return routes;
+    }
+}
@@ -0,0 +1,385 @@
+package com.project2.smartfactory.mqtt;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 컨베이어 벨트/스크립트 제어 명령을 위한 파일 기반 발행 대기열.
+ * - 명령은 순번(seq)과 함께 추가 전용 로그 파일에 기록된 뒤 전송되므로, 브로커 장애나 애플리케이션 재시작에도 사라지지 않습니다.
+ * - 전송 스레드 하나가 순번 순서대로 발행하며, 브로커 전달이 확인되면 완료 기록을 남깁니다. 연결이 끊기면 재연결 시 이어서 보냅니다.
+ * - 같은 토픽에 새 명령이 들어오면 아직 보내지 못한 이전 명령은 의미가 없으므로 폐기합니다 (예: STOP 이후의 오래된 START).
+ *   mqtt.outbound.command-ttl-ms보다 오래된 명령도 보내지 않고 폐기합니다.
+ * - 요청 스레드는 파일에 쓰기만 하고, fsync는 별도 스레드가 mqtt.outbound.fsync-interval-ms마다 모아서 수행합니다.
+ *
+ * 로그 한 줄의 형식 ('|' 구분):
+ *   E|seq|생성시각(ms)|qos|payload(base64)|topic  명령 추가
+ *   A|seq                                        전달 완료
+ *   X|seq                                        폐기 (새 명령으로 대체 또는 만료)
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboundCommandQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboundCommandQueue.class);
+
+    // 완료/폐기 기록이 이만큼 쌓이면 남은 명령만으로 로그 파일을 다시 씀
+    private static final int COMPACT_THRESHOLD = 1000;
+
+    private final MqttPublisherService mqttPublisherService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${mqtt.outbound.queue-file:data/mqtt-outbound-commands.log}")
+    private String queueFile;
+
+    @Value("${mqtt.outbound.command-ttl-ms:300000}")
+    private long commandTtlMs;
+
+    @Value("${mqtt.outbound.fsync-interval-ms:50}")
+    private long fsyncIntervalMs;
+
+    @Value("${mqtt.outbound.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    // 대기 중인 명령 한 건
+    private record Command(long seq, long createdAt, int qos, String topic, String payload) {
+    }
+
+    private final ConcurrentSkipListMap<Long, Command> pending = new ConcurrentSkipListMap<>();
+    private final Map<Long, Runnable> deliveryListeners = new ConcurrentHashMap<>(); // 메모리에만 유지 (재시작 후 복원된 명령에는 없음)
+    private final AtomicLong sequence = new AtomicLong();
+    private final BlockingQueue<Boolean> wakeups = new LinkedBlockingQueue<>(1);
+    private final Object fileLock = new Object();
+
+    private Path path;
+    private FileChannel channel; // fileLock으로 보호
+    private boolean dirty; // fileLock으로 보호 (마지막 fsync 이후 기록이 있는지)
+    private int completedSinceCompact; // fileLock으로 보호
+    private long inFlightSeq; // fileLock으로 보호 (전송 스레드가 발행 중인 명령의 순번, 0이면 없음)
+
+    private volatile boolean running;
+    private Thread sender;
+    private ScheduledExecutorService fsyncScheduler;
+
+    private Counter deliveredCounter;
+    private Counter supersededCounter;
+    private Counter expiredCounter;
+
+    @PostConstruct
+    public void start() throws IOException {
+        path = Paths.get(queueFile).toAbsolutePath();
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        recover();
+
+        Gauge.builder("mqtt.outbound.pending", pending, Map::size)
+                .description("브로커 전달을 기다리는 제어 명령 수")
+                .register(meterRegistry);
+        deliveredCounter = Counter.builder("mqtt.outbound.delivered")
+                .description("브로커에 전달된 제어 명령 수")
+                .register(meterRegistry);
+        supersededCounter = Counter.builder("mqtt.outbound.expired")
+                .description("보내지 않고 폐기된 제어 명령 수")
+                .tag("reason", "superseded")
+                .register(meterRegistry);
+        expiredCounter = Counter.builder("mqtt.outbound.expired")
+                .description("보내지 않고 폐기된 제어 명령 수")
+                .tag("reason", "ttl")
+                .register(meterRegistry);
+
+        running = true;
+        fsyncScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "mqtt-outbound-fsync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        fsyncScheduler.scheduleWithFixedDelay(this::syncAndCompact, fsyncIntervalMs, fsyncIntervalMs, TimeUnit.MILLISECONDS);
+
+        sender = new Thread(this::sendLoop, "mqtt-outbound-sender");
+        sender.setDaemon(true);
+        sender.start();
+
+        mqttPublisherService.addConnectListener(this::wakeUp);
+        logger.info("MQTT outbound command queue started: file={}, pending={}", path, pending.size());
+    }
+
+    /**
+     * 제어 명령을 대기열에 넣습니다. 파일에 기록된 뒤 반환되며, 실제 발행은 전송 스레드가 수행합니다.
+     * 같은 토픽에서 아직 보내지 못한 이전 명령은 폐기됩니다.
+     * @return 명령의 순번
+     * @throws UncheckedIOException 대기열 파일에 기록하지 못한 경우
+     */
+    public long submit(String topic, String payload, int qos) {
+        return submit(topic, payload, qos, null);
+    }
+
+    /**
+     * 제어 명령을 대기열에 넣고, 브로커 전달이 확인되면 전송 스레드에서 onDelivered를 호출합니다.
+     * 폐기된 명령에는 호출하지 않습니다.
+     * @param onDelivered 전달 확인 시 호출할 콜백 (null이면 없음)
+     * @return 명령의 순번
+     * @throws UncheckedIOException 대기열 파일에 기록하지 못한 경우
+     */
+    public long submit(String topic, String payload, int qos, Runnable onDelivered) {
+        Command command;
+        synchronized (fileLock) {
+            command = new Command(sequence.incrementAndGet(), System.currentTimeMillis(), qos, topic, payload);
+            append(encode(command));
+            if (onDelivered != null) {
+                deliveryListeners.put(command.seq(), onDelivered);
+            }
+            pending.put(command.seq(), command);
+        }
+        // 같은 토픽의 이전 명령 폐기 (전송 중인 명령은 이미 브로커로 나갔을 수 있으므로 그대로 둠)
+        for (Command older : pending.headMap(command.seq()).values()) {
+            if (older.topic().equals(topic) && supersede(older)) {
+                supersededCounter.increment();
+                logger.info("Outbound command #{} ({} on {}) superseded by #{}.", older.seq(), older.payload(), topic, command.seq());
+            }
+        }
+        wakeUp();
+        return command.seq();
+    }
+
+    /**
+     * 대기 중인 명령 수를 반환합니다.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private void wakeUp() {
+        wakeups.offer(Boolean.TRUE);
+    }
+
+    private void sendLoop() {
+        while (running) {
+            try {
+                wakeups.poll(1, TimeUnit.SECONDS); // 새 명령, 재연결 또는 주기적 재시도
+                drain();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Error while sending outbound MQTT commands: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    // 순번 순서대로 하나씩 발행하고, 실패하면 다음 깨움까지 기다림. 연결이 끊겨 있으면 재연결 알림을 기다림
+    private void drain() throws InterruptedException {
+        Map.Entry<Long, Command> head;
+        while (running && (head = pending.firstEntry()) != null) {
+            Command command = head.getValue();
+            if (System.currentTimeMillis() - command.createdAt() > commandTtlMs) {
+                if (complete(command, 'X')) {
+                    expiredCounter.increment();
+                    logger.warn("Outbound command #{} ({} on {}) expired before delivery.", command.seq(), command.payload(), command.topic());
+                }
+                continue;
+            }
+            if (!mqttPublisherService.isConnected()) {
+                return;
+            }
+            if (!beginSend(command)) {
+                continue; // 그 사이 새 명령으로 대체됨
+            }
+            try {
+                try {
+                    mqttPublisherService.publishMessage(command.topic(), command.payload(), command.qos(), false)
+                            .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                } catch (ExecutionException | TimeoutException e) {
+                    logger.debug("Outbound command #{} not delivered yet: {}", command.seq(), e.getMessage());
+                    return;
+                }
+                Runnable listener = deliveryListeners.get(command.seq());
+                if (complete(command, 'A')) {
+                    deliveredCounter.increment();
+                    if (listener != null) {
+                        listener.run();
+                    }
+                }
+            } finally {
+                synchronized (fileLock) {
+                    inFlightSeq = 0;
+                }
+            }
+        }
+    }
+
+    // 아직 대기 중인 명령이면 발행 중으로 표시해, 발행이 끝날 때까지 새 명령이 폐기하지 못하게 함
+    private boolean beginSend(Command command) {
+        synchronized (fileLock) {
+            if (!pending.containsKey(command.seq())) {
+                return false;
+            }
+            inFlightSeq = command.seq();
+            return true;
+        }
+    }
+
+    // 새 명령으로 대체된 이전 명령을 폐기. 발행 중인 명령은 이미 브로커로 나갔을 수 있으므로 폐기하지 않음
+    private boolean supersede(Command command) {
+        synchronized (fileLock) {
+            return command.seq() != inFlightSeq && complete(command, 'X');
+        }
+    }
+
+    // 대기 목록에서 빼고 완료/폐기 기록을 남김. 이미 빠진 명령이면 false
+    private boolean complete(Command command, char type) {
+        synchronized (fileLock) {
+            if (pending.remove(command.seq()) == null) {
+                return false;
+            }
+            deliveryListeners.remove(command.seq());
+            append(type + "|" + command.seq());
+            completedSinceCompact++;
+            return true;
+        }
+    }
+
+    private static String encode(Command command) {
+        String encodedPayload = Base64.getEncoder().encodeToString(command.payload().getBytes(StandardCharsets.UTF_8));
+        return "E|" + command.seq() + "|" + command.createdAt() + "|" + command.qos() + "|" + encodedPayload + "|" + command.topic();
+    }
+
+    // fileLock을 잡은 상태에서 호출
+    private void append(String line) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            dirty = true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write outbound command queue: " + path, e);
+        }
+    }
+
+    // fsync 스레드: 쌓인 기록을 한 번에 디스크에 반영하고, 필요하면 로그 파일을 압축
+    private void syncAndCompact() {
+        synchronized (fileLock) {
+            try {
+                if (dirty) {
+                    channel.force(false);
+                    dirty = false;
+                }
+                if (completedSinceCompact >= COMPACT_THRESHOLD) {
+                    compact();
+                }
+            } catch (IOException e) {
+                logger.error("Failed to sync outbound command queue {}: {}", path, e.getMessage(), e);
+            }
+        }
+    }
+
+    // 시작 시: 로그를 읽어 아직 끝나지 않은 명령을 복원하고, 남은 명령만으로 파일을 다시 씀
+    private void recover() throws IOException {
+        long maxSeq = 0;
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    try {
+                        String[] fields = line.split("\\|", 6);
+                        long seq = Long.parseLong(fields[1]);
+                        maxSeq = Math.max(maxSeq, seq);
+                        if (fields[0].equals("E")) {
+                            String payload = new String(Base64.getDecoder().decode(fields[4]), StandardCharsets.UTF_8);
+                            pending.put(seq, new Command(seq, Long.parseLong(fields[2]), Integer.parseInt(fields[3]), fields[5], payload));
+                        } else {
+                            pending.remove(seq);
+                        }
+                    } catch (RuntimeException e) { // 기록 중 종료되어 잘린 마지막 줄 등
+                        logger.warn("Skipping malformed outbound queue record: {}", line);
+                    }
+                }
+            }
+        }
+        sequence.set(maxSeq);
+        synchronized (fileLock) {
+            compact();
+        }
+        if (!pending.isEmpty()) {
+            logger.info("Recovered {} undelivered outbound MQTT commands from {}", pending.size(), path);
+        }
+    }
+
+    // fileLock을 잡은 상태에서 호출. 임시 파일에 남은 명령을 쓰고 fsync한 뒤 원자적으로 교체
+    private void compact() throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            StringBuilder sb = new StringBuilder();
+            for (Command command : pending.values()) {
+                sb.append(encode(command)).append('\n');
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        if (channel != null) {
+            channel.close();
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        dirty = false;
+        completedSinceCompact = 0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (sender != null) {
+            sender.interrupt();
+        }
+        if (fsyncScheduler != null) {
+            fsyncScheduler.shutdownNow();
+        }
+        synchronized (fileLock) {
+            try {
+                if (channel != null) {
+                    channel.force(false);
+                    channel.close();
+                }
+            } catch (IOException e) {
+                logger.error("Failed to close outbound command queue {}: {}", path, e.getMessage(), e);
+            }
+        }
+        logger.info("MQTT outbound command queue stopped with {} pending commands.", pending.size());
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import lombok.RequiredArgsConstructor;
@@ -16,8 +17,10 @@ import lombok.RequiredArgsConstructor;
 @RequestMapping("/api")
 public class ScriptControlController {
 
-    private final MqttPublisherService mqttPublisherService;
+    private final DeviceStatusService deviceStatusService;
     private final MqttSubscriberService mqttSubscriberService;
+    private final OutboundCommandQueue outboundCommandQueue;
+    private final DeviceStateMachine deviceStateMachine;
 
     // application.properties 또는 application.yml에서 명령 토픽 주입
     @Value("${mqtt.topic.script.command}")
@@ -34,8 +37,10 @@ public class ScriptControlController {
         System.out.println("웹 요청: 스크립트 시작 명령 수신");
         try {
             // MQTT Publisher 서비스를 사용하여 명령 토픽으로 "START" 메시지 발행
-            mqttPublisherService.publishMessage(commandTopic, "START", 2, false); // QoS 1, Retained false
-            mqttSubscriberService.userRequest("Script", "on");
+            // 파일 기반 발행 대기열에 넣으면 바로 반환 (QoS 2). 브로커가 끊겨 있으면 재연결 후 순서대로 전송됨
+            // 대기열에 넣기 전에 명령을 기록해야 전달 알림을 놓치지 않음. 브로커 전달 이후의 첫 상태 응답을 이 명령의 결과로 매칭
+            long commandId = deviceStateMachine.commandIssued(DeviceStatusService.Device.SCRIPT, "on");
+            outboundCommandQueue.submit(commandTopic, "START", 2, () -> deviceStateMachine.commandDelivered(DeviceStatusService.Device.SCRIPT, commandId));
             return ResponseEntity.ok("스크립트 시작 명령 발행 성공");
         } catch (Exception e) {
             System.err.println("스크립트 시작 명령 발행 중 오류: " + e.getMessage());
@@ -53,8 +58,10 @@ public class ScriptControlController {
         System.out.println("웹 요청: 스크립트 중지 명령 수신");
         try {
             // MQTT Publisher 서비스를 사용하여 명령 토픽으로 "STOP" 메시지 발행
-            mqttPublisherService.publishMessage(commandTopic, "STOP", 2, false); // QoS 1, Retained false
-            mqttSubscriberService.userRequest("Script", "off");
+            // 파일 기반 발행 대기열에 넣으면 바로 반환 (QoS 2). 브로커가 끊겨 있으면 재연결 후 순서대로 전송됨
+            // 대기열에 넣기 전에 명령을 기록해야 전달 알림을 놓치지 않음. 브로커 전달 이후의 첫 상태 응답을 이 명령의 결과로 매칭
+            long commandId = deviceStateMachine.commandIssued(DeviceStatusService.Device.SCRIPT, "off");
+            outboundCommandQueue.submit(commandTopic, "STOP", 2, () -> deviceStateMachine.commandDelivered(DeviceStatusService.Device.SCRIPT, commandId));
             return ResponseEntity.ok("스크립트 중지 명령 발행 성공");
         } catch (Exception e) {
             System.err.println("스크립트 중지 명령 발행 중 오류: " + e.getMessage());
@@ -65,14 +72,17 @@ public class ScriptControlController {
     /**
      * 현재 스크립트 상태를 반환하는 엔드포인트.
      * defects.html의 SCRIPT_STATUS_API_URL에 해당합니다.
+     * @param waitMs 캐시가 오래되었을 때 새 응답을 기다릴 최대 시간(ms). 0이면 기다리지 않음
      * @return 현재 스크립트 상태 문자열
      */
     @GetMapping("/status/script")
-    public ResponseEntity<String> getScriptStatus() {
+    public ResponseEntity<String> getScriptStatus(@RequestParam(name = "waitMs", defaultValue = "0") long waitMs) {
         // System.out.println("웹 요청: 스크립트 상태 조회 수신");
-        // MQTT Status Subscriber로부터 현재 상태 가져와서 반환
-        mqttPublisherService.publishMessage(commandTopic, "STATUS_REQUEST", 2, false);
-        String status = mqttSubscriberService.getCurrentScriptStatus();
+        // 캐시가 유효하면 MQTT 요청 없이 반환하고, 오래되었으면 상태 요청을 한 번만 발행 (동시 조회는 같은 요청 공유)
+        String status = deviceStatusService.getStatus(DeviceStatusService.Device.SCRIPT, waitMs);
+        if (!mqttSubscriberService.isConnected()) {
+            status = "MQTT Disconnected / " + status; // 연결 끊김 상태도 함께 표시
+        }
         System.out.println("현재 스크립트 상태: " + status);
         return ResponseEntity.ok(status);
 
@@ -0,0 +1,107 @@
+package com.project2.smartfactory.mqtt;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.project2.smartfactory.control_panel.ControlLog;
+import com.project2.smartfactory.control_panel.ControlLogWriter;
+import com.project2.smartfactory.notification.Notification;
+import com.project2.smartfactory.notification.NotificationService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 불량 감지(Python) 스크립트 상태 토픽(apple_defect/controller_status) 처리기.
+ * 상태를 DeviceStateMachine에 반영하고, 사용자 명령의 결과나 상태 변화를 제어 로그와 알림으로 남깁니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class ScriptStatusHandler implements MqttTopicHandler<StatusPayload> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScriptStatusHandler.class);
+
+    private final NotificationService notificationService;
+    private final ControlLogWriter controlLogWriter;
+    private final DeviceStatusService deviceStatusService;
+    private final DeviceStateMachine deviceStateMachine;
+
+    @Value("${mqtt.topic.script.status}") // Python 스크립트 상태 토픽
+    private String scriptStatusTopic;
+
+    @Override
+    public String topicFilter() {
+        return scriptStatusTopic;
+    }
+
+    @Override
+    public Class<StatusPayload> payloadType() {
+        return StatusPayload.class;
+    }
+
+    @Override
+    public void handle(String topic, StatusPayload payload) {
+        String status = payload.status();
+        String msgContent = payload.message();
+
+        // 상태 머신에 반영하고, 응답을 기다리던 사용자 명령이 있으면 그 결과로 매칭
+        DeviceStateMachine.Transition transition = deviceStateMachine.onStatus(DeviceStatusService.Device.SCRIPT, status);
+        String currentStatus = transition.previousStatus();
+
+        String controlType = "";
+        String controlData = "";
+        String controlResult = "";
+        boolean logFlag = false;
+
+        // 사용자 요청 처리 로직 (status와 msgContent 활용)
+        if (transition.command() != null) {
+            controlType = "User Request";
+            controlData = transition.command().action().equals("on") ? "Script On" : "Script Off";
+            logFlag = true;
+        } else {
+            controlType = "Script Check";
+            if (!currentStatus.equals("Default") && !currentStatus.equals("Initialized") && !status.equals(currentStatus)) {
+                controlData = "Change Detected";
+                logFlag = true;
+            } else if (status.equalsIgnoreCase("Unknown") && !currentStatus.equalsIgnoreCase("Unknown")) {
+                controlData = "Error Detected";
+                controlResult = status;
+                logFlag = true;
+            }
+        }
+
+        if (logFlag) {
+            // status를 기반으로 controlResult를 기록하고, message를 메모로 활용합니다.
+            ControlLog controlLog = new ControlLog(controlType, controlData, (controlResult.equals("") ? currentStatus + "→" + status : controlResult), msgContent);
+            controlLogWriter.append(controlLog); // 작업 스레드에서 DB를 기다리지 않고 배치 writer에 넘김
+        }
+        deviceStatusService.onStatus(DeviceStatusService.Device.SCRIPT, status);
+        logger.info("Script Status: {}, Message: {}", status, msgContent);
+
+        // 알림 로직 (status와 msgContent 활용)
+        if (status.equalsIgnoreCase("Already Running")) {
+            notificationService.saveNotification(Notification.NotificationType.DEFECT_MODULE, "불량 감지 모듈", "불량 감지 모듈이 이미 실행중입니다.");
+        } else if (status.equalsIgnoreCase("Stopped (Forced)")) {
+            notificationService.saveNotification(Notification.NotificationType.DEFECT_MODULE, "불량 감지 모듈", "불량 감지 모듈이 강제 중지되었습니다.");
+        } else if (status.equalsIgnoreCase("Not Running")) {
+            notificationService.saveNotification(Notification.NotificationType.DEFECT_MODULE, "불량 감지 모듈", "불량 감지 모듈이 실행중이 아니거나 이미 중지되었습니다.");
+        } else if (status.equalsIgnoreCase("Error")) {
+            notificationService.saveNotification(Notification.NotificationType.ERROR, "불량 감지 모듈 오류", "불량 감지 모듈 오류 발생: " + msgContent);
+        } else if (status.equalsIgnoreCase("Initialized")) {
+            notificationService.saveNotification(Notification.NotificationType.INFO, "불량 감지 모듈", "불량 감지 모듈 제어 시스템 연결됨.");
+        } else if (status.equalsIgnoreCase("Unknown Command")) {
+            notificationService.saveNotification(Notification.NotificationType.WARNING, "불량 감지 모듈", "알 수 없는 제어 명령 수신: " + msgContent);
+        } else if (status.equalsIgnoreCase("Warning")) {
+            notificationService.saveNotification(Notification.NotificationType.WARNING, "불량 감지 모듈 경고", "불량 감지 모듈 경고: " + msgContent);
+        } else if (!status.equalsIgnoreCase("Stopped") && !status.equalsIgnoreCase("Started") && !status.equalsIgnoreCase("Running")) {
+            logger.warn("Unknown defect module status: {}", status);
+            notificationService.saveNotification(Notification.NotificationType.WARNING, "불량 감지 모듈", "알 수 없는 불량 감지 모듈 상태: " + status + " (" + msgContent + ")");
+        }
+    }
+
+    @Override
+    public void onError(String topic, Exception e) {
+        notificationService.saveNotification(Notification.NotificationType.ERROR, "JSON 파싱 오류", "스크립트 상태 JSON 파싱 중 오류 발생: " + e.getMessage());
+    }
+}
@@ -0,0 +1,114 @@
+package com.project2.smartfactory.mqtt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.project2.smartfactory.mqtt.DeviceStatusService.Device;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * 장비 상태 전이 이력을 메모리에 보관하는 고정 크기 링 버퍼.
+ * - 한 항목은 (시각, 장비, 상태) 세 값을 원시 타입 배열(long[], byte[], short[])에 나눠 담아 항목마다 객체를 만들지 않습니다.
+ * - 상태 문자열은 사전에 한 번만 등록하고 번호로 저장합니다 (장비 상태 종류는 수십 개 이내).
+ * - 버퍼가 가득 차면 가장 오래된 항목부터 덮어씁니다. /api/status/history는 DB 조회 없이 여기서 응답합니다.
+ */
+@Component
+public class StatusHistory {
+
+    // 사전에 등록할 상태 문자열 최대 개수. 넘으면 OTHER_STATUS로 기록
+    private static final int MAX_STATUSES = 256;
+    private static final String OTHER_STATUS = "Other";
+
+    @Value("${status.history.capacity:4096}")
+    private int capacity;
+
+    /**
+     * 상태 전이 이력 한 건.
+     * @param timestamp 전이 시각 (epoch ms)
+     * @param device 장비
+     * @param status 새 상태
+     */
+    public record Entry(long timestamp, Device device, String status) {
+    }
+
+    private long[] timestamps;
+    private byte[] devices;
+    private short[] statuses;
+    private long count; // 지금까지 기록된 총 항목 수 (다음 기록 위치 = count % capacity)
+
+    private final Map<String, Short> statusIds = new HashMap<>();
+    private final List<String> statusNames = new ArrayList<>();
+
+    @PostConstruct
+    public void init() {
+        timestamps = new long[capacity];
+        devices = new byte[capacity];
+        statuses = new short[capacity];
+    }
+
+    /**
+     * 상태 전이 한 건을 지금 시각으로 기록합니다.
+     * 시각을 잠금 안에서 읽어야 기록 순서와 시각 순서가 같아지고, recent()가 since보다 과거인 첫 항목에서 멈출 수 있습니다.
+     */
+    public synchronized void record(Device device, String status) {
+        int slot = (int) (count % capacity);
+        timestamps[slot] = System.currentTimeMillis();
+        devices[slot] = (byte) device.ordinal();
+        statuses[slot] = statusId(status);
+        count++;
+    }
+
+    /**
+     * 최근 상태 전이 이력을 최신순으로 반환합니다.
+     * @param device 조회할 장비 (null이면 전체)
+     * @param since 이 시각(epoch ms) 이후의 항목만 (0이면 제한 없음)
+     * @param limit 최대 항목 수
+     */
+    public synchronized List<Entry> recent(Device device, long since, int limit) {
+        Device[] deviceValues = Device.values();
+        long oldest = Math.max(0, count - capacity);
+        List<Entry> entries = new ArrayList<>(Math.min(limit, (int) (count - oldest)));
+        for (long i = count - 1; i >= oldest && entries.size() < limit; i--) {
+            int slot = (int) (i % capacity);
+            if (timestamps[slot] < since) {
+                break; // 기록 순서 = 시각 순서이므로 더 과거 항목은 볼 필요 없음
+            }
+            if (device != null && devices[slot] != device.ordinal()) {
+                continue;
+            }
+            entries.add(new Entry(timestamps[slot], deviceValues[devices[slot]], statusNames.get(statuses[slot])));
+        }
+        return entries;
+    }
+
+    /**
+     * 버퍼 크기(보관 가능한 최대 항목 수)를 반환합니다.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    private short statusId(String status) {
+        Short id = statusIds.get(status);
+        if (id != null) {
+            return id;
+        }
+        if (statusNames.size() >= MAX_STATUSES - 1) {
+            status = OTHER_STATUS;
+            id = statusIds.get(status);
+            if (id != null) {
+                return id;
+            }
+        }
+        short next = (short) statusNames.size();
+        statusIds.put(status, next);
+        statusNames.add(status);
+        return next;
+    }
+}
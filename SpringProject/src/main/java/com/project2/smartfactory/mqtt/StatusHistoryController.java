@@ -0,0 +1,47 @@
+package com.project2.smartfactory.mqtt;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 장비 상태 전이 이력 API. 메모리 링 버퍼(StatusHistory)에서 바로 응답하므로 DB를 조회하지 않습니다.
+ */
+@RestController
+@RequestMapping("/api/status")
+@RequiredArgsConstructor
+public class StatusHistoryController {
+
+    private final StatusHistory statusHistory;
+
+    /**
+     * 최근 상태 전이 이력을 최신순으로 반환합니다.
+     * 예: /api/status/history?device=SYSTEM&limit=20
+     * @param device 장비 (SCRIPT 또는 SYSTEM, 생략하면 전체)
+     * @param since 이 시각(epoch ms) 이후의 전이만 반환
+     * @param limit 최대 항목 수 (버퍼 크기로 제한)
+     * @return 상태 전이 이력, 장비 이름이 잘못되면 400
+     */
+    @GetMapping("/history")
+    public ResponseEntity<List<StatusHistory.Entry>> getStatusHistory(
+            @RequestParam(name = "device", required = false) String device,
+            @RequestParam(name = "since", defaultValue = "0") long since,
+            @RequestParam(name = "limit", defaultValue = "100") int limit) {
+        DeviceStatusService.Device target = null;
+        if (device != null && !device.isBlank()) {
+            try {
+                target = DeviceStatusService.Device.valueOf(device.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        int boundedLimit = Math.max(1, Math.min(limit, statusHistory.getCapacity()));
+        return ResponseEntity.ok(statusHistory.recent(target, since, boundedLimit));
+    }
+}
@@ -0,0 +1,20 @@
+package com.project2.smartfactory.mqtt;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * 스크립트 상태(apple_defect/controller_status), 시스템 상태(control_panel/system_status) 토픽의 JSON 페이로드.
+ * 페이로드 byte[]에서 바로 역직렬화되며, 없거나 null인 필드는 기본값으로 채워집니다.
+ * @param status 상태 (없으면 "UNKNOWN")
+ * @param message 상태 설명 (없으면 빈 문자열)
+ * @param timestamp 발행 시각 문자열 (스크립트 상태에만 포함)
+ * @param pid 프로세스 ID (시스템 상태에만 포함)
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record StatusPayload(String status, String message, String timestamp, Integer pid) {
+
+    public StatusPayload {
+        status = status != null ? status : "UNKNOWN";
+        message = message != null ? message : "";
+    }
+}
@@ -1,10 +1,12 @@
 package com.project2.smartfactory.mqtt;
+
 import org.eclipse.paho.client.mqttv3.MqttClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.project2.smartfactory.control_panel.ControlLogRepository;
@@ -15,8 +17,10 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @RequestMapping("/api")
 public class SystemControlController {
-  private final MqttPublisherService mqttPublisherService;
+  private final DeviceStatusService deviceStatusService;
   private final MqttSubscriberService mqttSubscriberService;
+  private final OutboundCommandQueue outboundCommandQueue;
+  private final DeviceStateMachine deviceStateMachine;
 
   private final ControlLogRepository controlLogRepository;
 
@@ -36,8 +40,10 @@ public class SystemControlController {
         System.out.println("웹 요청: 시스템 시작 명령 수신");
         try {
             // MQTT Publisher 서비스를 사용하여 명령 토픽으로 "START" 메시지 발행
-            mqttPublisherService.publishMessage(commandTopic, "START", 1, false); // QoS 1, Retained false
-            mqttSubscriberService.userRequest("System", "on");
+            // 파일 기반 발행 대기열에 넣으면 바로 반환 (QoS 1). 브로커가 끊겨 있으면 재연결 후 순서대로 전송됨
+            // 대기열에 넣기 전에 명령을 기록해야 전달 알림을 놓치지 않음. 브로커 전달 이후의 첫 상태 응답을 이 명령의 결과로 매칭
+            long commandId = deviceStateMachine.commandIssued(DeviceStatusService.Device.SYSTEM, "on");
+            outboundCommandQueue.submit(commandTopic, "START", 1, () -> deviceStateMachine.commandDelivered(DeviceStatusService.Device.SYSTEM, commandId));
             // mqttPublisherService.publishMessage(commandTopic, "status_request", 2, false);
             
             return ResponseEntity.ok("시스템 시작 명령 발행 성공");
@@ -57,8 +63,10 @@ public class SystemControlController {
         System.out.println("웹 요청: 시스템 중지 명령 수신");
          try {
             // MQTT Publisher 서비스를 사용하여 명령 토픽으로 "STOP" 메시지 발행
-            mqttPublisherService.publishMessage(commandTopic, "STOP", 1, false); // QoS 1, Retained false
-            mqttSubscriberService.userRequest("System", "off");
+            // 파일 기반 발행 대기열에 넣으면 바로 반환 (QoS 1). 브로커가 끊겨 있으면 재연결 후 순서대로 전송됨
+            // 대기열에 넣기 전에 명령을 기록해야 전달 알림을 놓치지 않음. 브로커 전달 이후의 첫 상태 응답을 이 명령의 결과로 매칭
+            long commandId = deviceStateMachine.commandIssued(DeviceStatusService.Device.SYSTEM, "off");
+            outboundCommandQueue.submit(commandTopic, "STOP", 1, () -> deviceStateMachine.commandDelivered(DeviceStatusService.Device.SYSTEM, commandId));
             // mqttPublisherService.publishMessage(commandTopic, "status_request", 2, false);
 
             return ResponseEntity.ok("시스템 중지 명령 발행 성공");
@@ -71,14 +79,17 @@ public class SystemControlController {
     /**
      * 현재 스크립트 상태를 반환하는 엔드포인트.
      * defects.html의 SCRIPT_STATUS_API_URL에 해당합니다.
-     * @return 현재 스크립트 상태 문자열
+     * @param waitMs 캐시가 오래되었을 때 새 응답을 기다릴 최대 시간(ms). 0이면 기다리지 않음
+     * @return 현재 시스템 상태 문자열
      */
     @GetMapping("/status/system")
-    public ResponseEntity<String> getSystemStatus() {
+    public ResponseEntity<String> getSystemStatus(@RequestParam(name = "waitMs", defaultValue = "0") long waitMs) {
         // System.out.println("웹 요청: 시스템 상태 조회 수신");
-        // MQTT Status Subscriber로부터 현재 상태 가져와서 반환
-        mqttPublisherService.publishMessage(commandTopic, "status_request", 1, false);
-        String status = mqttSubscriberService.getCurrentSystemStatus();
+        // 캐시가 유효하면 MQTT 요청 없이 반환하고, 오래되었으면 상태 요청을 한 번만 발행 (동시 조회는 같은 요청 공유)
+        String status = deviceStatusService.getStatus(DeviceStatusService.Device.SYSTEM, waitMs);
+        if (!mqttSubscriberService.isConnected()) {
+            status = "MQTT Disconnected / " + status; // 연결 끊김 상태도 함께 표시
+        }
         System.out.println("현재 시스템 상태: " + status);
         return ResponseEntity.ok(status);
     }
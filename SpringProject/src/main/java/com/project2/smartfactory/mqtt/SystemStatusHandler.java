@@ -0,0 +1,112 @@
+package com.project2.smartfactory.mqtt;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.project2.smartfactory.control_panel.ControlLog;
+import com.project2.smartfactory.control_panel.ControlLogWriter;
+import com.project2.smartfactory.notification.Notification;
+import com.project2.smartfactory.notification.NotificationService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 컨베이어 벨트 동작 시스템 상태 토픽(control_panel/system_status) 처리기.
+ * 상태를 DeviceStateMachine에 반영하고, 사용자 명령의 결과나 상태 변화를 제어 로그로 남깁니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class SystemStatusHandler implements MqttTopicHandler<StatusPayload> {
+
+    private static final Logger logger = LoggerFactory.getLogger(SystemStatusHandler.class);
+
+    private final NotificationService notificationService;
+    private final ControlLogWriter controlLogWriter;
+    private final DeviceStatusService deviceStatusService;
+    private final DeviceStateMachine deviceStateMachine;
+
+    @Value("${mqtt.topic.system.status}") // 컨베이어벨트 동작 시스템 상태 토픽
+    private String systemStatusTopic;
+
+    // 같은 상태로 반복 요청된 횟수 (작업 스레드에서만 접근)
+    private final int[] sameStateRequestCnt = {0, 0};
+
+    @Override
+    public String topicFilter() {
+        return systemStatusTopic;
+    }
+
+    @Override
+    public Class<StatusPayload> payloadType() {
+        return StatusPayload.class;
+    }
+
+    @Override
+    public void handle(String topic, StatusPayload payload) {
+        String status = payload.status();
+
+        // 상태 머신에 반영하고, 응답을 기다리던 사용자 명령이 있으면 그 결과로 매칭
+        DeviceStateMachine.Transition transition = deviceStateMachine.onStatus(DeviceStatusService.Device.SYSTEM, status);
+        String currentStatus = transition.previousStatus();
+
+        String controlType = "";
+        String controlData = "";
+        String controlResult = "";
+        String controlMemo = "";
+        boolean logFlag = false;
+
+        if (transition.command() != null && transition.command().action().equals("on")) {
+            controlType = "User Request";
+            controlData = "System On";
+            controlMemo = sameStateMemo(currentStatus.equals("running"), 0);
+            logFlag = true;
+        } else if (transition.command() != null) {
+            controlType = "User Request";
+            controlData = "System Off";
+            controlMemo = sameStateMemo(currentStatus.equals("stopped"), 1);
+            logFlag = true;
+        } else {
+            controlType = "System Check";
+            if (!currentStatus.equals("Default") && !status.equals(currentStatus)) {
+                controlData = "Change Detected";
+                logFlag = true;
+            } else if (status.equals("Unknown") && !currentStatus.equals("Unknown")) {
+                controlData = "Error Detected";
+                controlResult = status;
+                controlMemo = "상태 확인 불가";
+                logFlag = true;
+            }
+        }
+        if (logFlag) {
+            ControlLog controlLog = new ControlLog(controlType, controlData, (controlResult.equals("") ? currentStatus + "→" + status : controlResult), controlMemo);
+            controlLogWriter.append(controlLog); // 작업 스레드에서 DB를 기다리지 않고 배치 writer에 넘김
+        }
+        deviceStatusService.onStatus(DeviceStatusService.Device.SYSTEM, status);
+        logger.info("System Status: {}", status);
+
+        if (!status.equalsIgnoreCase("running") && !status.equalsIgnoreCase("stopped")) {
+            logger.warn("Unknown conveyor belt status message: {}", status);
+            notificationService.saveNotification(Notification.NotificationType.WARNING, "컨베이어 벨트", "알 수 없는 컨베이어 벨트 상태 메시지: " + status);
+        }
+    }
+
+    // 이미 요청된 상태에서 세 번째로 같은 요청이 오면 메모를 남기고 횟수를 초기화
+    private String sameStateMemo(boolean alreadyInState, int index) {
+        if (!alreadyInState) {
+            return "";
+        }
+        if (sameStateRequestCnt[index] >= 2) {
+            sameStateRequestCnt[index] = 0;
+            return "같은 상태로 요청";
+        }
+        sameStateRequestCnt[index]++;
+        return "";
+    }
+
+    @Override
+    public void onError(String topic, Exception e) {
+        notificationService.saveNotification(Notification.NotificationType.ERROR, "JSON 파싱 오류", "시스템 상태 JSON 파싱 중 오류 발생: " + e.getMessage());
+    }
+}
@@ -0,0 +1,92 @@
+package com.project2.smartfactory.mqtt;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MQTT 토픽 필터('+', '#' 와일드카드 포함)를 토픽 단계('/')별로 저장하는 트라이.
+ * 조회 비용은 등록된 필터 수가 아니라 토픽의 단계 수에 비례합니다.
+ * 등록은 시작 시 한 번만 하고 이후에는 조회만 하므로 동기화하지 않습니다.
+ * @param <V> 필터에 연결된 값
+ */
+final class TopicFilterTrie<V> {
+
+    private static final class Node<V> {
+        private final Map<String, Node<V>> children = new HashMap<>();
+        private Node<V> singleLevel; // '+'
+        private final List<V> values = new ArrayList<>(); // 이 단계에서 끝나는 필터의 값
+        private final List<V> multiLevelValues = new ArrayList<>(); // 이 단계 아래 '#'로 끝나는 필터의 값
+    }
+
+    private final Node<V> root = new Node<>();
+    private int size;
+
+    /**
+     * 토픽 필터를 등록합니다.
+     * @throws IllegalArgumentException '#'이 마지막 단계가 아니거나 와일드카드가 단계 일부에만 쓰인 경우
+     */
+    void add(String filter, V value) {
+        String[] levels = filter.split("/", -1);
+        Node<V> node = root;
+        for (int i = 0; i < levels.length; i++) {
+            String level = levels[i];
+            if (level.equals("#")) {
+                if (i != levels.length - 1) {
+                    throw new IllegalArgumentException("'#' must be the last level of a topic filter: " + filter);
+                }
+                node.multiLevelValues.add(value);
+                size++;
+                return;
+            }
+            if (level.equals("+")) {
+                if (node.singleLevel == null) {
+                    node.singleLevel = new Node<>();
+                }
+                node = node.singleLevel;
+            } else {
+                if (level.contains("+") || level.contains("#")) {
+                    throw new IllegalArgumentException("Wildcards must occupy an entire topic level: " + filter);
+                }
+                node = node.children.computeIfAbsent(level, key -> new Node<>());
+            }
+        }
+        node.values.add(value);
+        size++;
+    }
+
+    /**
+     * 토픽에 일치하는 모든 필터의 값을 반환합니다.
+     * MQTT 규칙에 따라 '$'로 시작하는 토픽은 첫 단계의 와일드카드와 일치하지 않습니다.
+     */
+    List<V> match(String topic) {
+        List<V> result = new ArrayList<>(2);
+        if (size > 0) {
+            collect(root, topic.split("/", -1), 0, !topic.startsWith("$"), result);
+        }
+        return result;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void collect(Node<V> node, String[] levels, int depth, boolean wildcardAllowed, List<V> result) {
+        // "a/#"는 "a" 자체와도 일치
+        if (wildcardAllowed) {
+            result.addAll(node.multiLevelValues);
+        }
+        if (depth == levels.length) {
+            result.addAll(node.values);
+            return;
+        }
+        Node<V> exact = node.children.get(levels[depth]);
+        if (exact != null) {
+            collect(exact, levels, depth + 1, true, result);
+        }
+        if (wildcardAllowed && node.singleLevel != null) {
+            collect(node.singleLevel, levels, depth + 1, true, result);
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.project2.smartfactory.notification;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * SSE 클라이언트로의 비동기 이벤트 전달.
+ * - 발행자는 공유 링 버퍼에 이벤트를 하나 넣고 대기 중인 전송 스레드를 깨우기만 합니다.
+ *   클라이언트 수나 특정 클라이언트의 전송 지연과 무관하게 발행 비용이 일정합니다 (MQTT 작업 스레드가 막히지 않음).
+ * - 클라이언트마다 가상 스레드 하나가 자기 위치(cursor)부터 링을 읽어 emitter.send를 호출합니다.
+ * - 클라이언트가 읽지 못한 이벤트가 client-queue-capacity를 넘으면 느린 클라이언트로 보고 연결을 끊습니다.
+ *   전송이 아예 멈춘 클라이언트는 주기 점검 작업이 같은 기준으로 찾아 끊습니다.
+ * - heartbeat-interval-ms마다 모든 클라이언트에 주석(heartbeat) 이벤트를 보내, 끊긴 연결은 쓰기 실패로 바로 드러나게 합니다.
+ *   한 번의 전송이 send-timeout-ms 넘게 끝나지 않는 클라이언트도 끊습니다.
+ * - 동시 연결 수는 max-clients로 제한합니다.
+ * - 재연결한 클라이언트에는 등록 시 받은 놓친 이벤트(replay)를 먼저 보내고, 그 뒤 링의 새 이벤트를 이어서 보냅니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationBroadcaster.class);
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notification.sse.timeout-ms:300000}")
+    private long emitterTimeoutMs;
+
+    @Value("${notification.sse.client-queue-capacity:64}")
+    private int clientQueueCapacity;
+
+    @Value("${notification.sse.buffer-size:1024}")
+    private int bufferSize;
+
+    @Value("${notification.sse.check-interval-ms:1000}")
+    private long checkIntervalMs;
+
+    @Value("${notification.sse.heartbeat-interval-ms:15000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${notification.sse.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    @Value("${notification.sse.max-clients:200}")
+    private int maxClients;
+
+    /**
+     * 클라이언트에 보낼 이벤트.
+     * @param eventId SSE id로 보낼 번호 (증가하는 값, 브라우저가 재연결 시 Last-Event-ID로 돌려줌). 없으면 0
+     * @param name SSE 이벤트 이름 (null이면 data를 주석으로 보냄, heartbeat용)
+     * @param data 전송할 데이터 (JSON으로 변환)
+     */
+    public record StreamEvent(long eventId, String name, Object data) {
+    }
+
+    private final class Client {
+        private final String id;
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamEvent> direct; // 이 클라이언트에만 보낼 이벤트
+        private final Iterator<StreamEvent> replay; // 재연결 시 먼저 보낼 놓친 이벤트
+        private final long replayedUpTo; // replay에 포함된 마지막 eventId (링에서 중복으로 만나면 건너뜀)
+        private volatile long cursor; // 마지막으로 보낸 링 위치
+        private volatile long sendStartedAt; // 진행 중인 전송의 시작 시각 (System.nanoTime(), 전송 중이 아니면 0)
+        private volatile boolean closed;
+        private Thread sender;
+
+        private Client(String id, SseEmitter emitter, long cursor, List<StreamEvent> replay) {
+            this.id = id;
+            this.emitter = emitter;
+            this.direct = new ArrayBlockingQueue<>(clientQueueCapacity);
+            this.cursor = cursor;
+            this.replay = replay.iterator();
+            this.replayedUpTo = replay.isEmpty() ? 0 : replay.get(replay.size() - 1).eventId();
+        }
+
+        private long backlog() {
+            return head - cursor + direct.size();
+        }
+    }
+
+    private StreamEvent[] ring;
+    private volatile long head; // 마지막으로 발행된 링 위치 (1부터, lock 안에서만 증가)
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+
+    private final Map<String, Client> clients = new ConcurrentHashMap<>();
+    private final AtomicInteger reservedSlots = new AtomicInteger(); // 등록 중인 클라이언트를 포함한 연결 수 (max-clients 검사용)
+    private final AtomicLong reapedTotal = new AtomicLong();
+    private ScheduledExecutorService monitor;
+
+    private Counter publishedCounter;
+    private Counter overflowEvictions;
+    private Counter errorEvictions;
+    private Counter stalledEvictions;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void init() {
+        // 링이 덮어쓰이기 전에 느린 클라이언트가 먼저 끊기도록 클라이언트 대기열보다 넉넉하게 잡음
+        ring = new StreamEvent[Math.max(bufferSize, clientQueueCapacity * 2)];
+
+        Gauge.builder("notification.sse.clients", clients, Map::size)
+                .description("연결된 SSE 클라이언트 수")
+                .register(meterRegistry);
+        Gauge.builder("notification.sse.queue.max-fill", this, NotificationBroadcaster::maxBacklog)
+                .description("클라이언트 중 가장 많이 밀린 미전송 이벤트 수")
+                .register(meterRegistry);
+        publishedCounter = Counter.builder("notification.sse.published").description("발행된 SSE 이벤트 수").register(meterRegistry);
+        overflowEvictions = Counter.builder("notification.sse.evictions").description("강제로 연결을 끊은 SSE 클라이언트 수")
+                .tag("reason", "overflow").register(meterRegistry);
+        errorEvictions = Counter.builder("notification.sse.evictions").description("강제로 연결을 끊은 SSE 클라이언트 수")
+                .tag("reason", "error").register(meterRegistry);
+        stalledEvictions = Counter.builder("notification.sse.evictions").description("강제로 연결을 끊은 SSE 클라이언트 수")
+                .tag("reason", "stalled").register(meterRegistry);
+        rejectedCounter = Counter.builder("notification.sse.rejected").description("연결 수 제한으로 거절된 SSE 연결 수").register(meterRegistry);
+        FunctionCounter.builder("notification.sse.reaped", reapedTotal, AtomicLong::get)
+                .description("기동 이후 강제로 정리된 SSE 연결 수 (느림, 쓰기 실패, 전송 멈춤)")
+                .register(meterRegistry);
+
+        monitor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sse-client-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        monitor.scheduleWithFixedDelay(this::evictStalledClients, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+        monitor.scheduleAtFixedRate(this::sendHeartbeat, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 새 SSE 클라이언트를 등록하고 전송 가상 스레드를 시작합니다. 등록 이후 발행된 이벤트부터 전달됩니다.
+     * @param clientId 클라이언트 고유 ID
+     * @return 등록된 SseEmitter, 동시 연결 수가 max-clients에 도달했으면 null
+     */
+    public SseEmitter register(String clientId) {
+        return register(clientId, List.of(), head);
+    }
+
+    /**
+     * 현재 링의 마지막 발행 위치를 반환합니다.
+     * replay를 만들기 전에 읽어 두었다가 {@link #register(String, List, long)}에 넘기면, 그 사이 발행된 이벤트도 놓치지 않습니다.
+     */
+    public long currentPosition() {
+        return head;
+    }
+
+    /**
+     * 새 SSE 클라이언트를 등록하고, 놓친 이벤트(replay)를 먼저 보낸 뒤 등록 이후 발행된 이벤트를 이어서 보냅니다.
+     * 링은 replay를 만들기 전에 읽어 둔 startCursor 다음 위치부터 읽으므로, replay를 만드는 동안 발행된 이벤트도 전달되며
+     * replay와 겹치는 이벤트는 eventId로 걸러 두 번 보내지 않습니다.
+     * @param clientId 클라이언트 고유 ID
+     * @param replay eventId 순으로 정렬된 놓친 이벤트
+     * @param startCursor replay를 만들기 전에 {@link #currentPosition()}으로 읽은 링 위치
+     * @return 등록된 SseEmitter, 동시 연결 수가 max-clients에 도달했으면 null
+     */
+    public SseEmitter register(String clientId, List<StreamEvent> replay, long startCursor) {
+        if (reservedSlots.incrementAndGet() > maxClients) {
+            reservedSlots.decrementAndGet();
+            rejectedCounter.increment();
+            logger.warn("SSE client limit ({}) reached. Rejecting {}.", maxClients, clientId);
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Client client = new Client(clientId, emitter, startCursor, replay);
+
+        emitter.onCompletion(() -> {
+            logger.info("Emitter completed: {}", clientId);
+            close(client, null);
+        });
+        emitter.onTimeout(() -> {
+            logger.warn("Emitter timeout: {}", clientId);
+            close(client, null);
+        });
+        emitter.onError(e -> {
+            logger.error("Emitter error ({}): {}", clientId, e.getMessage());
+            close(client, null);
+        });
+
+        client.sender = Thread.ofVirtual().name("sse-" + clientId).unstarted(() -> deliver(client));
+        clients.put(clientId, client);
+        client.sender.start();
+        logger.info("New SSE Emitter added: {}", clientId);
+        return emitter;
+    }
+
+    /**
+     * 연결된 모든 클라이언트에 SSE id 없이 이벤트를 발행합니다. 전송을 기다리지 않습니다.
+     */
+    public void broadcast(String name, Object data) {
+        broadcast(name, data, 0);
+    }
+
+    /**
+     * 연결된 모든 클라이언트에 이벤트를 발행합니다. 전송을 기다리지 않습니다.
+     * @param eventId SSE id로 보낼 번호 (발행 순서대로 증가해야 함, 없으면 0)
+     */
+    public void broadcast(String name, Object data, long eventId) {
+        lock.lock();
+        try {
+            long position = head + 1;
+            ring[(int) (position % ring.length)] = new StreamEvent(eventId, name, data);
+            head = position;
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        publishedCounter.increment();
+    }
+
+    /**
+     * 한 클라이언트에만 이벤트를 보냅니다 (연결 직후의 초기 데이터 등). 전송을 기다리지 않습니다.
+     */
+    public void sendTo(String clientId, String name, Object data) {
+        Client client = clients.get(clientId);
+        if (client == null) {
+            return;
+        }
+        if (!client.direct.offer(new StreamEvent(0, name, data))) {
+            close(client, overflowEvictions);
+            return;
+        }
+        wakeSenders();
+    }
+
+    // 클라이언트 전송 스레드: 개별 이벤트를 먼저 보내고, 링에서 다음 이벤트를 순서대로 보냄
+    private void deliver(Client client) {
+        try {
+            while (!client.closed) {
+                StreamEvent event = client.direct.poll();
+                if (event == null && client.replay.hasNext()) {
+                    event = client.replay.next();
+                }
+                if (event == null) {
+                    long next = client.cursor + 1;
+                    if (next > head) {
+                        awaitEvent(client);
+                        continue;
+                    }
+                    if (head - client.cursor > clientQueueCapacity) {
+                        logger.warn("SSE client {} fell {} events behind. Disconnecting.", client.id, head - client.cursor);
+                        close(client, overflowEvictions);
+                        break;
+                    }
+                    event = ring[(int) (next % ring.length)];
+                    client.cursor = next;
+                    if (event.eventId() > 0 && event.eventId() <= client.replayedUpTo) {
+                        continue; // replay로 이미 보낸 이벤트
+                    }
+                }
+                send(client, event);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt(); // 강제 종료됨
+        } catch (IOException | IllegalStateException e) {
+            logger.error("To Emitter {}, error while sending event: {}", client.id, e.getMessage());
+            close(client, errorEvictions);
+        } finally {
+            try {
+                client.emitter.complete();
+            } catch (Exception ignored) {
+                // 이미 끊긴 연결
+            }
+        }
+    }
+
+    private void send(Client client, StreamEvent event) throws IOException {
+        SseEmitter.SseEventBuilder builder;
+        if (event.name() == null) {
+            builder = SseEmitter.event().comment(String.valueOf(event.data())); // 브라우저는 주석을 무시하므로 연결 확인용으로만 쓰임
+        } else {
+            builder = SseEmitter.event().name(event.name()).data(event.data());
+            if (event.eventId() > 0) {
+                builder.id(String.valueOf(event.eventId()));
+            }
+        }
+        client.sendStartedAt = System.nanoTime();
+        try {
+            client.emitter.send(builder);
+        } finally {
+            client.sendStartedAt = 0;
+        }
+    }
+
+    private void awaitEvent(Client client) throws InterruptedException {
+        lock.lock();
+        try {
+            while (!client.closed && client.cursor >= head && client.direct.isEmpty()) {
+                published.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void wakeSenders() {
+        lock.lock();
+        try {
+            published.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 클라이언트를 목록에서 빼고 전송 스레드를 멈춤. emitter 정리는 전송 스레드가 끝나면서 처리
+    private void close(Client client, Counter reason) {
+        if (!clients.remove(client.id, client)) {
+            return;
+        }
+        reservedSlots.decrementAndGet();
+        client.closed = true;
+        if (reason != null) {
+            reason.increment();
+            reapedTotal.incrementAndGet();
+        }
+        if (client.sender != null && client.sender != Thread.currentThread()) {
+            client.sender.interrupt(); // 대기 중이면 바로 깨어나고, 전송 중이면 전송이 끝난 뒤 종료
+        }
+    }
+
+    // 알림이 없는 동안에도 주기적으로 써 봐야 끊긴 연결(과 그 비동기 요청)을 정리할 수 있음
+    private void sendHeartbeat() {
+        if (!clients.isEmpty()) {
+            broadcast(null, "heartbeat");
+        }
+    }
+
+    // emitter.send에서 멈춘 클라이언트는 스스로 밀린 양을 확인할 수 없으므로 주기적으로 점검
+    private void evictStalledClients() {
+        long now = System.nanoTime();
+        for (Client client : clients.values()) {
+            long sendStartedAt = client.sendStartedAt;
+            if (sendStartedAt != 0 && now - sendStartedAt > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs)) {
+                logger.warn("SSE client {} has been stuck in a send for over {} ms. Disconnecting.", client.id, sendTimeoutMs);
+                close(client, stalledEvictions);
+            } else if (head - client.cursor > clientQueueCapacity) {
+                logger.warn("SSE client {} stalled with {} events pending. Disconnecting.", client.id, client.backlog());
+                close(client, overflowEvictions);
+            }
+        }
+    }
+
+    private double maxBacklog() {
+        long max = 0;
+        for (Client client : clients.values()) {
+            max = Math.max(max, client.backlog());
+        }
+        return max;
+    }
+
+    /**
+     * 현재 연결된 클라이언트 수를 반환합니다.
+     */
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        monitor.shutdownNow();
+        for (Client client : clients.values()) {
+            close(client, null);
+        }
+        logger.info("NotificationBroadcaster has been shut down.");
+    }
+}
@@ -0,0 +1,191 @@
+package com.project2.smartfactory.notification;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * 알림 폭주 억제기 (NotificationService 내부용).
+ * - (유형, 제목)이 같은 알림은 window 동안 처음 한 건만 바로 내보내고, 이후 건은 개수만 셉니다.
+ *   window가 끝나면 억제된 건들을 요약 알림 한 건으로 내보내고, 폭주가 계속되면 다음 window도 같은 방식으로 묶습니다.
+ * - 유형별 토큰 버킷으로 바로 내보내는 알림 수를 제한합니다. 토큰이 없으면 그 알림도 window 요약에 포함됩니다.
+ *   요약 알림은 (유형, 제목)당 window마다 최대 한 건이므로 토큰을 쓰지 않습니다.
+ */
+final class NotificationCoalescer {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationCoalescer.class);
+
+    private static final int MAX_MESSAGE_LENGTH = 1000; // notifications.message 컬럼 길이
+
+    /**
+     * 억제기를 통과한 알림을 실제로 저장/전송하는 대상.
+     */
+    interface Sink {
+        void accept(Notification.NotificationType type, String title, String message);
+    }
+
+    private record Key(Notification.NotificationType type, String title) {
+    }
+
+    // (유형, 제목) 하나의 현재 window. windows 맵의 compute 안에서만 변경
+    private static final class Window {
+        private final long startedAt;
+        private int suppressed;
+        private String lastMessage;
+
+        private Window(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+
+    private static final class TokenBucket {
+        private final double capacity;
+        private final double refillPerMs;
+        private double tokens;
+        private long refilledAt;
+
+        private TokenBucket(double capacity, double refillPerMinute, long now) {
+            this.capacity = capacity;
+            this.refillPerMs = refillPerMinute / 60000.0;
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        private synchronized boolean tryAcquire(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerMs);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+
+    private final long windowMs;
+    private final Sink sink;
+    private final Map<Key, Window> windows = new ConcurrentHashMap<>();
+    private final Map<Notification.NotificationType, TokenBucket> buckets = new EnumMap<>(Notification.NotificationType.class);
+    private final ScheduledExecutorService flusher;
+
+    private final Counter passedCounter;
+    private final Counter coalescedCounter;
+    private final Counter rateLimitedCounter;
+    private final Counter summaryCounter;
+
+    NotificationCoalescer(long windowMs, int burst, double refillPerMinute, MeterRegistry meterRegistry, Sink sink) {
+        this.windowMs = windowMs;
+        this.sink = sink;
+        long now = System.currentTimeMillis();
+        for (Notification.NotificationType type : Notification.NotificationType.values()) {
+            buckets.put(type, new TokenBucket(burst, refillPerMinute, now));
+        }
+        passedCounter = counter(meterRegistry, "passed");
+        coalescedCounter = counter(meterRegistry, "coalesced");
+        rateLimitedCounter = counter(meterRegistry, "rate_limited");
+        summaryCounter = counter(meterRegistry, "summary");
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkInterval = Math.max(100, Math.min(1000, windowMs / 10));
+        flusher.scheduleWithFixedDelay(() -> flush(false), checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("notification.coalesce")
+                .description("알림 억제기 처리 결과별 건수")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 알림 한 건을 제출합니다. 바로 내보낼 수 있으면 호출 스레드에서 Sink로 넘기고, 아니면 window 요약에 포함시킵니다.
+     */
+    void submit(Notification.NotificationType type, String title, String message) {
+        long now = System.currentTimeMillis();
+        boolean[] pass = {false};
+        boolean[] limited = {false};
+        windows.compute(new Key(type, title), (key, window) -> {
+            if (window == null) {
+                window = new Window(now);
+                if (buckets.get(type).tryAcquire(now)) {
+                    pass[0] = true;
+                    return window;
+                }
+                limited[0] = true;
+            }
+            window.suppressed++;
+            window.lastMessage = message;
+            return window;
+        });
+
+        if (pass[0]) {
+            passedCounter.increment();
+            sink.accept(type, title, message);
+        } else if (limited[0]) {
+            rateLimitedCounter.increment();
+        } else {
+            coalescedCounter.increment();
+        }
+    }
+
+    // 끝난 window의 억제 건수를 요약 알림으로 내보냄. all이면 진행 중인 window도 모두 내보냄 (종료 시)
+    private void flush(boolean all) {
+        long now = System.currentTimeMillis();
+        for (Key key : windows.keySet()) {
+            Window[] expired = {null};
+            windows.computeIfPresent(key, (k, window) -> {
+                if (!all && now - window.startedAt < windowMs) {
+                    return window;
+                }
+                expired[0] = window;
+                // 억제된 건이 있었으면 폭주가 이어질 수 있으므로 새 window를 열어 계속 묶음
+                return window.suppressed > 0 && !all ? new Window(now) : null;
+            });
+            if (expired[0] != null && expired[0].suppressed > 0) {
+                emitSummary(key, expired[0]);
+            }
+        }
+    }
+
+    private void emitSummary(Key key, Window window) {
+        String message = window.suppressed == 1
+                ? window.lastMessage
+                : String.format("최근 %d초 동안 같은 알림이 %d건 더 발생했습니다. 마지막 내용: %s",
+                        TimeUnit.MILLISECONDS.toSeconds(windowMs), window.suppressed, window.lastMessage);
+        if (message.length() > MAX_MESSAGE_LENGTH) {
+            message = message.substring(0, MAX_MESSAGE_LENGTH - 3) + "...";
+        }
+        try {
+            summaryCounter.increment();
+            sink.accept(key.type(), key.title(), message);
+        } catch (Exception e) {
+            logger.error("Failed to emit coalesced notification '{}': {}", key.title(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 남은 요약 알림을 모두 내보내고 주기 작업을 멈춥니다.
+     */
+    void shutdown() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush(true);
+    }
+}
@@ -3,13 +3,14 @@ package com.project2.smartfactory.notification;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -21,6 +22,7 @@ import java.util.UUID;
  * - 모든 알림을 읽음 상태로 표시.
  * - 테스트용 알림 추가 (개발/디버깅용).
  * - 특정 알림을 숨김 상태로 변경 (알림 목록에서 표시 안 함).
+ * - 여러 알림을 ID 목록 또는 유형/기간으로 한 번에 숨김.
  */
 @RestController
 @RequestMapping("/api/notifications") // 알림 관련 API의 기본 경로
@@ -30,30 +32,48 @@ public class NotificationController {
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationController.class);
 
+    private static final int MAX_BULK_IDS = 1000;
+
     private final NotificationService notificationService;
 
     /**
      * 실시간 알림을 위한 SSE (Server-Sent Events) 엔드포인트.
      * 클라이언트가 이 엔드포인트에 연결하면 새로운 알림이 발생할 때마다 푸시됩니다.
+     * 브라우저가 재연결하며 Last-Event-ID(마지막으로 받은 알림 ID)를 보내면 그 이후 놓친 알림을 replayedNotification 이벤트로 먼저 보냅니다.
      *
-     * @return SseEmitter 객체
+     * @param lastEventId 브라우저가 자동으로 보내는 Last-Event-ID 헤더 (첫 연결에는 없음)
+     * @return SseEmitter 객체, 동시 연결 수 제한을 넘으면 503
      */
     @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public SseEmitter streamNotifications() {
+    public ResponseEntity<SseEmitter> streamNotifications(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
         String emitterId = UUID.randomUUID().toString(); // 각 Emitter에 고유 ID 부여
-        SseEmitter emitter = notificationService.addEmitter(emitterId); // NotificationService에 Emitter 등록
+        SseEmitter emitter;
+        Long lastNotificationId = parseLastEventId(lastEventId);
+        if (lastNotificationId != null) {
+            emitter = notificationService.addEmitter(emitterId, lastNotificationId); // 재연결: 놓친 알림을 먼저 다시 보냄
+        } else {
+            emitter = notificationService.addEmitter(emitterId); // NotificationService에 Emitter 등록
+        }
+        if (emitter == null) { // 동시 연결 수 제한 초과
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+
+        // 클라이언트 연결 시, 초기 읽지 않은 알림 개수를 먼저 전송 (클라이언트의 전송 스레드가 보냄)
+        notificationService.sendToClient(emitterId, "initialCount", notificationService.getUnreadNotificationCount());
+
+        return ResponseEntity.ok(emitter);
+    }
 
-        // 클라이언트 연결 시, 초기 읽지 않은 알림 개수를 먼저 전송
+    private static Long parseLastEventId(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
         try {
-            emitter.send(SseEmitter.event()
-                    .name("initialCount") // 클라이언트에서 'initialCount' 이벤트로 수신
-                    .data(notificationService.getUnreadNotificationCount()));
-        } catch (IOException e) {
-            logger.error("Error while sending SSE initialCount : {}", e.getMessage());
-            emitter.completeWithError(e); // 전송 중 오류 발생 시 Emitter 완료 처리
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring malformed Last-Event-ID: {}", lastEventId);
+            return null;
         }
-
-        return emitter;
     }
 
     /**
@@ -109,6 +129,50 @@ public class NotificationController {
     }
 
 
+    /**
+     * 여러 알림을 한 번에 숨깁니다.
+     *
+     * @param ids 숨길 알림 ID 목록 (요청 본문 JSON 배열, 최대 1000개)
+     * @return 숨겨진 알림 개수, 목록이 너무 길면 400
+     */
+    @PostMapping("/hide")
+    public ResponseEntity<Integer> hideNotifications(@RequestBody List<Long> ids) {
+        logger.info("API Request received for bulk hiding: {} IDs", ids.size());
+        if (ids.size() > MAX_BULK_IDS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(notificationService.hideNotifications(ids));
+    }
+
+    /**
+     * 유형/기간에 해당하는 알림을 한 번에 숨깁니다.
+     * 예: /api/notifications/hide-range?type=DEFECT_DETECTED&from=2025-05-20T00:00:00&to=2025-05-21T00:00:00
+     *
+     * @param type 알림 유형 (생략하면 전체)
+     * @param from 알림 시각 하한 (포함)
+     * @param to   알림 시각 상한 (미포함)
+     * @return 숨겨진 알림 개수, 유형이나 기간이 잘못되면 400
+     */
+    @PostMapping("/hide-range")
+    public ResponseEntity<Integer> hideNotificationRange(
+            @RequestParam(name = "type", required = false) String type,
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        logger.info("API Request received for range hiding: type={}, {} ~ {}", type, from, to);
+        if (!from.isBefore(to)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Notification.NotificationType notificationType = null;
+        if (type != null && !type.isBlank()) {
+            try {
+                notificationType = Notification.NotificationType.valueOf(type.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        return ResponseEntity.ok(notificationService.hideNotifications(notificationType, from, to));
+    }
+
     /**
      * 테스트용 알림을 추가하는 엔드포인트 (개발/디버깅 목적으로만 사용).
      *
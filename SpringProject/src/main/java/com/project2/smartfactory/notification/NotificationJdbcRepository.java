@@ -0,0 +1,96 @@
+package com.project2.smartfactory.notification;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * notifications 테이블에 대한 JDBC 배치 쓰기.
+ * ID는 NotificationWriteBehind가 미리 부여하므로 id 컬럼까지 직접 넣습니다 (AUTO_INCREMENT 컬럼에 명시 값 저장).
+ * 부여할 수 있는 ID의 상한(예약 high-water mark)은 notification_id_reservation 테이블의 한 행에 기록합니다.
+ */
+@Repository
+@RequiredArgsConstructor
+@DependsOn("entityManagerFactory") // ddl-auto로 notifications가 준비된 뒤에 초기화
+public class NotificationJdbcRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notifications (id, notification_type, title, message, timestamp, is_read, icon_class, svg_path, display) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String RESERVATION_TABLE = "notification_id_reservation";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * ID 예약 테이블이 없으면 만듭니다 (엔티티가 아니므로 ddl-auto 대상이 아님).
+     */
+    public void createReservationTableIfMissing() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + RESERVATION_TABLE
+                + " (id TINYINT NOT NULL PRIMARY KEY, reserved_up_to BIGINT NOT NULL)");
+    }
+
+    /**
+     * 지금까지 예약된 알림 ID의 상한을 반환합니다 (없으면 0).
+     */
+    public long findReservedId() {
+        Long reserved = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(reserved_up_to), 0) FROM " + RESERVATION_TABLE, Long.class);
+        return reserved == null ? 0 : reserved;
+    }
+
+    /**
+     * 알림 ID를 upTo까지 예약했음을 기록합니다. 기존 상한보다 작은 값으로는 내려가지 않습니다.
+     */
+    public void saveReservedId(long upTo) {
+        jdbcTemplate.update("INSERT INTO " + RESERVATION_TABLE + " (id, reserved_up_to) VALUES (1, ?) "
+                + "ON DUPLICATE KEY UPDATE reserved_up_to = GREATEST(reserved_up_to, VALUES(reserved_up_to))", upTo);
+    }
+
+    /**
+     * 저장된 알림 중 가장 큰 ID를 반환합니다 (없으면 0).
+     */
+    public long findMaxId() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM notifications", Long.class);
+        return maxId == null ? 0 : maxId;
+    }
+
+    /**
+     * 알림 목록을 하나의 JDBC 배치로 저장합니다.
+     * @param notifications ID가 부여된 알림 목록
+     * @return 각 행의 갱신 건수
+     */
+    public int[] batchInsert(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Notification notification = notifications.get(i);
+                ps.setLong(1, notification.getId());
+                ps.setInt(2, notification.getType().ordinal()); // 엔티티와 같은 ORDINAL 매핑
+                ps.setString(3, notification.getTitle());
+                ps.setString(4, notification.getMessage());
+                ps.setTimestamp(5, Timestamp.valueOf(notification.getTimestamp()));
+                ps.setBoolean(6, Boolean.TRUE.equals(notification.getIsRead()));
+                ps.setString(7, notification.getIconClass());
+                ps.setString(8, notification.getSvgPath());
+                ps.setBoolean(9, !Boolean.FALSE.equals(notification.getDisplay()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return notifications.size();
+            }
+        });
+    }
+}
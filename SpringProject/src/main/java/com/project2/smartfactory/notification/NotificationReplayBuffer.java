@@ -0,0 +1,58 @@
+package com.project2.smartfactory.notification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 최근 알림을 알림 ID로 찾는 고정 크기 링 버퍼 (NotificationService 내부용).
+ * 알림 ID는 발행 순서대로 증가하므로 슬롯 = ID % 크기이며, 재연결한 SSE 클라이언트가 놓친 알림을 DB 없이 찾는 데 씁니다.
+ */
+final class NotificationReplayBuffer {
+
+    private final Notification[] slots;
+    private long lowestId; // 기동 후 처음 기록된 알림 ID (0이면 없음), 이보다 앞은 버퍼에 있었던 적이 없음
+    private long latestId; // 마지막으로 기록된 알림 ID (0이면 없음)
+
+    NotificationReplayBuffer(int capacity) {
+        this.slots = new Notification[capacity];
+    }
+
+    /**
+     * 발행된 알림을 기록합니다. ID 순서대로 호출되어야 합니다.
+     */
+    synchronized void record(Notification notification) {
+        long id = notification.getId();
+        slots[(int) (id % slots.length)] = notification;
+        latestId = Math.max(latestId, id);
+        if (lowestId == 0) {
+            lowestId = id;
+        }
+    }
+
+    /**
+     * lastId 다음부터 최신까지의 알림을 ID 순으로 반환합니다.
+     * 저장에 실패했거나 억제되어 발행되지 않은 ID는 건너뜁니다.
+     * 기동 후 아무것도 기록되지 않았거나 lastId 다음 ID가 처음 기록된 ID보다 앞이면(재시작 전에 발행된 알림),
+     * 버퍼에 없던 것과 억제된 것을 구분할 수 없으므로 null을 반환해 DB에서 찾게 합니다.
+     * @return 놓친 알림 목록, 버퍼가 범위를 모두 갖고 있지 않으면 null
+     */
+    synchronized List<Notification> since(long lastId) {
+        if (latestId == 0 || lastId + 1 < lowestId) {
+            return null;
+        }
+        if (lastId >= latestId) {
+            return List.of();
+        }
+        if (latestId - lastId > slots.length) {
+            return null;
+        }
+        List<Notification> missed = new ArrayList<>((int) (latestId - lastId));
+        for (long id = lastId + 1; id <= latestId; id++) {
+            Notification notification = slots[(int) (id % slots.length)];
+            if (notification != null && notification.getId() == id) {
+                missed.add(notification);
+            }
+        }
+        return missed;
+    }
+}
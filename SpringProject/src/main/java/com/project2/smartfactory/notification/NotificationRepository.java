@@ -1,8 +1,13 @@
 package com.project2.smartfactory.notification;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -36,6 +41,48 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
      */
     List<Notification> findByIsReadFalseAndDisplayTrue(); // 읽지 않았고 표시할 알림 목록
 
+    /**
+     * 지정한 ID 이후의 표시 중인 알림을 ID 순으로 최대 501개 반환합니다.
+     * SSE 재연결 시 메모리 버퍼에 없는 범위를 채우는 데 사용합니다.
+     *
+     * @param id 마지막으로 받은 알림 ID
+     * @return 이후 알림 목록
+     */
+    List<Notification> findTop501ByIdGreaterThanAndDisplayTrueOrderByIdAsc(Long id);
+
+    /**
+     * 표시 중인 읽지 않은 알림을 UPDATE 한 번으로 모두 읽음 처리합니다.
+     *
+     * @return 읽음 처리된 알림 개수
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.isRead = false AND n.display = true")
+    int markAllDisplayedAsRead();
+
+    /**
+     * 지정한 ID 중 표시 중이고 읽음 여부가 isRead인 알림을 UPDATE 한 번으로 숨깁니다.
+     * 읽지 않은 알림 수를 정확히 보정하기 위해 읽음/안 읽음을 나누어 호출합니다.
+     *
+     * @return 숨겨진 알림 개수
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.display = false WHERE n.id IN :ids AND n.display = true AND n.isRead = :isRead")
+    int hideByIds(@Param("ids") Collection<Long> ids, @Param("isRead") boolean isRead);
+
+    /**
+     * 기간(및 유형) 안에서 표시 중이고 읽음 여부가 isRead인 알림을 UPDATE 한 번으로 숨깁니다.
+     *
+     * @param type 알림 유형 (null이면 전체)
+     * @param from 알림 시각 하한 (포함)
+     * @param to   알림 시각 상한 (미포함)
+     * @return 숨겨진 알림 개수
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Notification n SET n.display = false WHERE n.display = true AND n.isRead = :isRead "
+            + "AND (:type IS NULL OR n.type = :type) AND n.timestamp >= :from AND n.timestamp < :to")
+    int hideByRange(@Param("type") Notification.NotificationType type, @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to, @Param("isRead") boolean isRead);
+
     /**
      * 특정 ID의 알림을 조회합니다.
      *
@@ -1,21 +1,21 @@
 package com.project2.smartfactory.notification;
 
-import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional; // Optional 임포트 추가
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
@@ -23,8 +23,12 @@ import lombok.RequiredArgsConstructor;
 /**
  * 알림을 관리하고 실시간으로 클라이언트에 푸시하는 서비스입니다.
  * - 알림 추가, 최근 알림 조회, 읽지 않은 알림 개수 조회 기능 제공.
- * - SSE(Server-Sent Events)를 통해 클라이언트에 실시간 알림을 전달.
- * - 알림 데이터를 데이터베이스에 저장하고 조회합니다.
+ * - SSE(Server-Sent Events)를 통해 클라이언트에 실시간 알림을 전달 (NotificationBroadcaster가 클라이언트별로 비동기 전송).
+ * - 알림 데이터를 데이터베이스에 저장하고 조회합니다. 저장은 NotificationWriteBehind가 배치로 처리하며,
+ *   알림은 저장을 기다리지 않고 미리 부여된 ID로 바로 푸시됩니다.
+ * - 최근 알림은 ID로 찾는 링 버퍼에도 보관하여, 재연결한 SSE 클라이언트의 Last-Event-ID 이후 놓친 알림을 메모리에서 다시 보냅니다.
+ * - 읽지 않은 알림 개수는 기동 시 한 번 세고 이후 쓰기마다 메모리에서 갱신하므로, 조회 시 COUNT 쿼리를 실행하지 않습니다.
+ * - 같은 알림이 폭주하면 NotificationCoalescer가 window 단위 요약 한 건으로 묶고, 유형별로 발생 빈도를 제한합니다.
  */
 @Service
 @RequiredArgsConstructor // Lombok: final 필드를 인자로 받는 생성자 자동 생성 (NotificationRepository 주입)
@@ -33,30 +37,63 @@ public class NotificationService {
     private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
 
     private final NotificationRepository notificationRepository; // NotificationRepository 주입
+    private final NotificationBroadcaster notificationBroadcaster; // SSE 클라이언트별 비동기 전송
+    private final NotificationWriteBehind notificationWriteBehind; // 알림 배치 저장 (write-behind)
+    private final MeterRegistry meterRegistry;
 
-    // SSE Emitter를 관리하는 맵 (클라이언트 ID -> SseEmitter)
-    private final Map<String, SseEmitter> emitters = new ConcurrentHashMap<>();
-    // 주기적인 작업을 위한 스케줄러 (예: 연결 끊긴 Emitter 정리)
-    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    @Value("${notification.coalesce.window-ms:30000}")
+    private long coalesceWindowMs;
+
+    @Value("${notification.rate-limit.burst:10}")
+    private int rateLimitBurst;
+
+    @Value("${notification.rate-limit.per-minute:30}")
+    private double rateLimitPerMinute;
+
+    @Value("${notification.sse.replay-size:512}")
+    private int replaySize;
+
+    // 재연결 시 버퍼에 없는 범위를 DB에서 채울 때의 최대 건수. 넘으면 다시 보내지 않고 클라이언트가 목록을 새로 읽게 둠
+    private static final int MAX_DB_REPLAY = 500;
+
+    private NotificationCoalescer notificationCoalescer;
+    private NotificationReplayBuffer replayBuffer;
+
+    // ID 부여와 SSE 발행 순서를 일치시키기 위한 잠금 (SSE id가 항상 증가해야 Last-Event-ID로 이어받을 수 있음)
+    private final ReentrantLock publishLock = new ReentrantLock();
+
+    // 표시 중인 읽지 않은 알림 개수 (저장 대기 중인 알림 포함)
+    private final AtomicLong unreadCount = new AtomicLong();
 
-    /**
-     * NotificationService 초기화 시 호출되어 스케줄러를 시작합니다.
-     */
     @PostConstruct
     public void init() {
-        scheduler.scheduleAtFixedRate(this::cleanUpDisconnectedEmitters, 1, 1, TimeUnit.MINUTES);
+        replayBuffer = new NotificationReplayBuffer(replaySize);
+        unreadCount.set(notificationRepository.countByIsReadFalseAndDisplayTrue());
+        notificationWriteBehind.addFailureListener(notification -> unreadCount.decrementAndGet()); // 저장 못 한 알림은 개수에서 뺌
+        Gauge.builder("notification.unread", unreadCount, AtomicLong::get)
+                .description("표시 중인 읽지 않은 알림 수")
+                .register(meterRegistry);
+        notificationCoalescer = new NotificationCoalescer(coalesceWindowMs, rateLimitBurst, rateLimitPerMinute, meterRegistry, this::persistNotification);
     }
 
     /**
-     * 새로운 알림을 생성하고 데이터베이스에 저장하며, 연결된 모든 SSE 클라이언트에 푸시합니다.
+     * 새로운 알림을 제출합니다. 같은 (유형, 제목)의 알림이 window 안에 이미 있었거나 유형별 한도를 넘으면
+     * 바로 저장하지 않고 window가 끝날 때 요약 알림 한 건으로 저장/푸시합니다.
      *
      * @param type    알림 유형 (Notification.NotificationType Enum)
      * @param title   알림 제목
      * @param message 알림 내용
-     * @return 저장된 Notification 엔티티
      */
-    @Transactional // 트랜잭션 관리
-    public Notification saveNotification(Notification.NotificationType type, String title, String message) {
+    public void saveNotification(Notification.NotificationType type, String title, String message) {
+        notificationCoalescer.submit(type, title, message);
+    }
+
+    /**
+     * 알림에 ID를 부여해 저장 대기열에 넣고, 저장을 기다리지 않고 연결된 모든 SSE 클라이언트에 푸시합니다.
+     *
+     * @return 푸시된 Notification 엔티티 (ID 부여됨)
+     */
+    private Notification persistNotification(Notification.NotificationType type, String title, String message) {
         Notification newNotification = Notification.builder()
                 .type(type) // Enum 값 사용
                 .title(title)
@@ -66,10 +103,23 @@ public class NotificationService {
                 .display(true) // 새로 추가된 알림은 표시 상태
                 .build();
 
-        Notification savedNotification = notificationRepository.save(newNotification); // 데이터베이스에 저장
-        logger.info("New notification is saved to DB: Type={}, Title='{}', ID={}", type, title, savedNotification.getId());
-        sendNotificationToClients(savedNotification); // 모든 연결된 클라이언트에 알림 푸시
-        return savedNotification;
+        publishLock.lock();
+        try {
+            if (!notificationWriteBehind.submit(newNotification)) { // 저장 대기열에 추가 (ID 부여)
+                return newNotification; // 메모리 예산 초과로 저장하지 못한 알림은 푸시하지 않음 (숨김 등 후속 요청이 불가능하므로)
+            }
+            unreadCount.incrementAndGet();
+            logger.info("New notification is queued for DB: Type={}, Title='{}', ID={}", type, title, newNotification.getId());
+            sendNotificationToClients(newNotification); // 모든 연결된 클라이언트에 알림 푸시
+        } finally {
+            publishLock.unlock();
+        }
+        return newNotification;
+    }
+
+    // 이미 푸시된 알림이 조회/변경 대상에 포함되도록, 저장 대기 중인 알림이 저장될 때까지 잠깐 기다림
+    private void awaitPendingWrites() {
+        notificationWriteBehind.awaitPersisted(notificationWriteBehind.getFlushIntervalMs() * 2);
     }
 
     /**
@@ -82,145 +132,170 @@ public class NotificationService {
     public List<Notification> getRecentNotifications() {
         logger.info("Get recent notifications from DB (to display).");
         // NotificationRepository에 정의된 메서드를 사용하여 display=true인 최신 알림을 가져옵니다.
+        awaitPendingWrites();
         return notificationRepository.findTop20ByDisplayTrueOrderByTimestampDesc();
     }
 
     /**
-     * 읽지 않은 알림의 개수를 데이터베이스에서 반환합니다.
-     * display가 true인 알림 중에서 읽지 않은 알림만 카운트합니다.
+     * 읽지 않은 알림의 개수를 반환합니다.
+     * display가 true인 알림 중에서 읽지 않은 알림만 셉니다 (메모리 카운터, DB 조회 없음).
      *
      * @return 읽지 않은 알림 개수
      */
-    @Transactional(readOnly = true) // 읽기 전용 트랜잭션
     public long getUnreadNotificationCount() {
-        long count = notificationRepository.countByIsReadFalseAndDisplayTrue(); // 읽지 않았고 표시할 알림 개수 조회
+        long count = unreadCount.get();
         logger.debug("Unread notifications count (to display): {}", count);
         return count;
     }
 
     /**
-     * 모든 알림을 읽음 상태로 표시하고 데이터베이스에 업데이트합니다.
-     * display가 true인 알림 중에서 읽지 않은 알림만 업데이트합니다.
+     * 표시 중인 읽지 않은 알림을 UPDATE 한 번으로 모두 읽음 처리합니다.
      */
     @Transactional // 트랜잭션 관리
     public void markAllNotificationsAsRead() {
-        // display가 true인 읽지 않은 알림을 가져와 읽음 상태로 변경 후 저장합니다.
-        List<Notification> unreadNotifications = notificationRepository.findByIsReadFalseAndDisplayTrue();
-        unreadNotifications.forEach(n -> n.setIsRead(true));
-        notificationRepository.saveAll(unreadNotifications); // 변경된 알림들을 한 번에 저장
-
-        logger.info("All displayed notifications are set to read.");
-        // 모든 알림을 읽음으로 표시했으므로, 클라이언트의 뱃지 카운트를 0으로 업데이트하기 위해
-        // SSE로 'initialCount' 이벤트를 다시 보낼 수 있습니다.
-        emitters.forEach((id, emitter) -> {
-            try {
-                emitter.send(SseEmitter.event()
-                        .name("initialCount") // 뱃지 카운트 업데이트를 위한 이벤트
-                        .data(0L)); // 0으로 설정
-            } catch (IOException e) {
-                logger.error("Error sending initialCount event to Emitter {}: {}", id, e.getMessage());
-                emitter.completeWithError(e);
-                emitters.remove(id);
-            }
-        });
+        awaitPendingWrites(); // 이미 푸시된 알림까지 포함되도록
+        int updated = notificationRepository.markAllDisplayedAsRead();
+        long remaining = unreadCount.addAndGet(-updated); // 그 사이 새로 들어와 아직 저장되지 않은 알림은 남음
+
+        logger.info("{} displayed notifications are set to read.", updated);
+        // 클라이언트의 뱃지 카운트를 갱신하기 위해 SSE로 'initialCount' 이벤트를 다시 보냅니다.
+        notificationBroadcaster.broadcast("initialCount", remaining);
     }
 
     /**
      * 특정 알림을 알림 목록에서 숨김 상태로 변경합니다 (display = false).
+     * 일괄 숨김과 같은 UPDATE 두 번으로 처리하므로, 읽지 않은 개수는 UPDATE가 보고한 행 수로만 조정됩니다
+     * (엔티티를 읽어 저장하면 동시에 실행된 모두 읽음 처리를 덮어쓰고 개수를 두 번 줄일 수 있음).
      *
      * @param notificationId 숨길 알림의 ID
-     * @return 업데이트된 Notification 객체 (Optional)
+     * @return 숨긴 뒤의 Notification 객체 (Optional), 없으면 비어 있음
      */
     @Transactional // 트랜잭션 관리
     public Optional<Notification> hideNotification(Long notificationId) {
+        awaitPendingWrites(); // 방금 푸시된 알림도 숨길 수 있도록
+        List<Long> ids = List.of(notificationId);
+        int hiddenUnread = notificationRepository.hideByIds(ids, false);
+        int hiddenRead = notificationRepository.hideByIds(ids, true);
+        afterBulkHide(hiddenUnread);
         Optional<Notification> notificationOptional = notificationRepository.findById(notificationId);
-        if (notificationOptional.isPresent()) {
-            Notification notification = notificationOptional.get();
-            notification.setDisplay(false); // 표시 상태를 false로 변경
-            notificationRepository.save(notification); // 데이터베이스에 업데이트
+        if (notificationOptional.isEmpty()) {
+            logger.warn("Cannot hide Notification ID {} (Not Found).", notificationId);
+        } else if (hiddenUnread + hiddenRead > 0) {
             logger.info("Notification ID {} is hidden from list.", notificationId);
-            return Optional.of(notification);
         }
-        logger.warn("Cannot hide Notification ID {} (Not Found).", notificationId);
-        return Optional.empty();
+        return notificationOptional;
     }
 
+    /**
+     * 여러 알림을 한 번에 숨깁니다. 읽지 않은 알림과 읽은 알림에 대해 UPDATE를 한 번씩 실행합니다.
+     *
+     * @param notificationIds 숨길 알림 ID 목록
+     * @return 숨겨진 알림 개수
+     */
+    @Transactional // 트랜잭션 관리
+    public int hideNotifications(Collection<Long> notificationIds) {
+        if (notificationIds.isEmpty()) {
+            return 0;
+        }
+        awaitPendingWrites();
+        int hiddenUnread = notificationRepository.hideByIds(notificationIds, false);
+        int hiddenRead = notificationRepository.hideByIds(notificationIds, true);
+        afterBulkHide(hiddenUnread);
+        logger.info("{} notifications are hidden from list (by ID).", hiddenUnread + hiddenRead);
+        return hiddenUnread + hiddenRead;
+    }
+
+    /**
+     * 기간(및 유형) 안의 알림을 한 번에 숨깁니다.
+     *
+     * @param type 알림 유형 (null이면 전체)
+     * @param from 알림 시각 하한 (포함)
+     * @param to   알림 시각 상한 (미포함)
+     * @return 숨겨진 알림 개수
+     */
+    @Transactional // 트랜잭션 관리
+    public int hideNotifications(Notification.NotificationType type, LocalDateTime from, LocalDateTime to) {
+        awaitPendingWrites();
+        int hiddenUnread = notificationRepository.hideByRange(type, from, to, false);
+        int hiddenRead = notificationRepository.hideByRange(type, from, to, true);
+        afterBulkHide(hiddenUnread);
+        logger.info("{} notifications are hidden from list (type={}, {} ~ {}).", hiddenUnread + hiddenRead, type, from, to);
+        return hiddenUnread + hiddenRead;
+    }
+
+    private void afterBulkHide(int hiddenUnread) {
+        if (hiddenUnread > 0) {
+            notificationBroadcaster.broadcast("initialCount", unreadCount.addAndGet(-hiddenUnread));
+        }
+    }
 
     /**
-     * 새로운 SSE Emitter를 등록하고 관리합니다.
-     * Emitter의 완료, 타임아웃, 에러 콜백을 설정하여 맵에서 제거되도록 합니다.
+     * 새로운 SSE Emitter를 등록합니다.
+     * Emitter의 완료, 타임아웃, 에러 시 NotificationBroadcaster가 목록에서 제거합니다.
      *
      * @param emitterId Emitter의 고유 ID
-     * @return 등록된 SseEmitter 객체
+     * @return 등록된 SseEmitter 객체, 동시 연결 수 제한을 넘으면 null
      */
     public SseEmitter addEmitter(String emitterId) {
-        SseEmitter emitter = new SseEmitter(300000L); // 5분 타임아웃 설정
-
-        // Emitter 완료 시 맵에서 제거
-        emitter.onCompletion(() -> {
-            logger.info("Emitter completed: {}", emitterId);
-            emitters.remove(emitterId);
-        });
-        // Emitter 타임아웃 시 맵에서 제거
-        emitter.onTimeout(() -> {
-            logger.warn("Emitter timeout: {}", emitterId);
-            emitter.complete(); // 타임아웃 시 Emitter를 완료 상태로 만듦
-            emitters.remove(emitterId);
-        });
-        // Emitter 오류 발생 시 맵에서 제거
-        emitter.onError(e -> {
-            logger.error("Emitter error ({}): {}", emitterId, e.getMessage());
-            emitters.remove(emitterId);
-        });
-
-        emitters.put(emitterId, emitter); // 맵에 Emitter 추가
-        logger.info("New SSE Emitter added: {}", emitterId);
-        return emitter;
+        return notificationBroadcaster.register(emitterId);
     }
 
     /**
-     * 연결된 모든 SSE 클라이언트에 새로운 알림을 푸시합니다.
+     * 재연결한 SSE 클라이언트를 등록하고, lastEventId 이후 놓친 알림을 먼저 다시 보냅니다.
+     * 메모리 버퍼에 범위가 모두 남아 있으면 버퍼에서, 아니면 DB에서 최대 500건까지 채웁니다.
+     * 놓친 알림은 연결 직후 보내는 initialCount(읽지 않은 개수)에 이미 포함되므로, 프론트엔드가 뱃지를 다시 올리지 않도록
+     * newNotification이 아닌 replayedNotification 이벤트로 보냅니다.
      *
-     * @param notification 푸시할 알림 객체
+     * @param emitterId   Emitter의 고유 ID
+     * @param lastEventId 브라우저가 보낸 Last-Event-ID (마지막으로 받은 알림 ID)
+     * @return 등록된 SseEmitter 객체, 동시 연결 수 제한을 넘으면 null
      */
-    public void sendNotificationToClients(Notification notification) {
-        // 동시성 문제를 피하기 위해 맵을 순회하는 동안 복사본을 사용하거나 ConcurrentHashMap의 이점을 활용
-        emitters.forEach((id, emitter) -> {
-            try {
-                emitter.send(SseEmitter.event()
-                        .id(String.valueOf(notification.getId())) // 알림의 고유 ID (Long -> String 변환)
-                        .name("newNotification") // 클라이언트에서 수신할 이벤트 이름
-                        .data(notification)); // 전송할 알림 데이터 (JSON으로 자동 변환)
-                logger.debug("To Emitter {}, Notification sent: {}", id, notification.getTitle());
-            } catch (IOException e) {
-                logger.error("To Emitter {}, error while sending notification: {}", id, e.getMessage());
-                emitter.completeWithError(e); // 오류 발생 시 Emitter를 완료 상태로 만듦
-                emitters.remove(id); // 맵에서 제거
+    public SseEmitter addEmitter(String emitterId, long lastEventId) {
+        // replay를 만들기 전에 링 위치를 먼저 읽어야, 조회하는 동안 발행된 알림이 replay와 링 양쪽에서 모두 빠지지 않음
+        long startCursor = notificationBroadcaster.currentPosition();
+        List<Notification> missed = replayBuffer.since(lastEventId);
+        if (missed == null) {
+            awaitPendingWrites();
+            missed = notificationRepository.findTop501ByIdGreaterThanAndDisplayTrueOrderByIdAsc(lastEventId);
+            if (missed.size() > MAX_DB_REPLAY) {
+                logger.info("Emitter {} missed more than {} notifications since ID {}. Skipping replay.", emitterId, MAX_DB_REPLAY, lastEventId);
+                missed = List.of();
             }
-        });
+        }
+        List<NotificationBroadcaster.StreamEvent> replay = missed.stream()
+                .map(notification -> new NotificationBroadcaster.StreamEvent(notification.getId(), "replayedNotification", notification))
+                .toList();
+        logger.debug("Replaying {} notifications to Emitter {} after ID {}", replay.size(), emitterId, lastEventId);
+        return notificationBroadcaster.register(emitterId, replay, startCursor);
     }
 
     /**
-     * 주기적으로 연결 끊긴 Emitter를 정리합니다.
+     * 특정 SSE 클라이언트에만 이벤트를 보냅니다 (연결 직후의 읽지 않은 알림 개수 등).
+     *
+     * @param emitterId Emitter의 고유 ID
+     * @param name      이벤트 이름
+     * @param data      전송할 데이터
      */
-    private void cleanUpDisconnectedEmitters() {
-        logger.debug("Launching cleanup task for disconnected Emitters. Current Emitter count: {}", emitters.size());
+    public void sendToClient(String emitterId, String name, Object data) {
+        notificationBroadcaster.sendTo(emitterId, name, data);
     }
 
     /**
-     * 애플리케이션 종료 시 스케줄러를 안전하게 종료합니다.
+     * 연결된 모든 SSE 클라이언트에 새로운 알림을 푸시합니다.
+     * 이벤트를 발행만 하고 전송은 기다리지 않으므로, 느린 클라이언트가 호출 스레드(MQTT 작업 스레드 등)를 막지 않습니다.
+     *
+     * @param notification 푸시할 알림 객체
+     */
+    public void sendNotificationToClients(Notification notification) {
+        replayBuffer.record(notification);
+        notificationBroadcaster.broadcast("newNotification", notification, notification.getId()); // 클라이언트에서 수신할 이벤트 이름, SSE id = 알림 ID
+    }
+
+    /**
+     * 애플리케이션 종료 시 묶여 있던 요약 알림을 저장합니다.
      */
     @PreDestroy
-    public void shutdownScheduler() {
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(1, TimeUnit.MINUTES)) {
-                scheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            scheduler.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
-        logger.info("NotificationService Scheduler has been shut down.");
+    public void shutdown() {
+        notificationCoalescer.shutdown();
     }
 }
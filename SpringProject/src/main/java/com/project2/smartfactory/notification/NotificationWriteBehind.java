@@ -0,0 +1,279 @@
+package com.project2.smartfactory.notification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 알림 write-behind 버퍼.
+ * - 알림을 받는 즉시 ID를 부여해 돌려주므로, 호출자는 DB 저장을 기다리지 않고 SSE로 바로 푸시할 수 있습니다.
+ *   ID는 그대로 행의 ID가 되므로, 푸시된 ID로 숨김 등 후속 요청이 가능합니다.
+ * - ID는 id-block-size개씩 미리 예약해 그 상한을 DB에 기록한 뒤 부여하고, 기동 시 MAX(id)와 예약 상한 중 큰 값부터 이어서 부여합니다.
+ *   저장되기 전에 종료되었거나 저장에 실패한 알림의 ID도 이미 SSE로 푸시되어 브라우저의 Last-Event-ID가 되었을 수 있으므로,
+ *   재시작 후 같은 ID를 다시 쓰면 그 브라우저는 새 알림을 받은 것으로 보고 건너뜁니다.
+ * - writer 스레드 하나가 첫 알림 이후 flush-interval-ms 동안 또는 batch-size 건이 모일 때까지 묶어 JDBC 배치로 저장합니다.
+ * - 대기 중인 알림의 추정 메모리가 max-pending-bytes를 넘으면 제출하는 쪽이 잠시 기다리고, 그래도 자리가 없으면 버립니다.
+ * - DB를 읽는 조회는 awaitPersisted로 이미 부여된 ID까지 저장되기를 잠깐 기다려 방금 푸시된 알림도 보이게 합니다.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationWriteBehind {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationWriteBehind.class);
+
+    private static final int ENTRY_OVERHEAD_BYTES = 256; // 객체 헤더, 시각, 플래그 등 추정치
+
+    private final NotificationJdbcRepository notificationJdbcRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notification.write-behind.batch-size:200}")
+    private int batchSize;
+
+    @Value("${notification.write-behind.flush-interval-ms:100}")
+    private long flushIntervalMs;
+
+    @Value("${notification.write-behind.max-pending-bytes:4194304}")
+    private int maxPendingBytes;
+
+    @Value("${notification.write-behind.offer-timeout-ms:1000}")
+    private long offerTimeoutMs;
+
+    @Value("${notification.write-behind.id-block-size:1000}")
+    private int idBlockSize;
+
+    private final LinkedBlockingQueue<Notification> queue = new LinkedBlockingQueue<>();
+    private Semaphore budget; // 남은 메모리 예산 (바이트)
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition persisted = lock.newCondition();
+    private long lastAssignedId; // lock 안에서만 변경
+    private long reservedUpTo; // lock 안에서만 변경 (DB에 기록된 예약 상한, 이 ID까지는 부여 가능)
+    private volatile long persistedId; // 이 ID까지는 저장 완료(또는 실패로 포기)
+
+    private Thread writerThread;
+    private volatile boolean running;
+
+    // 저장에 끝내 실패한 알림을 통보받을 리스너 (읽지 않은 알림 수 보정 등)
+    private final List<Consumer<Notification>> failureListeners = new CopyOnWriteArrayList<>();
+
+    private Timer flushTimer;
+    private Counter droppedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void init() {
+        budget = new Semaphore(maxPendingBytes);
+        notificationJdbcRepository.createReservationTableIfMissing();
+        lastAssignedId = Math.max(notificationJdbcRepository.findMaxId(), notificationJdbcRepository.findReservedId());
+        reservedUpTo = lastAssignedId; // 이전 실행의 예약분은 푸시되었을 수 있으므로 새 블록부터 예약
+        persistedId = lastAssignedId;
+
+        Gauge.builder("notification.write-behind.pending", queue, LinkedBlockingQueue::size)
+                .description("저장 대기 중인 알림 수")
+                .register(meterRegistry);
+        Gauge.builder("notification.write-behind.pending.bytes", this, w -> w.maxPendingBytes - w.budget.availablePermits())
+                .description("저장 대기 중인 알림의 추정 메모리")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("notification.write-behind.flush")
+                .description("알림 배치 한 번을 저장하는 데 걸린 시간")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("notification.write-behind.dropped").description("메모리 예산 초과로 버려진 알림 수").register(meterRegistry);
+        failedCounter = Counter.builder("notification.write-behind.failed").description("저장에 실패해 버려진 알림 수").register(meterRegistry);
+
+        running = true;
+        writerThread = new Thread(this::drainLoop, "notification-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        logger.info("Notification write-behind started: next ID={}, batchSize={}, flushIntervalMs={}", lastAssignedId + 1, batchSize, flushIntervalMs);
+    }
+
+    /**
+     * 알림에 ID를 부여하고 저장 대기열에 넣습니다. 저장을 기다리지 않습니다.
+     * 메모리 예산이 가득 차 있으면 offer-timeout-ms까지 기다립니다.
+     * @return 대기열에 들어갔으면 true (notification.id가 채워짐), 예산 초과나 ID 예약 실패로 버려졌으면 false
+     */
+    public boolean submit(Notification notification) {
+        int size = estimateSize(notification);
+        try {
+            if (!budget.tryAcquire(size, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                droppedCounter.increment();
+                logger.error("Notification write-behind buffer is full ({} bytes). Dropping notification: {}", maxPendingBytes, notification.getTitle());
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            droppedCounter.increment();
+            return false;
+        }
+        // ID 부여와 대기열 추가를 함께 해야 대기열이 ID 순서를 유지함 (persistedId 계산의 전제)
+        lock.lock();
+        try {
+            if (lastAssignedId >= reservedUpTo && !reserveIds()) {
+                budget.release(size);
+                droppedCounter.increment();
+                return false;
+            }
+            notification.setId(++lastAssignedId);
+            queue.add(notification);
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    // lock을 잡은 상태에서 호출. 다음 ID 블록의 상한을 DB에 기록해야 그 블록의 ID를 부여할 수 있음 (id-block-size건마다 한 번)
+    private boolean reserveIds() {
+        long upTo = lastAssignedId + idBlockSize;
+        try {
+            notificationJdbcRepository.saveReservedId(upTo);
+        } catch (Exception e) {
+            logger.error("Failed to reserve notification IDs up to {}. Dropping notification: {}", upTo, e.getMessage());
+            return false;
+        }
+        reservedUpTo = upTo;
+        return true;
+    }
+
+    /**
+     * 지금까지 부여된 모든 알림이 저장될 때까지 최대 timeoutMs 기다립니다. 대기 중인 알림이 없으면 바로 반환합니다.
+     */
+    public void awaitPersisted(long timeoutMs) {
+        lock.lock();
+        try {
+            long target = lastAssignedId;
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (persistedId < target && remaining > 0) {
+                remaining = persisted.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 저장에 끝내 실패해 버려진 알림을 통보받을 리스너를 등록합니다 (writer 스레드에서 호출).
+     */
+    public void addFailureListener(Consumer<Notification> listener) {
+        failureListeners.add(listener);
+    }
+
+    /**
+     * 조회 API가 기다리기에 적당한 시간 (배치 한 번 분량)을 반환합니다.
+     */
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    private void drainLoop() {
+        List<Notification> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Notification first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // 첫 알림 이후 flush-interval-ms 동안 또는 batch-size 건까지 모음
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Notification next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                persistBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.error("Unexpected error in notification writer: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+
+        // 종료 시 남아 있는 알림을 모두 저장
+        while (queue.drainTo(batch, batchSize) > 0) {
+            persistBatch(batch);
+            batch.clear();
+        }
+    }
+
+    // 배치 전체가 실패하면 문제 건만 걸러내기 위해 한 건씩 다시 저장. 어느 경우든 대기자는 깨움
+    private void persistBatch(List<Notification> batch) {
+        long start = System.nanoTime();
+        try {
+            notificationJdbcRepository.batchInsert(batch);
+        } catch (Exception e) {
+            logger.error("Batch write of {} notifications failed, retrying one by one: {}", batch.size(), e.getMessage());
+            for (Notification notification : batch) {
+                try {
+                    notificationJdbcRepository.batchInsert(List.of(notification));
+                } catch (Exception ex) {
+                    failedCounter.increment();
+                    logger.error("Dropping notification after write failure: {}", notification, ex);
+                    failureListeners.forEach(listener -> listener.accept(notification));
+                }
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            int bytes = 0;
+            for (Notification notification : batch) {
+                bytes += estimateSize(notification);
+            }
+            budget.release(bytes);
+            lock.lock();
+            try {
+                persistedId = batch.get(batch.size() - 1).getId();
+                persisted.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static int estimateSize(Notification notification) {
+        int chars = (notification.getTitle() == null ? 0 : notification.getTitle().length())
+                + (notification.getMessage() == null ? 0 : notification.getMessage().length());
+        return ENTRY_OVERHEAD_BYTES + chars * 2;
+    }
+
+    /**
+     * 애플리케이션 종료 시 writer 스레드를 멈추고 남은 알림을 저장합니다.
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty()) {
+            logger.warn("Notification writer stopped with {} notifications still queued.", queue.size());
+        }
+        logger.info("Notification write-behind has been shut down.");
+    }
+}
@@ -5,7 +5,11 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface DailyTaskProgressRepository extends JpaRepository<DailyTaskProgress, Long> {
@@ -14,4 +18,10 @@ public interface DailyTaskProgressRepository extends JpaRepository<DailyTaskProg
 
     // userId와 날짜 범위로 DailyTaskProgress 엔티티 리스트를 찾는 메서드
     List<DailyTaskProgress> findByUserIdAndRecordDateBetweenOrderByRecordDateAsc(String userId, LocalDate startDate, LocalDate endDate);
+
+    // 엔티티를 읽지 않고 완료 작업량만 단일 UPDATE로 갱신하는 메서드
+    @Modifying
+    @Transactional
+    @Query("UPDATE DailyTaskProgress p SET p.completedTasks = :completedTasks WHERE p.userId = :userId AND p.recordDate = :recordDate")
+    int updateCompletedTasks(@Param("userId") String userId, @Param("recordDate") LocalDate recordDate, @Param("completedTasks") int completedTasks);
 }
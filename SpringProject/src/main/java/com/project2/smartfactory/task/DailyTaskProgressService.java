@@ -0,0 +1,159 @@
+package com.project2.smartfactory.task;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.project2.smartfactory.defect.LiveProductionCounter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 당일 작업 진척 상황 전용 서비스.
+ * - 완료 개수는 LiveProductionCounter의 당일 합계를 사용하므로 조회 시 DB에 접근하지 않습니다.
+ * - 당일 총 작업량은 사용자별로 메모리에 보관하고, 날짜가 바뀌었을 때만 DB에서 다시 읽습니다.
+ * - 완료 개수가 바뀌면 주기적으로 daily_task_progress.completedTasks에 단일 UPDATE로 반영합니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DailyTaskProgressService {
+
+    private static final long SYNC_INTERVAL_SECONDS = 5;
+
+    private final DailyTaskProgressRepository dailyTaskProgressRepository;
+    private final LiveProductionCounter liveProductionCounter;
+
+    // 사용자 ID -> 당일 목표 (총 작업량, 마지막으로 DB에 반영한 완료 개수)
+    private final Map<String, DailyTarget> targets = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "task-progress-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 당일 목표와 저장된 완료 개수 한 사용자분. 날짜가 바뀌면 새 객체로 교체됩니다.
+     */
+    private static final class DailyTarget {
+        final LocalDate recordDate;
+        final int dailyTotalTasks;
+        final boolean persisted; // daily_task_progress 행이 존재하는지
+        volatile long persistedCompletedTasks;
+
+        DailyTarget(LocalDate recordDate, int dailyTotalTasks, boolean persisted, long persistedCompletedTasks) {
+            this.recordDate = recordDate;
+            this.dailyTotalTasks = dailyTotalTasks;
+            this.persisted = persisted;
+            this.persistedCompletedTasks = persistedCompletedTasks;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        scheduler.scheduleAtFixedRate(this::syncCompletedTasks, SYNC_INTERVAL_SECONDS, SYNC_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 당일 완료된 작업(감지) 개수를 반환합니다. (메모리 카운터, DB 조회 없음)
+     */
+    public long getTodayCompletedTasks() {
+        long[] counts = new long[LiveProductionCounter.FIELDS];
+        liveProductionCounter.todayCounts(counts);
+        return counts[LiveProductionCounter.TOTAL];
+    }
+
+    /**
+     * 당일 진척 상황을 반환합니다.
+     * 총 작업량은 날짜가 바뀐 뒤 첫 호출에서만 DB에서 읽습니다.
+     * @param userId 사용자 ID
+     * @return 당일 진척 상황 DTO
+     */
+    public DailyTaskProgressDto getTodayProgress(String userId) {
+        LocalDate today = LocalDate.now();
+        DailyTarget target = getTarget(userId, today);
+        return new DailyTaskProgressDto(today, target.dailyTotalTasks, (int) getTodayCompletedTasks());
+    }
+
+    /**
+     * 당일 총 작업량을 설정합니다.
+     * 기존 진척 상황이 있으면 갱신하고, 없으면 새로 만들어 현재 완료 개수와 함께 저장합니다.
+     * @param userId 사용자 ID
+     * @param dailyTotalTasks 총 작업량
+     * @return 저장된 진척 상황 DTO
+     */
+    @Transactional
+    public DailyTaskProgressDto setTodayTotalTasks(String userId, int dailyTotalTasks) {
+        LocalDate today = LocalDate.now();
+        int completedTasks = (int) getTodayCompletedTasks();
+
+        DailyTaskProgress progress = dailyTaskProgressRepository.findByUserIdAndRecordDate(userId, today)
+                .orElseGet(() -> {
+                    log.debug("Creating new daily task progress for user '{}' on {}", userId, today);
+                    return new DailyTaskProgress(userId, today, 0, 0);
+                });
+        progress.setDailyTotalTasks(dailyTotalTasks);
+        progress.setCompletedTasks(completedTasks);
+        DailyTaskProgress savedProgress = dailyTaskProgressRepository.save(progress);
+
+        targets.put(userId, new DailyTarget(today, savedProgress.getDailyTotalTasks(), true, completedTasks));
+        return new DailyTaskProgressDto(savedProgress.getRecordDate(), savedProgress.getDailyTotalTasks(), savedProgress.getCompletedTasks());
+    }
+
+    private DailyTarget getTarget(String userId, LocalDate today) {
+        DailyTarget target = targets.get(userId);
+        if (target != null && target.recordDate.equals(today)) {
+            return target;
+        }
+        Optional<DailyTaskProgress> existingProgress = dailyTaskProgressRepository.findByUserIdAndRecordDate(userId, today);
+        DailyTarget loaded = existingProgress
+                .map(p -> new DailyTarget(today, p.getDailyTotalTasks(), true, p.getCompletedTasks()))
+                .orElseGet(() -> new DailyTarget(today, 0, false, 0));
+        log.debug("Loaded daily total tasks for user '{}' on {}: {}", userId, today, loaded.dailyTotalTasks);
+        targets.put(userId, loaded);
+        return loaded;
+    }
+
+    /**
+     * 완료 개수가 바뀐 사용자의 daily_task_progress.completedTasks를 갱신합니다.
+     */
+    private void syncCompletedTasks() {
+        try {
+            LocalDate today = LocalDate.now();
+            long completedTasks = getTodayCompletedTasks();
+            targets.forEach((userId, target) -> {
+                if (!target.persisted || !target.recordDate.equals(today) || target.persistedCompletedTasks == completedTasks) {
+                    return;
+                }
+                dailyTaskProgressRepository.updateCompletedTasks(userId, today, (int) completedTasks);
+                target.persistedCompletedTasks = completedTasks;
+            });
+        } catch (Exception e) {
+            log.error("Error while syncing completed tasks: {}", e.getMessage(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdownScheduler() {
+        scheduler.shutdown();
+        try {
+            // 진행 중인 주기 동기화가 끝난 뒤에 마지막 동기화를 해야 두 동기화가 겹치지 않음
+            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Task progress sync did not finish within 5 seconds.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        syncCompletedTasks(); // 종료 직전 마지막 완료 개수 반영
+    }
+}
@@ -0,0 +1,67 @@
+package com.project2.smartfactory.uptime;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * 장비별 가동/정지 구간 테이블.
+ * 한 장비의 구간은 서로 겹치지 않으며, 현재 진행 중인 구간은 end_time이 NULL입니다.
+ * DeviceUptimeService가 상태 전이마다 증분 갱신하고, DeviceIntervalRepository가 JDBC로 읽고 씁니다.
+ */
+@Entity
+@Table(name = "device_intervals", indexes = {
+    // 장비별 기간 조회 (start_time < to AND end_time > from)
+    @Index(name = "idx_device_intervals_device_start", columnList = "device, start_time")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@ToString
+public class DeviceInterval {
+
+    /**
+     * 구간 동안의 장비 상태.
+     */
+    public enum State {
+        RUNNING, // 가동
+        STOPPED, // 정지 (사용자 정지, 강제 중지, 오류 포함)
+        UNKNOWN  // 상태 확인 불가
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "device", nullable = false, length = 16) // DeviceStatusService.Device 이름
+    private String device;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", nullable = false, length = 16)
+    private State state;
+
+    @Column(name = "start_time", nullable = false) // 구간 시작 (포함)
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time") // 구간 끝 (미포함), 진행 중이면 null
+    private LocalDateTime endTime;
+
+    public DeviceInterval(String device, State state, LocalDateTime startTime, LocalDateTime endTime) {
+        this.device = device;
+        this.state = state;
+        this.startTime = startTime;
+        this.endTime = endTime;
+    }
+}
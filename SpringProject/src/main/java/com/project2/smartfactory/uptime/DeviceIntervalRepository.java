@@ -0,0 +1,108 @@
+package com.project2.smartfactory.uptime;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * device_intervals 테이블에 대한 JDBC 리포지토리.
+ * 기간 조회는 (device, start_time) 인덱스로 범위에 걸친 구간만 읽습니다.
+ */
+@Repository
+@RequiredArgsConstructor
+@DependsOn("entityManagerFactory") // ddl-auto로 device_intervals가 만들어진 뒤에 초기화
+public class DeviceIntervalRepository {
+
+    private static final String SELECT_COLUMNS = "SELECT id, device, state, start_time, end_time FROM device_intervals";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO device_intervals (device, state, start_time, end_time) VALUES (?, ?, ?, ?)";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * [from, to) 범위에 걸친 구간을 시작 시각 순으로 반환합니다. 진행 중인 구간도 포함합니다.
+     */
+    public List<DeviceInterval> findOverlapping(String device, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(
+                SELECT_COLUMNS + " WHERE device = ? AND start_time < ? AND (end_time IS NULL OR end_time > ?) ORDER BY start_time, id",
+                (rs, rowNum) -> mapRow(rs), device, Timestamp.valueOf(to), Timestamp.valueOf(from));
+    }
+
+    /**
+     * 장비의 진행 중인 구간을 지정한 시각으로 닫습니다.
+     * @return 닫힌 구간 수
+     */
+    public int closeOpen(String device, LocalDateTime endTime) {
+        return jdbcTemplate.update("UPDATE device_intervals SET end_time = ? WHERE device = ? AND end_time IS NULL",
+                Timestamp.valueOf(endTime), device);
+    }
+
+    /**
+     * 구간 한 건을 추가합니다.
+     */
+    public void insert(DeviceInterval interval) {
+        jdbcTemplate.update(INSERT_SQL, toArgs(interval));
+    }
+
+    /**
+     * 저장된 구간을 모두 지우고 주어진 구간으로 바꿉니다. 한 트랜잭션으로 처리되어 조회 중에 빈 테이블이 보이지 않습니다.
+     */
+    @Transactional
+    public void replaceAll(List<DeviceInterval> intervals) {
+        jdbcTemplate.update("DELETE FROM device_intervals");
+        List<Object[]> args = new ArrayList<>(Math.min(intervals.size(), BATCH_SIZE));
+        for (DeviceInterval interval : intervals) {
+            args.add(toArgs(interval));
+            if (args.size() >= BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT_SQL, args);
+                args.clear();
+            }
+        }
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, args);
+        }
+    }
+
+    /**
+     * 저장된 구간이 하나도 없으면 true를 반환합니다.
+     */
+    public boolean isEmpty() {
+        return !Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT EXISTS(SELECT 1 FROM device_intervals)", Boolean.class));
+    }
+
+    /**
+     * 제어 로그를 기록 순서대로 한 행씩 읽습니다 (구간 재구성용).
+     * 컬럼 순서: control_time, control_type, control_data, control_result_status
+     */
+    public void scanControlLogs(RowCallbackHandler handler) {
+        jdbcTemplate.query("SELECT control_time, control_type, control_data, control_result_status FROM control_logs ORDER BY control_time, id",
+                handler);
+    }
+
+    private static Object[] toArgs(DeviceInterval interval) {
+        return new Object[] {interval.getDevice(), interval.getState().name(), Timestamp.valueOf(interval.getStartTime()),
+                interval.getEndTime() == null ? null : Timestamp.valueOf(interval.getEndTime())};
+    }
+
+    private static DeviceInterval mapRow(ResultSet rs) throws SQLException {
+        Timestamp endTime = rs.getTimestamp("end_time");
+        DeviceInterval interval = new DeviceInterval(rs.getString("device"), DeviceInterval.State.valueOf(rs.getString("state")),
+                rs.getTimestamp("start_time").toLocalDateTime(), endTime == null ? null : endTime.toLocalDateTime());
+        interval.setId(rs.getLong("id"));
+        return interval;
+    }
+}
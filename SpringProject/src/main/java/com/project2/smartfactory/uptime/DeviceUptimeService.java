@@ -0,0 +1,273 @@
+package com.project2.smartfactory.uptime;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import com.project2.smartfactory.mqtt.DeviceStatusService.Device;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 장비 가동/정지 구간 추적.
+ * - DeviceStateMachine이 알려주는 실제 상태 전이를 가동/정지/확인 불가 세 가지로 분류하고,
+ *   분류가 바뀔 때만 진행 중인 구간을 닫고 새 구간을 엽니다 (control_logs 전체를 다시 읽지 않음).
+ * - DB 쓰기는 전용 스레드 하나에서 순서대로 처리하므로 MQTT 작업 스레드가 기다리지 않고, 재구성 작업과도 섞이지 않습니다.
+ * - 기간 요약(가동률, MTBF, 최장 정지)은 기간에 걸친 구간만 읽어 한 번 순회로 계산합니다.
+ * - device_intervals가 비어 있으면 기동 시 control_logs로부터 구간을 재구성합니다.
+ */
+@Service
+@RequiredArgsConstructor
+public class DeviceUptimeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeviceUptimeService.class);
+
+    private final DeviceIntervalRepository deviceIntervalRepository;
+
+    private ExecutorService writer;
+
+    // 장비별 진행 중인 구간의 상태 (writer 스레드에서만 접근)
+    private final Map<Device, DeviceInterval.State> current = new EnumMap<>(Device.class);
+
+    @PostConstruct
+    public void init() {
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "device-uptime-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 이전 실행에서 닫히지 않은 구간(비정상 종료)은 지금 닫음. 서버가 꺼져 있던 시간은 어느 상태로도 세지 않음
+        LocalDateTime now = LocalDateTime.now();
+        for (Device device : Device.values()) {
+            int closed = deviceIntervalRepository.closeOpen(device.name(), now);
+            if (closed > 0) {
+                logger.warn("Closed {} dangling {} interval(s) left open by the previous run.", closed, device);
+            }
+        }
+        if (deviceIntervalRepository.isEmpty()) {
+            writer.submit(() -> rebuild(true)); // 실시간 전이보다 먼저 처리되도록 첫 작업으로 등록
+        }
+    }
+
+    /**
+     * 장비 상태가 실제로 바뀌었을 때 호출합니다. 가동/정지 분류가 바뀌면 구간을 전환합니다.
+     */
+    public void onStatusChange(Device device, String status) {
+        DeviceInterval.State state = classify(device, status);
+        if (state == null) {
+            return;
+        }
+        LocalDateTime time = LocalDateTime.now();
+        writer.execute(() -> {
+            if (current.get(device) == state) {
+                return;
+            }
+            try {
+                deviceIntervalRepository.closeOpen(device.name(), time);
+                deviceIntervalRepository.insert(new DeviceInterval(device.name(), state, time, null));
+                current.put(device, state);
+            } catch (Exception e) {
+                logger.error("Failed to record {} interval change to {}: {}", device, state, e.getMessage(), e);
+            }
+        });
+    }
+
+    /**
+     * control_logs 전체로부터 구간을 다시 만듭니다. 실시간 전이와 같은 스레드에서 순서대로 실행됩니다.
+     * @return 재구성된 구간 수를 돌려주는 Future
+     */
+    public Future<Integer> requestRebuild() {
+        return writer.submit(() -> rebuild(false));
+    }
+
+    /**
+     * [from, to) 기간의 가동 요약을 계산합니다.
+     */
+    public UptimeSummary summarize(Device device, LocalDateTime from, LocalDateTime to) {
+        List<DeviceInterval> intervals = deviceIntervalRepository.findOverlapping(device.name(), from, to);
+        return summarize(device, intervals, 0, from, to, LocalDateTime.now());
+    }
+
+    /**
+     * [from, to) 기간을 bucket 길이로 나눈 구간별 가동 요약을 계산합니다 (교대조별: 8시간, 일별: 24시간 등).
+     * 구간 목록을 한 번만 조회하고, 버킷마다 시작 위치를 앞으로만 옮기며 계산합니다.
+     */
+    public List<UptimeSummary> summarizeBuckets(Device device, LocalDateTime from, LocalDateTime to, Duration bucket) {
+        List<DeviceInterval> intervals = deviceIntervalRepository.findOverlapping(device.name(), from, to);
+        LocalDateTime now = LocalDateTime.now();
+        List<UptimeSummary> summaries = new ArrayList<>();
+        int startIndex = 0;
+        for (LocalDateTime bucketStart = from; bucketStart.isBefore(to); bucketStart = bucketStart.plus(bucket)) {
+            LocalDateTime bucketEnd = bucketStart.plus(bucket).isAfter(to) ? to : bucketStart.plus(bucket);
+            summaries.add(summarize(device, intervals, startIndex, bucketStart, bucketEnd, now));
+            // 이 버킷 안에서 끝난 구간은 다음 버킷과 겹치지 않음
+            while (startIndex < intervals.size() && intervals.get(startIndex).getEndTime() != null
+                    && !intervals.get(startIndex).getEndTime().isAfter(bucketEnd)) {
+                startIndex++;
+            }
+        }
+        return summaries;
+    }
+
+    private static UptimeSummary summarize(Device device, List<DeviceInterval> intervals, int startIndex,
+            LocalDateTime from, LocalDateTime to, LocalDateTime now) {
+        long[] seconds = new long[DeviceInterval.State.values().length];
+        int stopCount = 0;
+        long longestStop = 0;
+        LocalDateTime longestStopStart = null;
+
+        for (int i = startIndex; i < intervals.size() && intervals.get(i).getStartTime().isBefore(to); i++) {
+            DeviceInterval interval = intervals.get(i);
+            LocalDateTime end = interval.getEndTime() == null ? now : interval.getEndTime();
+            LocalDateTime clippedStart = interval.getStartTime().isBefore(from) ? from : interval.getStartTime();
+            LocalDateTime clippedEnd = end.isAfter(to) ? to : end;
+            long length = Math.max(0, Duration.between(clippedStart, clippedEnd).getSeconds());
+            seconds[interval.getState().ordinal()] += length;
+
+            if (interval.getState() != DeviceInterval.State.RUNNING) {
+                DeviceInterval previous = i > 0 ? intervals.get(i - 1) : null;
+                if (previous != null && previous.getState() == DeviceInterval.State.RUNNING
+                        && interval.getStartTime().equals(previous.getEndTime()) && !interval.getStartTime().isBefore(from)) {
+                    stopCount++; // 가동 구간에 바로 이어진 정지만 셈 (서버 중단으로 끊긴 경우 제외)
+                }
+                if (length > longestStop) {
+                    longestStop = length;
+                    longestStopStart = interval.getStartTime();
+                }
+            }
+        }
+
+        long running = seconds[DeviceInterval.State.RUNNING.ordinal()];
+        long covered = running + seconds[DeviceInterval.State.STOPPED.ordinal()] + seconds[DeviceInterval.State.UNKNOWN.ordinal()];
+        double uptimePercent = covered == 0 ? 0 : Math.round(running * 10000.0 / covered) / 100.0;
+        return new UptimeSummary(device.name(), from, to, running, seconds[DeviceInterval.State.STOPPED.ordinal()],
+                seconds[DeviceInterval.State.UNKNOWN.ordinal()], uptimePercent, stopCount,
+                stopCount == 0 ? null : running / stopCount, longestStop, longestStopStart);
+    }
+
+    // atStartup이면 마지막 구간을 마지막 제어 로그 시각에 닫음: 그 이후는 서버가 꺼져 있던 시간이라 어느 상태로도 세지 않고,
+    // 새 구간은 기동 후 첫 실시간 전이에서 엶. API로 요청한 재구성이면 지금도 그 상태이므로 열린 채로 두고 다음 전이에서 닫음
+    private int rebuild(boolean atStartup) {
+        long start = System.currentTimeMillis();
+        List<DeviceInterval> intervals = new ArrayList<>();
+        Map<Device, DeviceInterval> open = new EnumMap<>(Device.class);
+        LocalDateTime[] lastLogTime = new LocalDateTime[1];
+
+        deviceIntervalRepository.scanControlLogs((RowCallbackHandler) rs -> {
+            LocalDateTime time = rs.getTimestamp(1).toLocalDateTime();
+            lastLogTime[0] = time;
+            Device device = deviceOf(rs.getString(2), rs.getString(3));
+            DeviceInterval.State state = device == null ? null : classify(device, statusOf(rs.getString(4)));
+            if (state == null) {
+                return;
+            }
+            DeviceInterval previous = open.get(device);
+            if (previous != null && previous.getState() == state) {
+                return;
+            }
+            if (previous != null) {
+                previous.setEndTime(time);
+                intervals.add(previous);
+            }
+            open.put(device, new DeviceInterval(device.name(), state, time, null));
+        });
+        if (atStartup) {
+            open.values().forEach(interval -> interval.setEndTime(lastLogTime[0]));
+        }
+        intervals.addAll(open.values());
+        deviceIntervalRepository.replaceAll(intervals);
+
+        current.clear();
+        if (!atStartup) {
+            open.forEach((device, interval) -> current.put(device, interval.getState()));
+        }
+        logger.info("Device intervals rebuilt from control_logs in {} ms: {} intervals.", System.currentTimeMillis() - start, intervals.size());
+        return intervals.size();
+    }
+
+    /**
+     * 장비 상태 문자열을 가동/정지/확인 불가로 분류합니다. 상태 전환과 무관한 보고(경고, 알 수 없는 명령 등)는 null.
+     */
+    static DeviceInterval.State classify(Device device, String status) {
+        if (status == null) {
+            return null;
+        }
+        String normalized = status.trim().toLowerCase();
+        if (normalized.equals("unknown")) {
+            return DeviceInterval.State.UNKNOWN;
+        }
+        if (device == Device.SYSTEM) {
+            return switch (normalized) {
+                case "running" -> DeviceInterval.State.RUNNING;
+                case "stopped" -> DeviceInterval.State.STOPPED;
+                default -> null;
+            };
+        }
+        return switch (normalized) {
+            case "running", "started", "already running" -> DeviceInterval.State.RUNNING;
+            case "stopped", "stopped (forced)", "not running", "initialized", "error" -> DeviceInterval.State.STOPPED;
+            default -> null;
+        };
+    }
+
+    // 제어 로그의 유형/내용으로 장비를 판별 ("System Check", "System On" → SYSTEM / "Script Check", "Script Off" → SCRIPT)
+    private static Device deviceOf(String controlType, String controlData) {
+        if ("System Check".equals(controlType) || (controlData != null && controlData.startsWith("System"))) {
+            return Device.SYSTEM;
+        }
+        if ("Script Check".equals(controlType) || (controlData != null && controlData.startsWith("Script"))) {
+            return Device.SCRIPT;
+        }
+        return null;
+    }
+
+    // 조작 결과("이전→새 상태", "변화 없음(상태)", "상태")에서 새 상태를 꺼냄
+    private static String statusOf(String controlResultStatus) {
+        if (controlResultStatus == null) {
+            return null;
+        }
+        int arrow = controlResultStatus.lastIndexOf('→');
+        if (arrow >= 0) {
+            return controlResultStatus.substring(arrow + 1);
+        }
+        if (controlResultStatus.startsWith("변화 없음(") && controlResultStatus.endsWith(")")) {
+            return controlResultStatus.substring("변화 없음(".length(), controlResultStatus.length() - 1);
+        }
+        return controlResultStatus;
+    }
+
+    /**
+     * 진행 중인 구간을 종료 시각으로 닫고 writer 스레드를 멈춥니다.
+     */
+    @PreDestroy
+    public void shutdown() {
+        LocalDateTime now = LocalDateTime.now();
+        writer.execute(() -> {
+            for (Device device : current.keySet()) {
+                deviceIntervalRepository.closeOpen(device.name(), now);
+            }
+        });
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("Device uptime writer did not finish within 10 seconds.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.project2.smartfactory.uptime;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.project2.smartfactory.mqtt.DeviceStatusService.Device;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 장비 가동률 API.
+ * 예: /api/uptime?device=SYSTEM&from=2025-05-20T00:00:00&to=2025-05-21T00:00:00
+ *     /api/uptime/buckets?device=SCRIPT&from=2025-05-20T06:00:00&to=2025-05-21T06:00:00&hours=8 (교대조별)
+ */
+@RestController
+@RequestMapping("/api/uptime")
+@RequiredArgsConstructor
+public class UptimeController {
+
+    private static final int MAX_BUCKETS = 1000;
+
+    private final DeviceUptimeService deviceUptimeService;
+
+    /**
+     * 기간 전체의 가동 요약을 반환합니다. 기간을 생략하면 최근 24시간입니다.
+     * @param device 장비 (SCRIPT 또는 SYSTEM)
+     * @return 가동 요약, 장비 이름이나 기간이 잘못되면 400
+     */
+    @GetMapping
+    public ResponseEntity<UptimeSummary> getUptime(
+            @RequestParam(name = "device") String device,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        Device target = parseDevice(device);
+        LocalDateTime end = to == null ? LocalDateTime.now() : to;
+        LocalDateTime start = from == null ? end.minusDays(1) : from;
+        if (target == null || !start.isBefore(end)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(deviceUptimeService.summarize(target, start, end));
+    }
+
+    /**
+     * 기간을 hours 시간 단위로 나눈 구간별 가동 요약을 반환합니다 (기본 24시간 = 일별).
+     * @return 구간별 가동 요약, 장비 이름이나 기간이 잘못되었거나 구간이 너무 많으면 400
+     */
+    @GetMapping("/buckets")
+    public ResponseEntity<List<UptimeSummary>> getUptimeBuckets(
+            @RequestParam(name = "device") String device,
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(name = "hours", defaultValue = "24") int hours) {
+        Device target = parseDevice(device);
+        if (target == null || hours <= 0 || !from.isBefore(to)
+                || Duration.between(from, to).toHours() / hours >= MAX_BUCKETS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(deviceUptimeService.summarizeBuckets(target, from, to, Duration.ofHours(hours)));
+    }
+
+    /**
+     * 가동/정지 구간을 control_logs로부터 다시 만듭니다.
+     * @return 재구성된 구간 수
+     */
+    @PostMapping("/backfill")
+    public ResponseEntity<String> backfill() {
+        try {
+            int count = deviceUptimeService.requestRebuild().get(60, TimeUnit.SECONDS);
+            return ResponseEntity.ok("가동 구간 재구성 완료: " + count + "건");
+        } catch (TimeoutException e) {
+            return ResponseEntity.accepted().body("가동 구간 재구성이 진행 중입니다.");
+        } catch (ExecutionException e) {
+            return ResponseEntity.internalServerError().body("가동 구간 재구성 실패: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.internalServerError().body("가동 구간 재구성 대기 중 중단됨");
+        }
+    }
+
+    private static Device parseDevice(String device) {
+        try {
+            return Device.valueOf(device.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
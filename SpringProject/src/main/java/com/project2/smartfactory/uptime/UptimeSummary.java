@@ -0,0 +1,32 @@
+package com.project2.smartfactory.uptime;
+
+import java.time.LocalDateTime;
+
+/**
+ * 한 장비의 기간별 가동 요약.
+ * 시간 값은 모두 초 단위이며, 기록된 구간이 없는 시간(추적 이전, 서버 중단 중)은 어느 쪽에도 포함되지 않습니다.
+ * @param device 장비 이름
+ * @param from 기간 시작 (포함)
+ * @param to 기간 끝 (미포함)
+ * @param runningSeconds 가동 시간
+ * @param stoppedSeconds 정지 시간
+ * @param unknownSeconds 상태 확인 불가 시간
+ * @param uptimePercent 기록된 시간 중 가동 비율 (기록이 없으면 0)
+ * @param stopCount 기간 안에서 가동 → 정지/확인 불가로 바뀐 횟수
+ * @param mtbfSeconds 평균 정지 간격 (가동 시간 / 정지 횟수, 정지가 없으면 null)
+ * @param longestStopSeconds 가장 긴 정지(확인 불가 포함) 구간의 기간 내 길이
+ * @param longestStopStart 가장 긴 정지 구간의 시작 시각 (정지가 없으면 null)
+ */
+public record UptimeSummary(
+        String device,
+        LocalDateTime from,
+        LocalDateTime to,
+        long runningSeconds,
+        long stoppedSeconds,
+        long unknownSeconds,
+        double uptimePercent,
+        int stopCount,
+        Long mtbfSeconds,
+        long longestStopSeconds,
+        LocalDateTime longestStopStart) {
+}
@@ -15,6 +15,13 @@ document.addEventListener("DOMContentLoaded", () => {
 
 	const STATUS_UPDATE_INTERVAL = 5000; // 스크립트/시스템 상태는 자주 확인해도 부담 적음
 	const LOGS_UPDATE_INTERVAL = 5000;
+	const LOGS_PAGE_SIZE = 50; // 제어 로그 한 페이지 크기
+
+	// 제어 로그 페이지 상태
+	let controlLogsLatestId = undefined; // 화면에 있는 가장 최근 로그 ID (undefined: 첫 페이지 전, null: 로그 없음)
+	let controlLogsNextCursor = null; // 더 과거 페이지 커서
+	let controlLogsPolling = false; // 증분 조회 중복 방지
+	let controlLogsLoadingMore = false; // 과거 페이지 조회 중복 방지
 
 	const controlLogTableBody = document.querySelector(
 		"#control-log-table tbody",
@@ -400,22 +407,70 @@ document.addEventListener("DOMContentLoaded", () => {
 		return div.innerHTML;
 	}
 
-	// 감지 로그를 가져와서 화면에 표시하는 함수 (감지 로그 테이블)
+	// 제어 로그 한 건을 테이블 행으로 만드는 함수
+	function createControlLogRow(log) {
+		const row = document.createElement("tr");
+		row.classList.add("hover:bg-gray-50");
+		row.style.cursor = "pointer"; // 클릭 가능한 요소처럼 커서 변경
+
+		// 시간 (controlTime)
+		let timeCell = document.createElement("td");
+		timeCell.classList.add("py-2", "px-4", "border-b");
+		try {
+			timeCell.textContent = log.controlTime
+				? new Date(log.controlTime).toLocaleString()
+				: "-";
+		} catch (e) {
+			console.error("Error parsing control time:", log.controlTime, e);
+			timeCell.textContent = escapeHTML(log.controlTime) || "-"; // 파싱 실패 시 원본 문자열 표시
+		}
+		row.appendChild(timeCell);
+
+		// 종류 (type)
+		let typeCell = document.createElement("td");
+		typeCell.classList.add("py-2", "px-4", "border-b");
+		typeCell.textContent = escapeHTML(log.controlType) || "-";
+		row.appendChild(typeCell);
+
+		// 조작 내용(data)
+		let dataCell = document.createElement("td");
+		dataCell.classList.add("py-2", "px-4", "border-b");
+		dataCell.textContent = escapeHTML(log.controlData) || "-";
+		row.appendChild(dataCell);
+
+		// 결과 상태 (result status)
+		let rstatusCell = document.createElement("td");
+		rstatusCell.classList.add("py-2", "px-4", "border-b");
+		rstatusCell.textContent = escapeHTML(log.controlResultStatus) || "-";
+		row.appendChild(rstatusCell);
+
+		// 비고 (memo)
+		let memoCell = document.createElement("td");
+		memoCell.classList.add("py-2", "px-4", "border-b");
+		memoCell.textContent = escapeHTML(log.controlMemo) || "-";
+		row.appendChild(memoCell);
+
+		return row;
+	}
+
+	// 제어 로그 API 호출 (params: limit, cursor, sinceId 등)
+	async function fetchControlLogPage(params) {
+		const query = new URLSearchParams(params);
+		const response = await fetch(`${CONTROL_LOGS_API_URL}?${query}`);
+		if (!response.ok) {
+			throw new Error(`HTTP error! status: ${response.status}`);
+		}
+		// { items, nextCursor, latestId, hasMore }
+		return response.json();
+	}
+
+	// 제어 로그 첫 페이지를 가져와서 화면에 표시하는 함수 (제어 로그 테이블)
 	async function fetchAndDisplayControlLogs() {
-		// 스크롤 가능한 컨테이너 요소를 가져옵니다.
-		const scrollContainer = document.querySelector(
-			".control-log-scroll-container",
-		);
-		if (!scrollContainer || !controlLogTableBody) {
-			console.error(
-				"Error: 감지 로그 컨테이너 또는 테이블 본문 요소를 찾을 수 없습니다.",
-			);
+		if (!controlLogTableBody) {
+			console.error("Error: 제어 로그 테이블 본문 요소를 찾을 수 없습니다.");
 			return;
 		}
 
-		// 데이터를 새로 로드하기 전에 현재 스크롤 위치를 저장합니다.
-		const currentScrollTop = scrollContainer.scrollTop;
-
 		controlLogTableBody.innerHTML = `
                   <tr>
                     <td colspan="5" class="py-4 px-4 text-center text-gray-500">
@@ -425,84 +480,27 @@ document.addEventListener("DOMContentLoaded", () => {
                 `; // 로딩 메시지
 
 		try {
-			const response = await fetch(CONTROL_LOGS_API_URL);
-
-			if (!response.ok) {
-				throw new Error(`HTTP error! status: ${response.status}`);
-			}
-
-			// 감지 로그 데이터의 JSON 구조에 맞게 파싱 및 처리 (List<controlLog> 객체 예상)
-			const logs = await response.json();
-
-			// 가져온 로그 데이터를 전역 변수에 저장 (모달에서 사용)
-			// 원본 순서 그대로 저장
-			// controlLogsData = logs; // 이 변수가 어디에 정의되어 있는지 확인 필요
+			const page = await fetchControlLogPage({ limit: LOGS_PAGE_SIZE });
+			const logs = page.items || [];
+			controlLogsLatestId = page.latestId;
+			controlLogsNextCursor = page.nextCursor;
 
 			controlLogTableBody.innerHTML = ""; // 이전 내용 지우기
 
-			if (logs && logs.length > 0) {
-				// --- 서버에서 이미 최신순으로 보내준다고 가정하고 reverse() 제거 ---
-				// 만약 서버에서 오래된 순서로 보내준다면 이 부분을 다시 logs.slice().reverse()로 변경해야 합니다.
-				const orderedLogsForDisplay = logs; // <-- reverse() 제거
-
-				orderedLogsForDisplay.forEach((log) => {
-					// <-- 테이블 표시용 배열 순회
-					const row = document.createElement("tr");
-					row.classList.add("hover:bg-gray-50");
-					// 감지 로그 테이블 행에 클릭 이벤트 리스너 추가
-					row.style.cursor = "pointer"; // 클릭 가능한 요소처럼 커서 변경
-
-					// 시간 (controlTime)
-					let timeCell = document.createElement("td");
-					timeCell.classList.add("py-2", "px-4", "border-b");
-					try {
-						timeCell.textContent = log.controlTime
-							? new Date(log.controlTime).toLocaleString()
-							: "-";
-					} catch (e) {
-						console.error("Error parsing control time:", log.controlTime, e);
-						timeCell.textContent = escapeHTML(log.controlTime) || "-"; // 파싱 실패 시 원본 문자열 표시
-					}
-					row.appendChild(timeCell);
-
-					// 종류 (type)
-					let typeCell = document.createElement("td");
-					typeCell.classList.add("py-2", "px-4", "border-b");
-					typeCell.textContent = escapeHTML(log.controlType) || "-";
-					row.appendChild(typeCell);
-
-					// 조작 내용(data)
-					let dataCell = document.createElement("td");
-					dataCell.classList.add("py-2", "px-4", "border-b");
-					dataCell.textContent = escapeHTML(log.controlData) || "-";
-					row.appendChild(dataCell);
-
-					// 결과 상태 (result status)
-					let rstatusCell = document.createElement("td");
-					rstatusCell.classList.add("py-2", "px-4", "border-b");
-					rstatusCell.textContent = escapeHTML(log.controlResultStatus) || "-";
-					row.appendChild(rstatusCell);
-
-					// 비고 (memo)
-					let memoCell = document.createElement("td");
-					memoCell.classList.add("py-2", "px-4", "border-b");
-					memoCell.textContent = escapeHTML(log.controlMemo) || "-";
-					row.appendChild(memoCell);
-
-					controlLogTableBody.appendChild(row);
+			if (logs.length > 0) {
+				// 서버가 최신순으로 보내줌
+				logs.forEach((log) => {
+					controlLogTableBody.appendChild(createControlLogRow(log));
 				});
 			} else {
 				controlLogTableBody.innerHTML = `
-                          <tr>
+                          <tr id="control-log-empty-row">
                             <td colspan="5" class="py-4 px-4 text-center text-gray-500">
-                                  감지 로그가 없습니다.
+                                  제어 로그가 없습니다.
                             </td>
                           </tr>
                         `;
 			}
-
-			// 테이블 업데이트가 완료된 후 저장된 스크롤 위치로 복원합니다.
-			scrollContainer.scrollTop = currentScrollTop;
 		} catch (error) {
 			console.error("제어 로그를 가져오는 중 오류 발생:", error);
 			controlLogTableBody.innerHTML = `
@@ -515,6 +513,87 @@ document.addEventListener("DOMContentLoaded", () => {
 		}
 	}
 
+	// 마지막으로 받은 로그 이후에 기록된 새 제어 로그만 가져와 테이블 맨 위에 추가하는 함수
+	async function fetchNewControlLogs() {
+		if (!controlLogTableBody || controlLogsPolling) return;
+		if (controlLogsLatestId === undefined) {
+			// 첫 페이지를 아직 못 받았으면 다시 시도
+			fetchAndDisplayControlLogs();
+			return;
+		}
+
+		controlLogsPolling = true;
+		try {
+			let hasMore = true;
+			while (hasMore) {
+				const params = { limit: LOGS_PAGE_SIZE };
+				if (controlLogsLatestId !== null) {
+					params.sinceId = controlLogsLatestId;
+				}
+				const page = await fetchControlLogPage(params);
+				const logs = page.items || [];
+				if (controlLogsLatestId === null) {
+					// 로그가 하나도 없던 상태: 첫 페이지(최신순)로 다시 그림
+					if (logs.length > 0) {
+						await fetchAndDisplayControlLogs();
+					}
+					return;
+				}
+				if (logs.length > 0) {
+					const emptyRow = document.getElementById("control-log-empty-row");
+					if (emptyRow) emptyRow.remove();
+				}
+				// 증분 조회는 기록된 순서(오래된 것부터)로 오므로 차례로 맨 위에 삽입
+				logs.forEach((log) => {
+					controlLogTableBody.insertBefore(
+						createControlLogRow(log),
+						controlLogTableBody.firstChild,
+					);
+				});
+				controlLogsLatestId = page.latestId;
+				hasMore = page.hasMore;
+			}
+		} catch (error) {
+			console.error("새 제어 로그를 가져오는 중 오류 발생:", error);
+		} finally {
+			controlLogsPolling = false;
+		}
+	}
+
+	// 스크롤이 테이블 끝에 가까워지면 더 과거의 제어 로그를 이어 붙이는 함수
+	async function loadOlderControlLogs() {
+		if (!controlLogsNextCursor || controlLogsLoadingMore) return;
+
+		controlLogsLoadingMore = true;
+		try {
+			const page = await fetchControlLogPage({
+				limit: LOGS_PAGE_SIZE,
+				cursor: controlLogsNextCursor,
+			});
+			(page.items || []).forEach((log) => {
+				controlLogTableBody.appendChild(createControlLogRow(log));
+			});
+			controlLogsNextCursor = page.nextCursor;
+		} catch (error) {
+			console.error("이전 제어 로그를 가져오는 중 오류 발생:", error);
+		} finally {
+			controlLogsLoadingMore = false;
+		}
+	}
+
+	const controlLogScrollContainer = document.querySelector(
+		".control-log-scroll-container",
+	);
+	if (controlLogScrollContainer) {
+		controlLogScrollContainer.addEventListener("scroll", () => {
+			const { scrollTop, scrollHeight, clientHeight } =
+				controlLogScrollContainer;
+			if (scrollTop + clientHeight >= scrollHeight - 50) {
+				loadOlderControlLogs();
+			}
+		});
+	}
+
 	// 초기 데이터 로딩
 	fetchAndDisplayControlLogs();
 	fetchAndDisplaySystemStatus(); // 시스템 상태 초기 로딩
@@ -522,7 +601,7 @@ document.addEventListener("DOMContentLoaded", () => {
 	fetchAndDisplayStreamStatus(); // 스트림 상태 초기 로딩
 
 	// 주기적으로 데이터 업데이트 설정
-	setInterval(fetchAndDisplayControlLogs, LOGS_UPDATE_INTERVAL);
+	setInterval(fetchNewControlLogs, LOGS_UPDATE_INTERVAL); // 새 제어 로그만 증분 조회
 	setInterval(fetchAndDisplaySystemStatus, STATUS_UPDATE_INTERVAL); // 시스템 상태 주기적 업데이트
 	setInterval(fetchAndDisplayScriptStatus, STATUS_UPDATE_INTERVAL); // 스크립트 상태 주기적 업데이트
 	setInterval(fetchAndDisplayStreamStatus, STATUS_UPDATE_INTERVAL); // 스트림 상태 주기적 업데이트 (필요시)
@@ -16,6 +16,8 @@ document.addEventListener("DOMContentLoaded", () => {
 	// 데이터 업데이트 주기 (밀리초) - S3 요청 줄이려면 이 값을 늘리세요.
 	const DEFECTS_UPDATE_INTERVAL = 30000; // 예: 30초
 	const LOGS_UPDATE_INTERVAL = 60000; // 예: 60초
+	const LOGS_PAGE_SIZE = 50; // 감지 로그 한 페이지 크기
+	const LOGS_MAX_PAGE_SIZE = 500; // 서버가 허용하는 최대 페이지 크기
 	const STATUS_UPDATE_INTERVAL = 5000; // 스크립트 상태는 자주 확인해도 부담 적음
 
 	// --- DOM 요소 가져오기 ---
@@ -38,6 +40,10 @@ document.addEventListener("DOMContentLoaded", () => {
 	// --- 전역 변수 ---
 	// 감지 로그 데이터를 저장할 배열 (모달에서 상세 정보를 찾기 위해 사용)
 	let detectionLogsData = [];
+	// 다음 감지 로그 페이지 커서 (null이면 마지막 페이지)
+	let detectionLogsNextCursor = null;
+	// 다음 페이지를 불러오는 중인지 여부 (중복 요청 방지)
+	let detectionLogsLoadingMore = false;
 	// 대체 스트림 URL 시도 여부를 추적하는 플래그
 	let fallbackAttempted = false;
 
@@ -327,7 +333,107 @@ document.addEventListener("DOMContentLoaded", () => {
 		}
 	}
 
+	// 감지 로그 한 건을 테이블 행으로 만드는 함수
+	function createDetectionLogRow(log) {
+		const row = document.createElement("tr");
+		row.classList.add("hover:bg-gray-50");
+		// 감지 로그 테이블 행에 클릭 이벤트 리스너 추가
+		row.style.cursor = "pointer"; // 클릭 가능한 요소처럼 커서 변경
+		row.addEventListener("click", function () {
+			// 이 행에 해당하는 로그 데이터 찾기 (id 또는 다른 고유 값 사용)
+			// 주의: find 메서드는 원본 배열(detectionLogsData)에서 찾습니다.
+			const selectedLog = detectionLogsData.find((item) => item.id === log.id); // log.id가 고유하다고 가정
+
+			if (selectedLog) {
+				const logDetails = {
+					시간: selectedLog.detectionTime
+						? new Date(selectedLog.detectionTime).toLocaleString()
+						: "-",
+					상태: selectedLog.status || "-",
+					"불량 유형 요약": selectedLog.defectSummary || "-",
+					"불량 개수":
+						selectedLog.defectCount !== undefined &&
+						selectedLog.defectCount !== null
+							? selectedLog.defectCount
+							: "-",
+				};
+				openImageModal(selectedLog.imageUrl, logDetails);
+			} else {
+				console.error(`Selected log data not found for id: ${log.id}`);
+				// 상세 정보를 찾을 수 없다는 메시지와 함께 이미지라도 표시
+				openImageModal(log.imageUrl, {
+					"상세 정보": "데이터를 찾을 수 없습니다.",
+				});
+			}
+		});
+
+		// 시간 (detectionTime)
+		let timeCell = document.createElement("td");
+		timeCell.classList.add("py-2", "px-4", "border-b");
+		try {
+			timeCell.textContent = log.detectionTime
+				? new Date(log.detectionTime).toLocaleString()
+				: "-";
+		} catch (e) {
+			console.error("Error parsing detection time:", log.detectionTime, e);
+			timeCell.textContent = escapeHTML(log.detectionTime) || "-"; // 파싱 실패 시 원본 문자열 표시
+		}
+		row.appendChild(timeCell);
+
+		// 상태 (status) - 예: "Normal", "Defect Detected"
+		let statusCell = document.createElement("td");
+		statusCell.classList.add("py-2", "px-4", "border-b");
+		statusCell.textContent = escapeHTML(log.status) || "-";
+		row.appendChild(statusCell);
+
+		// 불량 유형 요약 (defectSummary) - 불량 감지 시에만 해당
+		let summaryCell = document.createElement("td");
+		summaryCell.classList.add("py-2", "px-4", "border-b");
+		summaryCell.textContent = escapeHTML(log.defectSummary) || "-"; // defectSummary 필드 사용
+		row.appendChild(summaryCell);
+
+		// 불량 개수 (defectCount) - 불량 감지 시에만 해당
+		let countCell = document.createElement("td");
+		countCell.classList.add("py-2", "px-4", "border-b");
+		countCell.textContent =
+			log.defectCount !== undefined && log.defectCount !== null
+				? log.defectCount
+				: "-";
+		row.appendChild(countCell);
+
+		// 이미지 (imageUrl) - 불량 감지 시 스냅샷 이미지
+		let imageCell = document.createElement("td");
+		imageCell.classList.add("py-2", "px-4", "border-b", "text-center");
+		if (log.imageUrl) {
+			const img = document.createElement("img");
+			img.src = escapeHTML(log.imageUrl);
+			img.alt = "로그 스냅샷";
+			img.classList.add("log-image-in-table"); // 이미지 자체는 클릭 안함, 클래스 이름 변경
+			img.style.cssText = "width: 50px; height: auto;"; // 스타일 추가
+			imageCell.appendChild(img);
+		} else {
+			imageCell.textContent = "이미지 없음";
+		}
+		row.appendChild(imageCell);
+
+		return row;
+	}
+
+	// 감지 로그 한 페이지를 가져오는 함수 (서버가 최신순으로 정렬하여 반환)
+	async function fetchDetectionLogPage(cursor, limit) {
+		const params = new URLSearchParams({ limit: String(limit) });
+		if (cursor) {
+			params.set("cursor", cursor);
+		}
+		const response = await fetch(`${DETECTION_LOGS_API_URL}?${params}`);
+		if (!response.ok) {
+			throw new Error(`HTTP error! status: ${response.status}`);
+		}
+		return response.json(); // { items: List<DetectionLog>, nextCursor: string | null }
+	}
+
 	// 감지 로그를 가져와서 화면에 표시하는 함수 (감지 로그 테이블)
+	// 주기적 갱신 시에는 지금까지 불러온 건수만큼 첫 페이지부터 다시 가져옵니다.
 	async function fetchAndDisplayDetectionLogs() {
 		// 스크롤 가능한 컨테이너 요소를 가져옵니다.
 		const scrollContainer = document.querySelector(
@@ -343,125 +449,33 @@ document.addEventListener("DOMContentLoaded", () => {
 		// 데이터를 새로 로드하기 전에 현재 스크롤 위치를 저장합니다.
 		const currentScrollTop = scrollContainer.scrollTop;
 
-		detectionLogTableBody.innerHTML = `
+		if (detectionLogsData.length === 0) {
+			detectionLogTableBody.innerHTML = `
                 <tr>
 									<td colspan="5" class="py-4 px-4 text-center text-gray-500">
 												감지 로그 가져오는 중...
 									</td>
                 </tr>
               `; // 로딩 메시지
+		}
 
 		try {
-			const response = await fetch(DETECTION_LOGS_API_URL);
-
-			if (!response.ok) {
-				throw new Error(`HTTP error! status: ${response.status}`);
-			}
-
-			// 감지 로그 데이터의 JSON 구조에 맞게 파싱 및 처리 (List<DetectionLog> 객체 예상)
-			const logs = await response.json();
+			const limit = Math.min(
+				Math.max(LOGS_PAGE_SIZE, detectionLogsData.length),
+				LOGS_MAX_PAGE_SIZE,
+			);
+			const page = await fetchDetectionLogPage(null, limit);
+			const logs = page.items || [];
 
 			// 가져온 로그 데이터를 전역 변수에 저장 (모달에서 사용)
-			// 원본 순서 그대로 저장
 			detectionLogsData = logs;
+			detectionLogsNextCursor = page.nextCursor;
 
 			detectionLogTableBody.innerHTML = ""; // 이전 내용 지우기
 
-			if (logs && logs.length > 0) {
-				// --- 서버에서 이미 최신순으로 보내준다고 가정하고 reverse() 제거 ---
-				// 만약 서버에서 오래된 순서로 보내준다면 이 부분을 다시 logs.slice().reverse()로 변경해야 합니다.
-				const orderedLogsForDisplay = logs; // <-- reverse() 제거
-
-				orderedLogsForDisplay.forEach((log) => {
-					// <-- 테이블 표시용 배열 순회
-					const row = document.createElement("tr");
-					row.classList.add("hover:bg-gray-50");
-					// 감지 로그 테이블 행에 클릭 이벤트 리스너 추가
-					row.style.cursor = "pointer"; // 클릭 가능한 요소처럼 커서 변경
-					row.addEventListener("click", function () {
-						// 이 행에 해당하는 로그 데이터 찾기 (id 또는 다른 고유 값 사용)
-						// 주의: find 메서드는 원본 배열(detectionLogsData)에서 찾습니다.
-						const selectedLog = detectionLogsData.find(
-							(item) => item.id === log.id,
-						); // log.id가 고유하다고 가정
-
-						if (selectedLog) {
-							const logDetails = {
-								시간: selectedLog.detectionTime
-									? new Date(selectedLog.detectionTime).toLocaleString()
-									: "-",
-								상태: selectedLog.status || "-",
-								"불량 유형 요약": selectedLog.defectSummary || "-",
-								"불량 개수":
-									selectedLog.defectCount !== undefined &&
-									selectedLog.defectCount !== null
-										? selectedLog.defectCount
-										: "-",
-							};
-							openImageModal(selectedLog.imageUrl, logDetails);
-						} else {
-							console.error(`Selected log data not found for id: ${log.id}`);
-							// 상세 정보를 찾을 수 없다는 메시지와 함께 이미지라도 표시
-							openImageModal(log.imageUrl, {
-								"상세 정보": "데이터를 찾을 수 없습니다.",
-							});
-						}
-					});
-
-					// 시간 (detectionTime)
-					let timeCell = document.createElement("td");
-					timeCell.classList.add("py-2", "px-4", "border-b");
-					try {
-						timeCell.textContent = log.detectionTime
-							? new Date(log.detectionTime).toLocaleString()
-							: "-";
-					} catch (e) {
-						console.error(
-							"Error parsing detection time:",
-							log.detectionTime,
-							e,
-						);
-						timeCell.textContent = escapeHTML(log.detectionTime) || "-"; // 파싱 실패 시 원본 문자열 표시
-					}
-					row.appendChild(timeCell);
-
-					// 상태 (status) - 예: "Normal", "Defect Detected"
-					let statusCell = document.createElement("td");
-					statusCell.classList.add("py-2", "px-4", "border-b");
-					statusCell.textContent = escapeHTML(log.status) || "-";
-					row.appendChild(statusCell);
-
-					// 불량 유형 요약 (defectSummary) - 불량 감지 시에만 해당
-					let summaryCell = document.createElement("td");
-					summaryCell.classList.add("py-2", "px-4", "border-b");
-					summaryCell.textContent = escapeHTML(log.defectSummary) || "-"; // defectSummary 필드 사용
-					row.appendChild(summaryCell);
-
-					// 불량 개수 (defectCount) - 불량 감지 시에만 해당
-					let countCell = document.createElement("td");
-					countCell.classList.add("py-2", "px-4", "border-b");
-					countCell.textContent =
-						log.defectCount !== undefined && log.defectCount !== null
-							? log.defectCount
-							: "-";
-					row.appendChild(countCell);
-
-					// 이미지 (imageUrl) - 불량 감지 시 스냅샷 이미지
-					let imageCell = document.createElement("td");
-					imageCell.classList.add("py-2", "px-4", "border-b", "text-center");
-					if (log.imageUrl) {
-						const img = document.createElement("img");
-						img.src = escapeHTML(log.imageUrl);
-						img.alt = "로그 스냅샷";
-						img.classList.add("log-image-in-table"); // 이미지 자체는 클릭 안함, 클래스 이름 변경
-						img.style.cssText = "width: 50px; height: auto;"; // 스타일 추가
-						imageCell.appendChild(img);
-					} else {
-						imageCell.textContent = "이미지 없음";
-					}
-					row.appendChild(imageCell);
-
-					detectionLogTableBody.appendChild(row);
+			if (logs.length > 0) {
+				logs.forEach((log) => {
+					detectionLogTableBody.appendChild(createDetectionLogRow(log));
 				});
 			} else {
 				detectionLogTableBody.innerHTML = `
@@ -487,6 +501,29 @@ document.addEventListener("DOMContentLoaded", () => {
 		}
 	}
 
+	// 스크롤이 테이블 끝에 가까워지면 다음 페이지를 이어 붙이는 함수
+	async function loadMoreDetectionLogs() {
+		if (!detectionLogsNextCursor || detectionLogsLoadingMore) return;
+
+		detectionLogsLoadingMore = true;
+		try {
+			const page = await fetchDetectionLogPage(
+				detectionLogsNextCursor,
+				LOGS_PAGE_SIZE,
+			);
+			const logs = page.items || [];
+			detectionLogsData = detectionLogsData.concat(logs);
+			detectionLogsNextCursor = page.nextCursor;
+			logs.forEach((log) => {
+				detectionLogTableBody.appendChild(createDetectionLogRow(log));
+			});
+		} catch (error) {
+			console.error("다음 감지 로그 페이지를 가져오는 중 오류 발생:", error);
+		} finally {
+			detectionLogsLoadingMore = false;
+		}
+	}
+
 	// --- 상세 이미지 모달 관련 함수 ---
 
 	// 이미지 모달 열기 함수
@@ -650,6 +687,20 @@ document.addEventListener("DOMContentLoaded", () => {
 		console.error("Error: 모달 또는 닫기 버튼 요소를 찾을 수 없습니다.");
 	}
 
+	// 감지 로그 테이블을 끝까지 스크롤하면 다음 페이지 로딩
+	const detectionLogScrollContainer = document.querySelector(
+		".detection-log-scroll-container",
+	);
+	if (detectionLogScrollContainer) {
+		detectionLogScrollContainer.addEventListener("scroll", () => {
+			const { scrollTop, scrollHeight, clientHeight } =
+				detectionLogScrollContainer;
+			if (scrollTop + clientHeight >= scrollHeight - 50) {
+				loadMoreDetectionLogs();
+			}
+		});
+	}
+
 	// 초기 데이터 로딩
 	fetchAndDisplayLatestDefects();
 	fetchAndDisplayDetectionLogs(); // 감지 로그 로딩 (최신순으로 표시됨)
@@ -341,6 +341,25 @@ document.addEventListener("DOMContentLoaded", function () {
 		console.log("초기 알림 개수:", count);
 	});
 
+	// 알림 창이 열려 있으면 목록 맨 위에 알림을 추가
+	function prependToOpenList(notification) {
+		if (!notificationContainer || !notificationList || notificationContainer.classList.contains("hidden")) {
+			return;
+		}
+		const noNotificationMessage =
+			notificationList.querySelector("li.text-center");
+		if (
+			noNotificationMessage &&
+			noNotificationMessage.textContent.includes("새로운 알림이 없습니다.")
+		) {
+			notificationList.innerHTML = "";
+		}
+		// display가 true인 경우에만 목록에 추가
+		if (notification.display) {
+			notificationList.prepend(createNotificationItem(notification));
+		}
+	}
+
 	eventSource.addEventListener("newNotification", function (event) {
 		const newNotification = JSON.parse(event.data);
 		console.log("새로운 알림 수신:", newNotification);
@@ -348,29 +367,28 @@ document.addEventListener("DOMContentLoaded", function () {
 		// 알림 창이 열려있지 않을 때만 뱃지 카운트 증가
 		if (notificationContainer.classList.contains("hidden")) {
 			updateBadgeCount(unreadCount + 1);
+			console.log("새 알림이 도착했습니다! (알림 창 닫힘 상태)");
 		} else {
 			// 알림 창이 열려있으면 즉시 읽음 처리 및 목록 업데이트 (새로고침)
 			markAllAsRead();
 		}
+		prependToOpenList(newNotification);
+	});
 
-		if (notificationContainer && notificationList) {
-			if (notificationContainer.classList.contains("hidden")) {
-				console.log("새 알림이 도착했습니다! (알림 창 닫힘 상태)");
-			} else {
-				const noNotificationMessage =
-					notificationList.querySelector("li.text-center");
-				if (
-					noNotificationMessage &&
-					noNotificationMessage.textContent.includes("새로운 알림이 없습니다.")
-				) {
-					notificationList.innerHTML = "";
-				}
-				// display가 true인 경우에만 목록에 추가
-				if (newNotification.display) {
-					notificationList.prepend(createNotificationItem(newNotification));
-				}
-			}
+	// 재연결 시 놓친 알림 (Last-Event-ID 이후). 먼저 받은 initialCount에 이미 포함되어 있으므로 뱃지는 올리지 않음
+	let replayMarkReadTimer = null;
+	eventSource.addEventListener("replayedNotification", function (event) {
+		const missedNotification = JSON.parse(event.data);
+		console.log("놓친 알림 수신:", missedNotification);
+
+		if (!notificationContainer.classList.contains("hidden") && replayMarkReadTimer === null) {
+			// 알림 창이 열려 있으면 연달아 오는 놓친 알림을 모아 한 번만 읽음 처리
+			replayMarkReadTimer = setTimeout(() => {
+				replayMarkReadTimer = null;
+				markAllAsRead();
+			}, 200);
 		}
+		prependToOpenList(missedNotification);
 	});
 
 	eventSource.onerror = function (event) {
@@ -0,0 +1,79 @@
+package com.project2.smartfactory.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class NotificationReplayBufferTest {
+
+    private static Notification notification(long id) {
+        return Notification.builder().id(id).build();
+    }
+
+    private static List<Long> ids(List<Notification> notifications) {
+        return notifications.stream().map(Notification::getId).toList();
+    }
+
+    @Test
+    void emptyBufferFallsBackToDatabase() {
+        NotificationReplayBuffer buffer = new NotificationReplayBuffer(8);
+
+        // 재시작 직후: 브라우저의 Last-Event-ID가 버퍼에 있었던 적이 없음
+        assertNull(buffer.since(1234));
+    }
+
+    @Test
+    void idsBeforeFirstRecordedFallBackToDatabase() {
+        NotificationReplayBuffer buffer = new NotificationReplayBuffer(8);
+        buffer.record(notification(1300));
+        buffer.record(notification(1301));
+
+        // 1235~1299는 재시작 전에 발행되어 버퍼에 없으므로 빈 목록이 아니라 null이어야 함
+        assertNull(buffer.since(1234));
+    }
+
+    @Test
+    void returnsMissedFromFirstRecordedId() {
+        NotificationReplayBuffer buffer = new NotificationReplayBuffer(8);
+        buffer.record(notification(1300));
+        buffer.record(notification(1301));
+        buffer.record(notification(1302));
+
+        assertEquals(List.of(1300L, 1301L, 1302L), ids(buffer.since(1299)));
+        assertEquals(List.of(1302L), ids(buffer.since(1301)));
+    }
+
+    @Test
+    void upToDateClientGetsEmptyList() {
+        NotificationReplayBuffer buffer = new NotificationReplayBuffer(8);
+        buffer.record(notification(5));
+
+        assertTrue(buffer.since(5).isEmpty());
+        assertTrue(buffer.since(7).isEmpty());
+    }
+
+    @Test
+    void skipsSuppressedIdsInsideRecordedRange() {
+        NotificationReplayBuffer buffer = new NotificationReplayBuffer(8);
+        buffer.record(notification(10));
+        buffer.record(notification(12)); // 11은 억제되어 기록되지 않음
+        buffer.record(notification(13));
+
+        assertEquals(List.of(12L, 13L), ids(buffer.since(10)));
+    }
+
+    @Test
+    void overwrittenRangeFallsBackToDatabase() {
+        NotificationReplayBuffer buffer = new NotificationReplayBuffer(4);
+        for (long id = 1; id <= 10; id++) {
+            buffer.record(notification(id));
+        }
+
+        assertNull(buffer.since(5));
+        assertEquals(List.of(7L, 8L, 9L, 10L), ids(buffer.since(6)));
+    }
+}